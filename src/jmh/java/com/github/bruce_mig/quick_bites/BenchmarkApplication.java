@@ -0,0 +1,62 @@
+package com.github.bruce_mig.quick_bites;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Boots the application for benchmarks: real beans behind their real resilience proxies, but no web
+ * server and no per-call logging, which would otherwise dominate the numbers.
+ *
+ * Beans are initialized lazily, so only what a benchmark looks up (and what that depends on) is created -
+ * the driver dispatcher's thread, for one, does not run unless a benchmark dispatches. The catalog is not
+ * watched, and the order journal, if anything opens it, lives in a temporary directory that is deleted when
+ * the benchmark JVM exits, never in {@code data/orders}.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param properties {@code key=value} pairs, applied with command-line precedence over application.yaml
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        Path journalDirectory = temporaryDirectory();
+        String[] args = Arrays.stream(properties)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .lazyInitialization(true)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN",
+                        "quick-bites.catalog.watch=false",
+                        "quick-bites.orders.journal.directory=" + journalDirectory)
+                .run(args);
+    }
+
+    private static Path temporaryDirectory() {
+        try {
+            Path directory = Files.createTempDirectory("quick-bites-benchmark");
+            // JMH closes the context in its tear-down, well before the forked JVM exits
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    FileSystemUtils.deleteRecursively(directory);
+                } catch (IOException ignored) {
+                    // Left for the OS to clean up with the rest of the temp directory
+                }
+            }));
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HungarianAssignment} solve time against batch size ({@code size} orders × {@code size} drivers) on
+ * random pickup-distance matrices, with orders and drivers scattered over a ~10km square.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatchingBenchmark {
+
+    @Param({"10", "50", "100", "250", "500", "1000"})
+    int size;
+
+    private double[][] cost;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[][] orders = randomPoints(size, random);
+        double[][] drivers = randomPoints(size, random);
+        cost = new double[size][size];
+        for (int o = 0; o < size; o++) {
+            for (int d = 0; d < size; d++) {
+                double dx = orders[o][0] - drivers[d][0];
+                double dy = orders[o][1] - drivers[d][1];
+                cost[o][d] = Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return HungarianAssignment.solve(cost);
+    }
+
+    private static double[][] randomPoints(int count, Random random) {
+        double[][] points = new double[count][2];
+        for (double[] point : points) {
+            point[0] = random.nextDouble() * 10;
+            point[1] = random.nextDouble() * 10;
+        }
+        return points;
+    }
+}
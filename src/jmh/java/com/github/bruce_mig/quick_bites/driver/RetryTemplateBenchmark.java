@@ -0,0 +1,93 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import com.github.bruce_mig.quick_bites.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.Retryable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the driver assignment retry stack ({@code RetryTemplate} + retry budget + listeners) per call,
+ * against the same attempts run in a plain loop.
+ *
+ * The back-off is configured to zero and attempts fail with a pre-built exception, so what is left is the
+ * retry machinery itself rather than sleeping or stack walking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RetryTemplateBenchmark {
+
+    private static final NoDriversAvailableException NO_DRIVERS = new NoDriversAvailableException("benchmark");
+    private static final Driver DRIVER = new Driver("bench", "Benchmark Driver", 5.0);
+
+    @Param({"0", "1", "3"})
+    int failuresBeforeSuccess;
+
+    private ConfigurableApplicationContext context;
+    private DriverAssignmentService driverAssignmentService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "quick-bites.drivers.retry.delay=0s",
+                // Enough budget for every call to retry failuresBeforeSuccess times - denial is not what we measure
+                "quick-bites.retry-budget.ratios.driver-pool=10",
+                "quick-bites.retry-budget.max-tokens=1000");
+        driverAssignmentService = context.getBean(DriverAssignmentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Driver plainLoop() {
+        FlakyAttempt attempt = new FlakyAttempt(failuresBeforeSuccess);
+        while (true) {
+            try {
+                return attempt.execute();
+            } catch (NoDriversAvailableException e) {
+                // try again straight away
+            }
+        }
+    }
+
+    @Benchmark
+    public Driver retryTemplate() throws RetryException {
+        return driverAssignmentService.executeWithRetries(new FlakyAttempt(failuresBeforeSuccess));
+    }
+
+    private static final class FlakyAttempt implements Retryable<Driver> {
+
+        private int failuresLeft;
+
+        private FlakyAttempt(int failures) {
+            this.failuresLeft = failures;
+        }
+
+        @Override
+        public Driver execute() {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw NO_DRIVERS;
+            }
+            return DRIVER;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Sustained durable order transitions per second through {@link OrderService}. Every benchmark thread
+ * walks its own orders through the lifecycle (place, confirm, prepare, dispatch, deliver, then a new
+ * order), so each operation is one journal event acknowledged only after its group commit. With
+ * {@code sync} the group is forced to the device; compare thread counts ({@code -t}) to see group commit
+ * turning more concurrent writers into larger groups rather than more forces: the {@code groupCommits}
+ * counter is reported next to the score, and {@code score / groupCommits} is the average group size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class OrderJournalBenchmark {
+
+    private static final Order.OrderStatus[] LIFECYCLE = {
+            Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING,
+            Order.OrderStatus.OUT_FOR_DELIVERY, Order.OrderStatus.DELIVERED
+    };
+
+    @Param({"true", "false"})
+    public boolean sync;
+
+    private Path directory;
+    private OrderService orderService;
+    private volatile long groupCommitsAtStart;
+    private final AtomicBoolean groupCommitsClaimed = new AtomicBoolean();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-journal-benchmark");
+        orderService = new OrderService(directory.toString(), DataSize.ofMegabytes(64), sync);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        groupCommitsAtStart = groupCommits();
+        groupCommitsClaimed.set(false);
+    }
+
+    // The iteration's group commits for the first thread to ask, nothing for the others
+    private long claimGroupCommits() {
+        return groupCommitsClaimed.compareAndSet(false, true) ? groupCommits() - groupCommitsAtStart : 0;
+    }
+
+    private long groupCommits() {
+        return orderService.stats().journal().groupCommits();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        orderService.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Lifecycle {
+        String orderId;
+        int step = LIFECYCLE.length;
+    }
+
+    /**
+     * Group commits, counted across all threads and reported as a rate like the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class JournalLoad {
+
+        public long groupCommits;
+
+        @TearDown(Level.Iteration)
+        public void collect(OrderJournalBenchmark benchmark) {
+            groupCommits = benchmark.claimGroupCommits();
+        }
+    }
+
+    @Benchmark
+    public Order transition(Lifecycle lifecycle, JournalLoad journalLoad) {
+        if (lifecycle.step == LIFECYCLE.length) {
+            Order order = orderService.place(new Order(null, "customer-bench", "rest-001",
+                    List.of("item-1", "item-2"), Money.parse("25.99"), "payment-bench"));
+            lifecycle.orderId = order.id();
+            lifecycle.step = 0;
+            return order;
+        }
+        return orderService.transition(lifecycle.orderId, LIFECYCLE[lifecycle.step++], null);
+    }
+}
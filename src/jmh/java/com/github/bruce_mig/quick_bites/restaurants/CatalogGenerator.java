@@ -0,0 +1,71 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic catalogs for benchmarks: 20 menu items per restaurant, names and descriptions drawn from a small
+ * food vocabulary with a skewed distribution - a few words are everywhere, most are rare - and the same
+ * catalog for the same size on every run.
+ */
+final class CatalogGenerator {
+
+    static final int MENU_SIZE = 20;
+
+    static final String[] CUISINES = {"American", "Italian", "Japanese", "Mexican", "Chinese", "Indian", "Thai", "Greek"};
+    static final String[] CATEGORIES = {"Mains", "Sides", "Desserts", "Drinks", "Salads", "Soups"};
+
+    private static final String[] ADJECTIVES = {"classic", "spicy", "smoky", "crispy", "grilled", "fresh", "creamy",
+            "roasted", "house", "tangy", "sweet", "garlic", "double", "vegan", "wood-fired", "honey", "lemon",
+            "truffle", "chipotle", "ginger"};
+    private static final String[] DISHES = {"burger", "pizza", "ramen", "taco", "burrito", "curry", "salad", "noodles",
+            "dumplings", "sandwich", "wrap", "bowl", "soup", "pasta", "risotto", "sushi", "gyoza", "kebab", "pad thai",
+            "tiramisu", "cheesecake", "lemonade", "smoothie", "fries", "wings"};
+    private static final String[] INGREDIENTS = {"chicken", "beef", "pork", "tofu", "salmon", "shrimp", "mushroom",
+            "cheddar", "mozzarella", "basil", "cilantro", "avocado", "bacon", "egg", "rice", "lime", "chili", "sesame",
+            "scallion", "tomato", "onion", "pepper", "spinach", "parmesan", "feta", "olive", "cucumber", "mango",
+            "coconut", "peanut", "kimchi", "miso", "pesto", "jalapeno", "pineapple", "yogurt", "mint", "walnut",
+            "caramel", "chocolate"};
+
+    private CatalogGenerator() {
+    }
+
+    static Catalog generate(int menuItems) {
+        Random random = new Random(42);
+        List<Restaurant> restaurants = new ArrayList<>(menuItems / MENU_SIZE);
+        List<MenuItem> items = new ArrayList<>(menuItems);
+        for (int r = 0; r < menuItems / MENU_SIZE; r++) {
+            String restaurantId = "rest-%06d".formatted(r);
+            List<String> menu = new ArrayList<>(MENU_SIZE);
+            for (int i = 0; i < MENU_SIZE; i++) {
+                String itemId = "item-%08d".formatted(items.size());
+                menu.add(itemId);
+                String name = pick(random, ADJECTIVES) + " " + pick(random, INGREDIENTS) + " " + pick(random, DISHES);
+                String description = "With " + pick(random, INGREDIENTS) + ", " + pick(random, INGREDIENTS)
+                        + " and " + pick(random, INGREDIENTS) + ", " + pick(random, ADJECTIVES) + " style";
+                items.add(new MenuItem(itemId, restaurantId, name, description,
+                        Money.of(299 + random.nextInt(2_700)),
+                        CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(10) != 0));
+            }
+            restaurants.add(new Restaurant(restaurantId, "Restaurant " + r, CUISINES[r % CUISINES.length],
+                    3.0 + random.nextInt(21) / 10.0, r + " Market St", 37.7 + r * 1e-6, -122.4 - r * 1e-6, menu));
+        }
+        return new Catalog(restaurants, items);
+    }
+
+    // Skewed towards the start of the vocabulary
+    private static String pick(Random random, String[] words) {
+        double skewed = random.nextDouble() * random.nextDouble();
+        return words[(int) (skewed * words.length)];
+    }
+
+    record Catalog(List<Restaurant> restaurants, List<MenuItem> menuItems) {
+
+        RestaurantCatalog toCatalog(long version) {
+            return new RestaurantCatalog(version, restaurants, menuItems);
+        }
+    }
+}
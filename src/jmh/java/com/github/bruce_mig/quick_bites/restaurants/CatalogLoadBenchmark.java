@@ -0,0 +1,90 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Catalog startup load of a generated catalog ({@code menuItems} items, see {@link CatalogGenerator}): the former
+ * whole-file {@code TypeReference} lists, streaming JSON straight into the indexes, and the memory-mapped
+ * binary snapshot. Run with {@code -prof gc} to compare allocation per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class CatalogLoadBenchmark {
+
+    @Param({"10000", "200000"})
+    public int menuItems;
+
+    private Path directory;
+    private Path snapshotFile;
+    private JsonMapper jsonMapper;
+    private DataLoader dataLoader;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog-benchmark");
+        snapshotFile = directory.resolve("catalog.snapshot");
+        jsonMapper = JsonMapper.builder().build();
+
+        CatalogGenerator.Catalog generated = CatalogGenerator.generate(menuItems);
+        jsonMapper.writeValue(directory.resolve(DataLoader.RESTAURANTS_FILE).toFile(), generated.restaurants());
+        jsonMapper.writeValue(directory.resolve(DataLoader.MENU_ITEMS_FILE).toFile(), generated.menuItems());
+
+        dataLoader = new DataLoader(jsonMapper, directory.toString(), "");
+        CatalogSnapshot.write(dataLoader.loadJson(1), snapshotFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public RestaurantCatalog jsonLists() throws IOException {
+        try (InputStream restaurants = Files.newInputStream(directory.resolve(DataLoader.RESTAURANTS_FILE));
+             InputStream items = Files.newInputStream(directory.resolve(DataLoader.MENU_ITEMS_FILE))) {
+            List<Restaurant> restaurantList = jsonMapper.readValue(restaurants, new TypeReference<>() {});
+            List<MenuItem> menuItemList = jsonMapper.readValue(items, new TypeReference<>() {});
+            return new RestaurantCatalog(1, restaurantList, menuItemList);
+        }
+    }
+
+    @Benchmark
+    public RestaurantCatalog jsonStreaming() {
+        return dataLoader.loadJson(1);
+    }
+
+    @Benchmark
+    public RestaurantCatalog snapshot() throws IOException {
+        return CatalogSnapshot.read(snapshotFile, 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu assembly for {@code getMenuFromPartner}: resolving menu item ids with a stream on every call versus
+ * the menu pre-resolved in the {@link RestaurantCatalog}, then the partner call behind the circuit breaker and
+ * behind the full retry + retry budget + circuit breaker stack - with the partner's simulated latency and
+ * failures switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MenuAssemblyBenchmark {
+
+    private static final String RESTAURANT_ID = "rest-001";
+
+    private ConfigurableApplicationContext context;
+    private RestaurantService proxy;
+    private RestaurantCatalog catalog;
+    private Restaurant restaurant;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        proxy = context.getBean(RestaurantService.class);
+        proxy.setSimulatedLatency(Duration.ZERO);
+        proxy.setSimulatedFailureRate(0);
+        catalog = context.getBean(DataLoader.class).catalog();
+        restaurant = catalog.restaurant(RESTAURANT_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MenuItem> streamAssembly() {
+        return restaurant.menuItemIds().stream()
+                .map(catalog::menuItem)
+                .filter(item -> item != null && item.available())
+                .toList();
+    }
+
+    @Benchmark
+    public List<MenuItem> catalogMenu() {
+        return catalog.menu(RESTAURANT_ID);
+    }
+
+    @Benchmark
+    public List<MenuItem> fetchMenuAttempt() {
+        return proxy.fetchMenuAttempt(RESTAURANT_ID);
+    }
+
+    @Benchmark
+    public List<MenuItem> getMenuFromPartner() {
+        return proxy.getMenuFromPartner(RESTAURANT_ID);
+    }
+}
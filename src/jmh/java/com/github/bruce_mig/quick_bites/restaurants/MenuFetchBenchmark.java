@@ -0,0 +1,102 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.BenchmarkApplication;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-to-end partner menu fetch latency with plain retries versus hedging, against the same simulated
+ * partner (200ms round trip, 40% failures) and bypassing the menu cache. Compare the p50 and p99 of the
+ * two modes, and the partner calls each spends per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(16)
+public class MenuFetchBenchmark {
+
+    @Param({"retry", "hedged"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private PartnerMenuClient client;
+    private RestaurantService restaurantService;
+    private List<String> restaurantIds;
+    private volatile long partnerCallsAtStart;
+    private final AtomicBoolean partnerCallsClaimed = new AtomicBoolean();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        client = context.getBean(PartnerMenuClient.class);
+        restaurantService = context.getBean(RestaurantService.class);
+        restaurantIds = restaurantService.findAll().stream().map(Restaurant::id).toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        partnerCallsAtStart = restaurantService.partnerCalls();
+        partnerCallsClaimed.set(false);
+    }
+
+    // The iteration's partner calls for the first thread to ask, nothing for the others
+    private long claimPartnerCalls() {
+        return partnerCallsClaimed.compareAndSet(false, true) ? restaurantService.partnerCalls() - partnerCallsAtStart : 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Completed requests, failed requests and partner calls per iteration; partner calls are counted across
+     * all threads, so {@code partnerCalls / requests} is the load each request put on the partner.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PartnerLoad {
+
+        public long requests;
+        public long failures;
+        public long partnerCalls;
+        private int next;
+
+        @TearDown(Level.Iteration)
+        public void collect(MenuFetchBenchmark benchmark) {
+            partnerCalls = benchmark.claimPartnerCalls();
+        }
+    }
+
+    @Benchmark
+    public List<MenuItem> fetch(PartnerLoad load) {
+        String restaurantId = restaurantIds.get(load.next++ % restaurantIds.size());
+        try {
+            return "hedged".equals(mode) ? client.getMenuHedged(restaurantId) : client.getMenuRetrying(restaurantId);
+        } catch (RuntimeException e) {
+            load.failures++;
+            return null;
+        } finally {
+            load.requests++;
+        }
+    }
+}
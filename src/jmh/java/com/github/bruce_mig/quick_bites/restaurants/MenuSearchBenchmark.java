@@ -0,0 +1,73 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MenuSearchIndex} queries over a generated catalog of {@code menuItems} items, sampled so the
+ * output includes p99. Queries range from one rare word to no text at all sorted over the whole catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class MenuSearchBenchmark {
+
+    @Param({"1000000"})
+    public int menuItems;
+
+    private MenuSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = MenuSearchIndex.build(CatalogGenerator.generate(menuItems).toCatalog(1));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result rareWords() {
+        return index.search(query("truffle chocolate", null, null, null, null, MenuSearchIndex.Sort.NAME, false, 0));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result commonWord() {
+        return index.search(query("classic", null, null, null, null, MenuSearchIndex.Sort.PRICE, false, 0));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result wordWithFilters() {
+        return index.search(query("chicken", "Italian", "Mains", new BigDecimal("10"), new BigDecimal("20"),
+                MenuSearchIndex.Sort.RATING, true, 0));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result filtersOnly() {
+        return index.search(query(null, "Japanese", "Desserts", null, new BigDecimal("8"),
+                MenuSearchIndex.Sort.PRICE, false, 0));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result priceRangeDeepPage() {
+        return index.search(query(null, null, null, new BigDecimal("10"), new BigDecimal("15"),
+                MenuSearchIndex.Sort.NAME, false, 500));
+    }
+
+    private static MenuSearchIndex.Query query(String text, String cuisine, String category, BigDecimal minPrice,
+                                               BigDecimal maxPrice, MenuSearchIndex.Sort sort, boolean descending,
+                                               int page) {
+        return new MenuSearchIndex.Query(text, cuisine, category, minPrice, maxPrice, true, sort, descending, page, 20);
+    }
+}
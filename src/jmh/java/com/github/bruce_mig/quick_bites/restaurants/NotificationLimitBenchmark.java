@@ -0,0 +1,136 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.BenchmarkApplication;
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.resilience.LoadSheddingException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of the concurrency limit proxy on {@code notifyRestaurant}: {@value #CALLS} notifications spread over
+ * {@value #RESTAURANTS} restaurants, issued by {@code concurrency} platform or virtual threads, through the
+ * proxy and straight to the target. Scores are per notification.
+ *
+ * The simulated restaurant delay defaults to zero so the score is the limiter's own overhead (permit
+ * bookkeeping, SpEL key and lane evaluation, contention); raise {@code delayMillis} to see it under queueing,
+ * and the {@code shed} counter for the notifications the limiter turned away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NotificationLimitBenchmark {
+
+    private static final int CALLS = 4096;
+    private static final int RESTAURANTS = 64;
+
+    @Param({"1", "4", "16", "64", "256"})
+    int concurrency;
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"0"})
+    int delayMillis;
+
+    private ConfigurableApplicationContext context;
+    private RestaurantNotificationService proxy;
+    private RestaurantNotificationService target;
+    private ExecutorService executor;
+    private final Order[] orders = new Order[CALLS];
+    private final LongAdder shed = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        proxy = context.getBean(RestaurantNotificationService.class);
+        target = (RestaurantNotificationService) AopProxyUtils.getSingletonTarget(proxy);
+        proxy.setSimulatedDelay(Duration.ofMillis(delayMillis));
+
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < CALLS; i++) {
+            orders[i] = new Order("order-" + i, "customer-" + i, "restaurant-" + (i % RESTAURANTS),
+                    List.of("item-1"), Money.parse("10"), "payment-" + i).withStatus(Order.OrderStatus.CONFIRMED);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    /**
+     * Notifications shed by the limiter per iteration, counted across all threads.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Shedding {
+
+        public long shed;
+
+        @TearDown(Level.Iteration)
+        public void collect(NotificationLimitBenchmark benchmark) {
+            shed = benchmark.shed.sumThenReset();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void proxied(Shedding shedding) throws Exception {
+        notifyEach(proxy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void unproxied(Shedding shedding) throws Exception {
+        notifyEach(target);
+    }
+
+    private void notifyEach(RestaurantNotificationService service) throws Exception {
+        int callsPerTask = CALLS / concurrency;
+        List<Future<?>> tasks = new ArrayList<>(concurrency);
+        for (int task = 0; task < concurrency; task++) {
+            int from = task * callsPerTask;
+            tasks.add(executor.submit(() -> {
+                for (int i = from; i < from + callsPerTask; i++) {
+                    try {
+                        service.notifyRestaurant(orders[i]);
+                    } catch (LoadSheddingException e) {
+                        shed.increment();
+                    }
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+}
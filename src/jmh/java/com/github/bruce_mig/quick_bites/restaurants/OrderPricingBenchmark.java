@@ -0,0 +1,105 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totalling an order of {@code orderItems} items against a generated catalog: the former {@code BigDecimal}
+ * prices summed with {@code add}, {@link Money#plus} on the {@link Money} prices, and
+ * {@link RestaurantCatalog#totalMinorUnits} summing their {@code long} minor units. All three look up and
+ * check every item the same way. Run with {@code -prof gc} for bytes allocated per total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    @Param({"5", "50", "1000"})
+    public int orderItems;
+
+    private RestaurantCatalog catalog;
+    private Map<String, BigDecimalItem> bigDecimalItems;
+    private String restaurantId;
+    private List<String> items;
+
+    // A menu item as far as pricing goes, as it was while prices were BigDecimal
+    private record BigDecimalItem(String restaurantId, BigDecimal price, boolean available) {
+    }
+
+    @Setup
+    public void setUp() {
+        CatalogGenerator.Catalog generated = CatalogGenerator.generate(100_000);
+        catalog = generated.toCatalog(1);
+        bigDecimalItems = new HashMap<>();
+        for (MenuItem item : generated.menuItems()) {
+            bigDecimalItems.put(item.id(), new BigDecimalItem(item.restaurantId(), item.price().toBigDecimal(), item.available()));
+        }
+
+        restaurantId = generated.restaurants().getFirst().id();
+        List<MenuItem> menu = catalog.menu(restaurantId);
+        Random random = new Random(42);
+        items = new ArrayList<>(orderItems);
+        for (int i = 0; i < orderItems; i++) {
+            items.add(menu.get(random.nextInt(menu.size())).id());
+        }
+
+        BigDecimal expected = bigDecimal();
+        if (Money.of(expected).minorUnits() != minorUnits() || !money().equals(Money.of(expected))) {
+            throw new IllegalStateException("Totals disagree");
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0, count = items.size(); i < count; i++) {
+            String menuItemId = items.get(i);
+            BigDecimalItem item = bigDecimalItems.get(menuItemId);
+            if (item == null || !item.restaurantId().equals(restaurantId) || !item.available() || item.price() == null) {
+                throw new IllegalArgumentException("Menu item " + menuItemId + " is not available");
+            }
+            total = total.add(item.price());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money total = Money.zero(Money.DEFAULT_CURRENCY);
+        for (int i = 0, count = items.size(); i < count; i++) {
+            String menuItemId = items.get(i);
+            MenuItem item = catalog.menuItem(menuItemId);
+            if (item == null || !item.restaurantId().equals(restaurantId) || !item.available() || item.price() == null) {
+                throw new IllegalArgumentException("Menu item " + menuItemId + " is not available");
+            }
+            total = total.plus(item.price());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        return catalog.totalMinorUnits(restaurantId, items);
+    }
+}
@@ -0,0 +1,266 @@
+package com.github.bruce_mig.quick_bites.concurrent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Structured concurrency without preview features: a small stand-in for JDK 21's preview
+ * {@code StructuredTaskScope}, with the same shape - fork, join, shutdown, close.
+ *
+ * Every subtask runs in its own virtual thread owned by the scope. The owner forks subtasks, joins them
+ * together (optionally up to a deadline) and closes the scope, which cancels and waits for anything still
+ * running - so no subtask ever outlives the block that forked it. Like the JDK API, only the owner
+ * thread may fork, join and close the scope; {@link #shutdown()} may also be called from a subtask, or
+ * from {@link #handleComplete(Subtask)}, which is how {@link ShutdownOnFailure} cancels the siblings of
+ * a failed subtask.
+ */
+public class TaskScope implements AutoCloseable {
+
+    // Fires subtask deadlines; the work on it is a flag and an interrupt
+    private static final ScheduledThreadPoolExecutor DEADLINES = deadlineTimer();
+
+    private final ExecutorService threads;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private volatile boolean shutdown;
+
+    /**
+     * @param name prefix for the names of the subtasks' virtual threads
+     */
+    public TaskScope(String name) {
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+    /**
+     * Start a subtask in its own virtual thread. After {@link #shutdown()} the subtask is not started
+     * and stays {@link Subtask.State#UNAVAILABLE}.
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task) {
+        return fork(task, null);
+    }
+
+    /**
+     * Start a subtask that must finish within {@code timeout}. A subtask still running then is interrupted
+     * and ends {@link Subtask.State#FAILED} with a {@link TimeoutException}; its siblings keep running
+     * unless the scope reacts to the failure, as {@link ShutdownOnFailure} does.
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task, Duration timeout) {
+        Subtask<T> subtask = new Subtask<>(this, task);
+        synchronized (subtasks) {
+            subtasks.add(subtask);
+        }
+        if (shutdown) {
+            subtask.future.cancel(false);
+        } else {
+            if (timeout != null) {
+                subtask.deadline = DEADLINES.schedule(subtask::timeOut, timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            threads.execute(subtask.future);
+        }
+        return subtask;
+    }
+
+    /**
+     * Wait for all subtasks forked so far.
+     */
+    public void join() throws InterruptedException {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.await();
+        }
+    }
+
+    /**
+     * Wait for all subtasks forked so far, up to {@code deadline}. Reaching the deadline does not shut
+     * the scope down: the owner can join again, or call {@link #shutdown()} to give up on the stragglers.
+     *
+     * @throws TimeoutException if some subtasks are still running at the deadline
+     */
+    public void joinUntil(Instant deadline) throws InterruptedException, TimeoutException {
+        for (Subtask<?> subtask : subtasks) {
+            long remainingNanos = Math.max(0, Instant.now().until(deadline, ChronoUnit.NANOS));
+            subtask.await(remainingNanos);
+        }
+    }
+
+    /**
+     * Stop forking and interrupt every subtask that is still running; they finish as
+     * {@link Subtask.State#UNAVAILABLE}.
+     */
+    public void shutdown() {
+        shutdown = true;
+        synchronized (subtasks) {
+            for (Subtask<?> subtask : subtasks) {
+                subtask.future.cancel(true);
+            }
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Called as soon as a subtask completes, in its own thread (or the thread that timed it out or
+     * cancelled it). It may run just after the owner's join has seen the subtask complete. Does nothing
+     * by default.
+     */
+    protected void handleComplete(Subtask<?> subtask) {
+    }
+
+    /**
+     * The subtasks forked so far, in fork order.
+     */
+    protected List<Subtask<?>> subtasks() {
+        synchronized (subtasks) {
+            return List.copyOf(subtasks);
+        }
+    }
+
+    /**
+     * Shut down and wait for every subtask thread to finish.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        threads.close();
+    }
+
+    /**
+     * Handle to a forked subtask, to be inspected after joining.
+     */
+    public static final class Subtask<T> {
+
+        public enum State {
+            /** Not finished, or cancelled by a shutdown */
+            UNAVAILABLE,
+            SUCCESS,
+            FAILED
+        }
+
+        private final FutureTask<T> future;
+        private volatile boolean timedOut;
+        private volatile ScheduledFuture<?> deadline;
+
+        private Subtask(TaskScope scope, Callable<? extends T> task) {
+            this.future = new FutureTask<>(task::call) {
+                @Override
+                protected void done() {
+                    ScheduledFuture<?> pending = deadline;
+                    if (pending != null) {
+                        pending.cancel(false);
+                    }
+                    scope.handleComplete(Subtask.this);
+                }
+            };
+        }
+
+        public State state() {
+            return switch (future.state()) {
+                case SUCCESS -> State.SUCCESS;
+                case FAILED -> State.FAILED;
+                case CANCELLED -> timedOut ? State.FAILED : State.UNAVAILABLE;
+                case RUNNING -> State.UNAVAILABLE;
+            };
+        }
+
+        /**
+         * @throws IllegalStateException unless the subtask succeeded
+         */
+        public T get() {
+            if (state() != State.SUCCESS) {
+                throw new IllegalStateException("Subtask has not completed successfully");
+            }
+            return future.resultNow();
+        }
+
+        /**
+         * @throws IllegalStateException unless the subtask failed
+         */
+        public Throwable exception() {
+            if (state() != State.FAILED) {
+                throw new IllegalStateException("Subtask has not failed");
+            }
+            return timedOut ? new TimeoutException("Subtask deadline passed") : future.exceptionNow();
+        }
+
+        private void timeOut() {
+            // Set first, so handleComplete already sees the cancellation as a failure
+            timedOut = true;
+            if (!future.cancel(true)) {
+                timedOut = false;
+            }
+        }
+
+        private void await() throws InterruptedException {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException e) {
+                // Inspected through state() after joining
+            }
+        }
+
+        private void await(long timeoutNanos) throws InterruptedException, TimeoutException {
+            try {
+                future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                // Inspected through state() after joining
+            }
+        }
+    }
+
+    /**
+     * A scope that shuts down as soon as any subtask fails (a deadline passing included), cancelling its
+     * siblings - the JDK's {@code StructuredTaskScope.ShutdownOnFailure}. After joining,
+     * {@link #firstFailure()} tells whether everything succeeded.
+     */
+    public static class ShutdownOnFailure extends TaskScope {
+
+        private final AtomicReference<Subtask<?>> firstFailed = new AtomicReference<>();
+
+        public ShutdownOnFailure(String name) {
+            super(name);
+        }
+
+        @Override
+        protected void handleComplete(Subtask<?> subtask) {
+            if (subtask.state() == Subtask.State.FAILED && firstFailed.compareAndSet(null, subtask)) {
+                shutdown();
+            }
+        }
+
+        /**
+         * The subtask whose failure shut the scope down, or null if none has failed.
+         */
+        public Subtask<?> firstFailure() {
+            Subtask<?> failed = firstFailed.get();
+            if (failed != null) {
+                return failed;
+            }
+            // A join can return before the last failure's handleComplete has run
+            return subtasks().stream()
+                    .filter(subtask -> subtask.state() == Subtask.State.FAILED)
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor deadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("task-scope-deadlines").daemon(true).factory());
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryState;
+import org.springframework.core.retry.Retryable;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of {@link org.springframework.core.retry.RetryTemplate}.
+ *
+ * Applies the same {@link RetryPolicy} (includes, back-off, timeout) and fires the same
+ * {@link RetryListener} callbacks, but instead of sleeping between attempts it schedules
+ * the next attempt on a shared scheduler. The calling thread is released immediately.
+ */
+class AsyncRetryTemplate {
+
+    private final RetryPolicy retryPolicy;
+    private final ScheduledExecutorService scheduler;
+    private RetryListener retryListener = new RetryListener() {};
+
+    AsyncRetryTemplate(RetryPolicy retryPolicy, ScheduledExecutorService scheduler) {
+        this.retryPolicy = retryPolicy;
+        this.scheduler = scheduler;
+    }
+
+    void setRetryListener(RetryListener retryListener) {
+        this.retryListener = retryListener;
+    }
+
+    <R> CompletableFuture<R> execute(Retryable<R> retryable) {
+        Execution<R> execution = new Execution<>(retryable);
+        try {
+            scheduler.execute(execution::initialAttempt);
+        } catch (RejectedExecutionException e) {
+            execution.future.completeExceptionally(e);
+        }
+        return execution.future;
+    }
+
+    private final class Execution<R> implements RetryState {
+
+        private final Retryable<R> retryable;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private final long startTime = System.currentTimeMillis();
+        private final List<Throwable> exceptions = new ArrayList<>(4);
+        private int retryCount;
+        private BackOffExecution backOffExecution;
+
+        private Execution(Retryable<R> retryable) {
+            this.retryable = retryable;
+        }
+
+        private void initialAttempt() {
+            R result;
+            try {
+                result = retryable.execute();
+            } catch (Throwable initialException) {
+                exceptions.add(initialException);
+                retryListener.onRetryableExecution(retryPolicy, retryable, this);
+                backOffExecution = retryPolicy.getBackOff().start();
+                scheduleNext(initialException);
+                return;
+            }
+            retryListener.onRetryableExecution(retryPolicy, retryable, this);
+            future.complete(result);
+        }
+
+        private void retryAttempt() {
+            // Caller gave up (e.g. cancelled the future) - don't keep hammering the downstream
+            if (future.isDone()) {
+                return;
+            }
+            retryCount++;
+            retryListener.beforeRetry(retryPolicy, retryable);
+            R result;
+            try {
+                result = retryable.execute();
+            } catch (Throwable currentException) {
+                exceptions.add(currentException);
+                retryListener.onRetryFailure(retryPolicy, retryable, currentException);
+                retryListener.onRetryableExecution(retryPolicy, retryable, this);
+                scheduleNext(currentException);
+                return;
+            }
+            retryListener.onRetrySuccess(retryPolicy, retryable, result);
+            retryListener.onRetryableExecution(retryPolicy, retryable, this);
+            future.complete(result);
+        }
+
+        private void scheduleNext(Throwable lastException) {
+            if (!retryPolicy.shouldRetry(lastException)) {
+                exhausted();
+                return;
+            }
+            if (timeoutExceeded(0)) {
+                return;
+            }
+            long sleepTime = backOffExecution.nextBackOff();
+            if (sleepTime == BackOffExecution.STOP) {
+                exhausted();
+                return;
+            }
+            if (timeoutExceeded(sleepTime)) {
+                return;
+            }
+            try {
+                scheduler.schedule(this::retryAttempt, sleepTime, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                RetryException retryException = retryException(
+                        "Scheduler rejected retry for operation '%s'".formatted(retryable.getName()));
+                retryListener.onRetryPolicyInterruption(retryPolicy, retryable, retryException);
+                future.completeExceptionally(retryException);
+            }
+        }
+
+        private boolean timeoutExceeded(long sleepTime) {
+            long timeout = retryPolicy.getTimeout().toMillis();
+            if (timeout <= 0 || System.currentTimeMillis() + sleepTime - startTime < timeout) {
+                return false;
+            }
+            RetryException retryException = retryException(
+                    "Retry policy for operation '%s' exceeded timeout (%dms); aborting execution"
+                            .formatted(retryable.getName(), timeout));
+            retryListener.onRetryPolicyTimeout(retryPolicy, retryable, retryException);
+            future.completeExceptionally(retryException);
+            return true;
+        }
+
+        private void exhausted() {
+            RetryException retryException = retryException(
+                    "Retry policy for operation '%s' exhausted; aborting execution".formatted(retryable.getName()));
+            retryListener.onRetryPolicyExhaustion(retryPolicy, retryable, retryException);
+            future.completeExceptionally(retryException);
+        }
+
+        // Mirrors RetryTemplate: last exception is the cause, earlier ones are suppressed
+        private RetryException retryException(String message) {
+            RetryException retryException = new RetryException(message, getLastException());
+            for (int i = 0; i < exceptions.size() - 1; i++) {
+                retryException.addSuppressed(exceptions.get(i));
+            }
+            return retryException;
+        }
+
+        @Override
+        public int getRetryCount() {
+            return retryCount;
+        }
+
+        @Override
+        public List<Throwable> getExceptions() {
+            return Collections.unmodifiableList(exceptions);
+        }
+    }
+}
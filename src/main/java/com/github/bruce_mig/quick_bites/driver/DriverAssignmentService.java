@@ -1,79 +1,228 @@
 package com.github.bruce_mig.quick_bites.driver;
 
 import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudget;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgetRegistry;
+import com.github.bruce_mig.quick_bites.resilience.RetryTelemetry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.retry.RetryException;
 import org.springframework.core.retry.RetryPolicy;
 import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.Retryable;
+import org.springframework.core.retry.support.CompositeRetryListener;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class DriverAssignmentService {
 
     private static final Logger log = LoggerFactory.getLogger(DriverAssignmentService.class);
-    private final List<Driver> availableDrivers  = new ArrayList<>();
+    private static final Duration SIMULATED_DELIVERY = Duration.ofSeconds(20);
+
+    static final String DRIVER_POOL = "driver-pool";
+    private static final String ASSIGN_OPERATION = "DriverAssignmentService.assignDriver";
+    private static final String ASSIGN_ASYNC_OPERATION = "DriverAssignmentService.assignDriverAsync";
+    private static final String ASSIGN_WITHIN_OPERATION = "DriverAssignmentService.assignDriverWithin";
+
+    private final DriverRegistry driverRegistry;
+    private final PickupLocator pickupLocator;
+    // Resolved on first dispatch, so a context that never batch-assigns does not start its thread
+    private final DriverDispatcher driverDispatcher;
+    private final int simulatedFleetSize;
+    private final CompositeRetryListener retryListener;
     private final RetryTemplate retryTemplate;
+    private final AsyncRetryTemplate asyncRetryTemplate;
+    private final ScheduledExecutorService retryScheduler;
     private final Random random = new Random();
-    private final DriverRetryListener driverRetryListener;
+    private final RetryBudget retryBudget;
+    private final RetryTelemetry retryTelemetry;
+    private final Duration retryDelay;
+    // The pending end of each driver's latest simulated delivery
+    private final Map<String, ScheduledFuture<?>> deliveries = new ConcurrentHashMap<>();
+
+    public DriverAssignmentService(DriverRetryListener driverRetryListener,
+                                   DriverRegistry driverRegistry,
+                                   PickupLocator pickupLocator,
+                                   @Lazy DriverDispatcher driverDispatcher,
+                                   RetryBudgetRegistry retryBudgetRegistry,
+                                   RetryTelemetry retryTelemetry,
+                                   @Value("${quick-bites.drivers.simulated-fleet-size:0}") int simulatedFleetSize,
+                                   @Value("${quick-bites.drivers.retry.delay:2s}") Duration retryDelay) {
+        this.driverRegistry = driverRegistry;
+        this.pickupLocator = pickupLocator;
+        this.driverDispatcher = driverDispatcher;
+        this.simulatedFleetSize = simulatedFleetSize;
+        this.retryBudget = retryBudgetRegistry.budget(DRIVER_POOL);
+        this.retryTelemetry = retryTelemetry;
+        this.retryDelay = retryDelay;
+        retryListener = new CompositeRetryListener(List.of(driverRetryListener, retryTelemetry));
+
+        retryTemplate = new RetryTemplate(retryPolicy(ASSIGN_OPERATION, Duration.ZERO));
+        retryTemplate.setRetryListener(retryListener);
+
+        // Shared scheduler for async back-offs: attempts are cheap, waiting is free
+        retryScheduler = Executors.newScheduledThreadPool(2, Thread.ofPlatform()
+                .name("driver-retry-", 1)
+                .daemon(true)
+                .factory());
+        asyncRetryTemplate = new AsyncRetryTemplate(retryPolicy(ASSIGN_ASYNC_OPERATION, Duration.ZERO), retryScheduler);
+        asyncRetryTemplate.setRetryListener(retryListener);
+    }
+
+    public Driver assignDriver(Order order) throws RetryException {
+         log.info("🚗 Attempting to assign driver for order {}", order.id());
+
+        // Use AtomicInteger to track attempts in the lambda
+        final AtomicInteger attempt = new AtomicInteger(0);
+
+        return executeWithRetries(() -> findAvailableDriver(order, attempt));
+    }
+
+    /**
+     * Run any attempt through the same retry stack as {@link #assignDriver(Order)} - retry policy, retry
+     * budget and listeners. Package-private so benchmarks can measure that stack without claiming drivers.
+     */
+    <R> R executeWithRetries(Retryable<R> attempt) throws RetryException {
+        return retryTemplate.execute(retryTelemetry.track(retryBudget.recordingAttempts(ASSIGN_OPERATION, attempt)));
+    }
+
+    /**
+     * {@link #assignDriver(Order)} for callers with a deadline: the same back-off, but no retry is started
+     * whose back-off would end more than {@code timeout} after the first attempt, so the caller gets a
+     * {@link RetryException} within its deadline rather than being cut off halfway through a back-off.
+     */
+    public Driver assignDriverWithin(Order order, Duration timeout) throws RetryException {
+        log.info("🚗 Attempting to assign driver for order {} within {}ms", order.id(), timeout.toMillis());
+
+        RetryTemplate deadlineRetryTemplate = new RetryTemplate(retryPolicy(ASSIGN_WITHIN_OPERATION, timeout));
+        deadlineRetryTemplate.setRetryListener(retryListener);
+        final AtomicInteger attempt = new AtomicInteger(0);
+
+        return deadlineRetryTemplate.execute(retryTelemetry.track(retryBudget.recordingAttempts(ASSIGN_WITHIN_OPERATION,
+                () -> findAvailableDriver(order, attempt))));
+    }
 
-    public DriverAssignmentService(DriverRetryListener driverRetryListener) {
-        this.driverRetryListener = driverRetryListener;
+    /**
+     * Same retry policy and listener callbacks as {@link #assignDriver(Order)}, but the
+     * back-off between attempts runs on a shared scheduler instead of sleeping the caller.
+     *
+     * The returned future completes with the driver, or exceptionally with a
+     * {@link RetryException} once the retry policy is exhausted.
+     */
+    public CompletableFuture<Driver> assignDriverAsync(Order order) {
+        log.info("🚗 Attempting to assign driver for order {} (async)", order.id());
 
-        var retryPolicy = RetryPolicy.builder()
+        final AtomicInteger attempt = new AtomicInteger(0);
+
+        return asyncRetryTemplate.execute(retryTelemetry.track(retryBudget.recordingAttempts(ASSIGN_ASYNC_OPERATION,
+                () -> findAvailableDriver(order, attempt))));
+    }
+
+    // Retries draw on the driver pool's shared retry budget - when it is spent, assignment fails fast
+    private RetryPolicy retryPolicy(String operation, Duration timeout) {
+        return RetryPolicy.builder()
                 .maxRetries(10)
-                .delay(Duration.ofMillis(2000))
+                .timeout(timeout)
+                .delay(retryDelay)
                 .multiplier(1.5)
                 .maxDelay(Duration.ofMillis(10000))
                 .includes(NoDriversAvailableException.class)
+                .predicate(exception -> retryBudget.tryAcquireRetry(operation))
                 .build();
-
-        retryTemplate = new RetryTemplate(retryPolicy);
-        retryTemplate.setRetryListener(driverRetryListener);
     }
 
-    public Driver assignDriver(Order order) throws RetryException {
-         log.info("🚗 Attempting to assign driver for order {}", order.id());
+    private Driver findAvailableDriver(Order order, AtomicInteger attempt) {
+        int currentAttempt = attempt.incrementAndGet();
+        log.info("  Attempt #{} to find available driver", currentAttempt);
 
-        // Use AtomicInteger to track attempts in the lambda
-        final AtomicInteger attempt = new AtomicInteger(0);
+        PickupLocator.PickupPoint pickup = pickupLocator.pickupFor(order);
 
-        return retryTemplate.execute(() -> {
-            int currentAttempt = attempt.incrementAndGet();
-            log.info("  Attempt #{} to find available driver", currentAttempt);
+        // Atomically claim the nearest idle driver - concurrent orders can never get the same one
+        NearbyDriver claimed = driverRegistry.claimNearestIdle(pickup.latitude(), pickup.longitude())
+                .orElseThrow(() -> new NoDriversAvailableException("No drivers available in area. Will retry..."));
+        Driver assignedDriver = claimed.driver();
 
-            // Simulate random driver availability (50% chance of success)
-            if (random.nextDouble() > 0.5 || availableDrivers.isEmpty()) {
-                throw new NoDriversAvailableException("No drivers available in area. Will retry...");
-            }
+        log.info("✅ Driver {} ({} km away) assigned to order {}",
+                assignedDriver.name(), String.format("%.2f", claimed.distanceKm()), order.id());
 
-            // Assign a random available driver
-            Driver assignedDriver = availableDrivers.get(
-                    random.nextInt(availableDrivers.size())
-            );
+        simulateDelivery(assignedDriver);
 
-            log.info("✅ Driver {} assigned to order {}", assignedDriver.name(), order.id());
+        return assignedDriver;
+    }
 
-            return assignedDriver;
-        });
+    /**
+     * Hand the order to the {@link DriverDispatcher}, which matches all orders pending in the same
+     * window together instead of letting each one grab its nearest driver.
+     */
+    public CompletableFuture<Driver> assignDriverBatched(Order order) {
+        log.info("🚗 Queueing order {} for batch driver matching", order.id());
+
+        return driverDispatcher.dispatch(order)
+                .thenApply(driver -> {
+                    log.info("✅ Driver {} matched to order {}", driver.name(), order.id());
+                    simulateDelivery(driver);
+                    return driver;
+                });
+    }
 
+    /**
+     * Hand back a driver assigned by this service before its delivery ends, e.g. because the order was
+     * cancelled. Does nothing once the delivery is over, so a driver who has since been assigned to
+     * another order keeps it.
+     *
+     * @return whether the driver went back to the pool
+     */
+    public boolean releaseDriver(Driver driver) {
+        ScheduledFuture<?> delivery = deliveries.remove(driver.id());
+        if (delivery == null || !delivery.cancel(false)) {
+            return false;
+        }
+        log.info("↩️ Driver {} released before delivery", driver.name());
+        return driverRegistry.release(driver.id());
+    }
+
+    // Simulate the delivery completing so the driver becomes idle again
+    private void simulateDelivery(Driver driver) {
+        deliveries.put(driver.id(), retryScheduler.schedule(() -> driverRegistry.release(driver.id()),
+                SIMULATED_DELIVERY.toMillis(), TimeUnit.MILLISECONDS));
     }
 
     @PostConstruct
     private void initializeDrivers() {
-        availableDrivers.addAll(List.of(
-                new Driver("1", "Alex Johnson", 4.8),
-                new Driver("2", "Maria Garcia", 4.9),
-                new Driver("3", "James Wilson", 4.5),
-                new Driver("4", "Sarah Chen", 4.7),
-                new Driver("5", "Mike Roberts", 4.6)
-        ));
+        driverRegistry.register(new Driver("1", "Alex Johnson", 4.8), 37.7890, -122.4010);
+        driverRegistry.register(new Driver("2", "Maria Garcia", 4.9), 37.7990, -122.4090);
+        driverRegistry.register(new Driver("3", "James Wilson", 4.5), 37.7860, -122.4280);
+        driverRegistry.register(new Driver("4", "Sarah Chen", 4.7), 37.7610, -122.4160);
+        driverRegistry.register(new Driver("5", "Mike Roberts", 4.6), 37.7930, -122.4070);
+
+        // Optional synthetic fleet spread over ~8km around the city centre, for load testing the index
+        for (int i = 1; i <= simulatedFleetSize; i++) {
+            driverRegistry.register(
+                    new Driver("sim-" + i, "Simulated Driver " + i, 4.0 + random.nextDouble()),
+                    PickupLocator.CITY_CENTER_LATITUDE + (random.nextDouble() - 0.5) * 0.14,
+                    PickupLocator.CITY_CENTER_LONGITUDE + (random.nextDouble() - 0.5) * 0.18);
+        }
+        log.info("🚗 Registered {} drivers", driverRegistry.size());
+    }
+
+    @PreDestroy
+    private void shutdownRetryScheduler() {
+        retryScheduler.shutdownNow();
     }
 }
@@ -1,17 +1,20 @@
 package com.github.bruce_mig.quick_bites.driver;
 
+import com.github.bruce_mig.quick_bites.money.Money;
 import com.github.bruce_mig.quick_bites.order.Order;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/drivers")
@@ -19,9 +22,15 @@ public class DriverController {
 
     private static final Logger log = LoggerFactory.getLogger(DriverController.class);
     private final DriverAssignmentService driverService;
+    private final DriverRegistry driverRegistry;
+    private final DriverLocationIngestService locationIngestService;
 
-    public DriverController(DriverAssignmentService driverService) {
+    public DriverController(DriverAssignmentService driverService,
+                            DriverRegistry driverRegistry,
+                            DriverLocationIngestService locationIngestService) {
         this.driverService = driverService;
+        this.driverRegistry = driverRegistry;
+        this.locationIngestService = locationIngestService;
     }
 
     @PostMapping("/assign")
@@ -29,36 +38,116 @@ public class DriverController {
         log.info("🚗 API request: Assign driver for order {}", orderId);
 
         try {
-            // Create a sample order
-            Order order = new Order(
-                    orderId,
-                    "customer-123",
-                    "rest-001",
-                    List.of("item-1", "item-2"),
-                    new BigDecimal("25.99"),
-                    "payment-123"
-            );
-
             // This call uses RetryTemplate - watch the logs for detailed retry events!
-            Driver driver = driverService.assignDriver(order);
-
-            return ResponseEntity.ok(Map.of(
-                    "orderId", orderId,
-                    "driver", Map.of(
-                            "id", driver.id(),
-                            "name", driver.name(),
-                            "rating", driver.rating()
-                    ),
-                    "message", "Driver assigned successfully (possibly after retries)"
-            ));
+            Driver driver = driverService.assignDriver(sampleOrder(orderId));
+            return driverAssigned(orderId, driver);
 
         } catch (Exception e) {
             log.error("❌ Failed to assign driver after all retries: {}", e.getMessage());
-            return ResponseEntity.status(503).body(Map.of(
-                    "error", "No drivers available",
-                    "message", e.getMessage(),
-                    "orderId", orderId
+            return noDriversAvailable(orderId, e);
+        }
+    }
+
+    /**
+     * Async variant of {@link #assignDriver(String)}: the servlet thread is released as soon as
+     * the first attempt is scheduled, and the response is written when the future completes.
+     */
+    @PostMapping("/assign-async")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> assignDriverAsync(@RequestParam String orderId) {
+        log.info("🚗 API request: Assign driver for order {} (async)", orderId);
+
+        return driverService.assignDriverAsync(sampleOrder(orderId))
+                .handle((driver, e) -> {
+                    if (e != null) {
+                        log.error("❌ Failed to assign driver after all retries: {}", e.getMessage());
+                        return noDriversAvailable(orderId, e);
+                    }
+                    return driverAssigned(orderId, driver);
+                });
+    }
+
+    /**
+     * Batched variant: the order joins the current dispatch window and is matched together with every
+     * other pending order (minimum total pickup distance) rather than greedily.
+     */
+    @PostMapping("/assign-batched")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> assignDriverBatched(@RequestParam String orderId) {
+        log.info("🚗 API request: Assign driver for order {} (batched)", orderId);
+
+        return driverService.assignDriverBatched(sampleOrder(orderId))
+                .handle((driver, e) -> {
+                    if (e != null) {
+                        log.error("❌ No driver matched for order {}: {}", orderId, e.getMessage());
+                        return noDriversAvailable(orderId, e);
+                    }
+                    return driverAssigned(orderId, driver);
+                });
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<Map<String, Object>> nearbyDrivers(@RequestParam double lat,
+                                                             @RequestParam double lon,
+                                                             @RequestParam(defaultValue = "5") int limit) {
+        long start = System.nanoTime();
+        List<NearbyDriver> drivers = driverRegistry.nearestIdle(lat, lon, Math.min(limit, 100));
+        long lookupMicros = (System.nanoTime() - start) / 1_000;
+
+        return ResponseEntity.ok(Map.of(
+                "drivers", drivers,
+                "count", drivers.size(),
+                "lookupMicros", lookupMicros,
+                "fleet", driverRegistry.countByState()
+        ));
+    }
+
+    /**
+     * Batched GPS ingest. The body is columnar - parallel arrays of driver ids, coordinates and
+     * ping timestamps (epoch millis) - so a batch of thousands of pings is a handful of arrays.
+     */
+    @PostMapping("/locations")
+    public ResponseEntity<?> ingestLocations(@RequestBody LocationPingBatch batch) {
+        if (!batch.isWellFormed()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Malformed batch",
+                    "message", "driverIds, latitudes, longitudes and timestamps must have the same length"
             ));
         }
+        return ResponseEntity.ok(locationIngestService.ingest(batch));
+    }
+
+    @GetMapping("/locations/stats")
+    public DriverLocationIngestService.IngestStats locationIngestStats() {
+        return locationIngestService.stats();
+    }
+
+    private Order sampleOrder(String orderId) {
+        return new Order(
+                orderId,
+                "customer-123",
+                "rest-001",
+                List.of("item-1", "item-2"),
+                Money.parse("25.99"),
+                "payment-123"
+        );
+    }
+
+    private ResponseEntity<Map<String, Object>> driverAssigned(String orderId, Driver driver) {
+        return ResponseEntity.ok(Map.of(
+                "orderId", orderId,
+                "driver", Map.of(
+                        "id", driver.id(),
+                        "name", driver.name(),
+                        "rating", driver.rating()
+                ),
+                "message", "Driver assigned successfully (possibly after retries)"
+        ));
+    }
+
+    private ResponseEntity<Map<String, Object>> noDriversAvailable(String orderId, Throwable e) {
+        return ResponseEntity.status(503).body(Map.of(
+                "error", "No drivers available",
+                "message", String.valueOf(e.getMessage()),
+                "orderId", orderId
+        ));
     }
-}
\ No newline at end of file
+}
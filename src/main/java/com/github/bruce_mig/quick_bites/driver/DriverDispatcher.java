@@ -0,0 +1,185 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import com.github.bruce_mig.quick_bites.order.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch order-to-driver matching.
+ *
+ * Instead of each order greedily grabbing its nearest driver, pending orders are collected over a
+ * short window and matched against nearby idle drivers in one go, minimising the total pickup
+ * distance (Hungarian algorithm on an orders × drivers distance matrix). Orders that could not be
+ * matched stay pending for the next window until their max wait runs out, so there is no retry
+ * churn while drivers are scarce.
+ */
+@Component
+public class DriverDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverDispatcher.class);
+
+    // Nearest idle drivers considered per order - the union forms the matrix columns
+    private static final int CANDIDATES_PER_ORDER = 8;
+    // Pairs further apart than this are never matched
+    private static final double MAX_PICKUP_KM = 10.0;
+    private static final double INFEASIBLE = 1_000_000.0;
+
+    private final DriverRegistry driverRegistry;
+    private final PickupLocator pickupLocator;
+    private final Duration window;
+    private final Duration maxWait;
+
+    private final Queue<PendingOrder> incoming = new ConcurrentLinkedQueue<>();
+    // Only touched by the dispatch thread
+    private final List<PendingOrder> waiting = new ArrayList<>();
+    private final ScheduledExecutorService dispatchThread = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("driver-dispatch").daemon(true).factory());
+
+    public DriverDispatcher(DriverRegistry driverRegistry,
+                            PickupLocator pickupLocator,
+                            @Value("${quick-bites.drivers.dispatch.window:200ms}") Duration window,
+                            @Value("${quick-bites.drivers.dispatch.max-wait:30s}") Duration maxWait) {
+        this.driverRegistry = driverRegistry;
+        this.pickupLocator = pickupLocator;
+        this.window = window;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Queue an order for the next matching round. The future completes with the matched driver (already
+     * claimed as ASSIGNED), or with {@link NoDriversAvailableException} once the max wait has passed.
+     */
+    public CompletableFuture<Driver> dispatch(Order order) {
+        PickupLocator.PickupPoint pickup = pickupLocator.pickupFor(order);
+        PendingOrder pending = new PendingOrder(order, pickup, System.nanoTime() + maxWait.toNanos(),
+                new CompletableFuture<>());
+        incoming.add(pending);
+        return pending.result();
+    }
+
+    @PostConstruct
+    private void start() {
+        dispatchThread.scheduleWithFixedDelay(this::dispatchRound,
+                window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("🧮 Driver dispatcher started (window: {}ms, max wait: {}s)", window.toMillis(), maxWait.toSeconds());
+    }
+
+    @PreDestroy
+    private void stop() {
+        dispatchThread.shutdownNow();
+    }
+
+    private void dispatchRound() {
+        try {
+            PendingOrder next;
+            while ((next = incoming.poll()) != null) {
+                waiting.add(next);
+            }
+            expireOverdue();
+            if (!waiting.isEmpty()) {
+                matchWaiting();
+            }
+        } catch (Exception e) {
+            // Never let one bad round kill the scheduled task
+            log.error("❌ Dispatch round failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void expireOverdue() {
+        long now = System.nanoTime();
+        Iterator<PendingOrder> iterator = waiting.iterator();
+        while (iterator.hasNext()) {
+            PendingOrder pending = iterator.next();
+            if (pending.result().isDone()) {
+                iterator.remove();
+            } else if (now - pending.deadlineNanos() > 0) {
+                iterator.remove();
+                pending.result().completeExceptionally(new NoDriversAvailableException(
+                        "No driver matched for order " + pending.order().id() + " within " + maxWait.toSeconds() + "s"));
+            }
+        }
+    }
+
+    private void matchWaiting() {
+        long start = System.nanoTime();
+
+        Map<String, NearbyDriver> candidates = new LinkedHashMap<>();
+        for (PendingOrder pending : waiting) {
+            for (NearbyDriver driver : driverRegistry.nearestIdle(
+                    pending.pickup().latitude(), pending.pickup().longitude(), CANDIDATES_PER_ORDER)) {
+                candidates.putIfAbsent(driver.driver().id(), driver);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<NearbyDriver> drivers = new ArrayList<>(candidates.values());
+        double[][] cost = new double[waiting.size()][drivers.size()];
+        for (int o = 0; o < waiting.size(); o++) {
+            PickupLocator.PickupPoint pickup = waiting.get(o).pickup();
+            double lonScale = Math.cos(Math.toRadians(pickup.latitude()));
+            for (int d = 0; d < drivers.size(); d++) {
+                NearbyDriver driver = drivers.get(d);
+                double km = DriverRegistry.distanceKm(pickup.latitude(), pickup.longitude(), lonScale,
+                        driver.latitude(), driver.longitude());
+                cost[o][d] = km <= MAX_PICKUP_KM ? km : INFEASIBLE;
+            }
+        }
+
+        int[] assignment = HungarianAssignment.solve(cost);
+
+        int matched = 0;
+        double totalKm = 0;
+        List<PendingOrder> stillWaiting = new ArrayList<>();
+        for (int o = 0; o < assignment.length; o++) {
+            PendingOrder pending = waiting.get(o);
+            int d = assignment[o];
+            // A greedy assignDriver call may have claimed the driver since the snapshot - try again next round
+            if (d < 0 || cost[o][d] >= INFEASIBLE || !driverRegistry.claim(drivers.get(d).driver().id())) {
+                stillWaiting.add(pending);
+                continue;
+            }
+            Driver driver = drivers.get(d).driver();
+            if (!pending.result().complete(driver)) {
+                // Caller gave up in the meantime - hand the driver back
+                driverRegistry.release(driver.id());
+                continue;
+            }
+            matched++;
+            totalKm += cost[o][d];
+        }
+
+        log.info("🧮 Dispatch round: matched {}/{} orders against {} candidate drivers in {}ms (total pickup {} km)",
+                matched, waiting.size(), drivers.size(),
+                (System.nanoTime() - start) / 1_000_000, String.format("%.2f", totalKm));
+
+        waiting.clear();
+        waiting.addAll(stillWaiting);
+    }
+
+    private record PendingOrder(
+            Order order,
+            PickupLocator.PickupPoint pickup,
+            long deadlineNanos,
+            CompletableFuture<Driver> result
+    ) {
+    }
+}
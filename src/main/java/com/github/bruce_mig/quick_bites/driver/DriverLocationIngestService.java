@@ -0,0 +1,92 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import com.github.bruce_mig.quick_bites.metrics.LatencyHistogram;
+import com.github.bruce_mig.quick_bites.metrics.RateMeter;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies batches of driver GPS pings to the {@link DriverRegistry} and tracks ingest throughput
+ * and per-batch apply latency.
+ *
+ * The apply loop works directly on the batch's primitive arrays - nothing is allocated per ping.
+ */
+@Service
+public class DriverLocationIngestService {
+
+    private final DriverRegistry driverRegistry;
+
+    private final RateMeter pingRate = new RateMeter();
+    private final LatencyHistogram batchApplyMicros = new LatencyHistogram();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder unknownDriver = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public DriverLocationIngestService(DriverRegistry driverRegistry) {
+        this.driverRegistry = driverRegistry;
+    }
+
+    public IngestResult ingest(LocationPingBatch batch) {
+        if (!batch.isWellFormed()) {
+            throw new IllegalArgumentException("driverIds, latitudes, longitudes and timestamps must have the same length");
+        }
+        long start = System.nanoTime();
+        int appliedCount = 0;
+        int staleCount = 0;
+        int unknownCount = 0;
+        int invalidCount = 0;
+
+        String[] driverIds = batch.driverIds();
+        double[] latitudes = batch.latitudes();
+        double[] longitudes = batch.longitudes();
+        long[] timestamps = batch.timestamps();
+        for (int i = 0; i < driverIds.length; i++) {
+            switch (driverRegistry.updateLocation(driverIds[i], latitudes[i], longitudes[i], timestamps[i])) {
+                case APPLIED -> appliedCount++;
+                case STALE -> staleCount++;
+                case UNKNOWN_DRIVER -> unknownCount++;
+                case INVALID -> invalidCount++;
+            }
+        }
+
+        long applyMicros = (System.nanoTime() - start) / 1_000;
+        batchApplyMicros.record(applyMicros);
+        pingRate.mark(driverIds.length);
+        batches.increment();
+        applied.add(appliedCount);
+        stale.add(staleCount);
+        unknownDriver.add(unknownCount);
+        invalid.add(invalidCount);
+
+        return new IngestResult(driverIds.length, appliedCount, staleCount, unknownCount, invalidCount, applyMicros);
+    }
+
+    public IngestStats stats() {
+        return new IngestStats(
+                pingRate.perSecond(),
+                batches.sum(),
+                applied.sum(),
+                stale.sum(),
+                unknownDriver.sum(),
+                invalid.sum(),
+                batchApplyMicros.snapshot()
+        );
+    }
+
+    public record IngestResult(int received, int applied, int stale, int unknownDriver, int invalid, long applyMicros) {
+    }
+
+    public record IngestStats(
+            double pingsPerSecond,
+            long batches,
+            long applied,
+            long stale,
+            long unknownDriver,
+            long invalid,
+            LatencyHistogram.Snapshot batchApplyMicros
+    ) {
+    }
+}
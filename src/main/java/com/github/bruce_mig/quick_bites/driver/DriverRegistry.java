@@ -0,0 +1,231 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent registry of all known drivers with a uniform grid index over their locations.
+ *
+ * The grid splits the map into cells of {@value #CELL_DEGREES} degrees (~550m). A "nearest idle"
+ * query scans rings of cells outwards from the pickup point and stops as soon as the next ring
+ * cannot contain anything closer than what was already found, so the cost depends on local
+ * driver density rather than fleet size.
+ *
+ * Readers never lock: cells are concurrent sets and driver state is claimed with CAS.
+ */
+@Component
+public class DriverRegistry {
+
+    static final double CELL_DEGREES = 0.005;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double MAX_SEARCH_RADIUS_KM = 15.0;
+
+    // How many nearby candidates to try before giving up on a claim (others may win the CAS race)
+    private static final int CLAIM_CANDIDATES = 8;
+
+    private final Map<String, TrackedDriver> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<TrackedDriver>> cells = new ConcurrentHashMap<>();
+
+    public void register(Driver driver, double latitude, double longitude) {
+        long position = TrackedDriver.pack(latitude, longitude);
+        TrackedDriver tracked = new TrackedDriver(driver, position, DriverState.IDLE);
+        if (drivers.putIfAbsent(driver.id(), tracked) == null) {
+            cellMembers(cellOf(position)).add(tracked);
+        }
+    }
+
+    /**
+     * Apply a GPS ping. Pings older than the last applied one for the driver are dropped, so
+     * out-of-order delivery can never move a driver backwards.
+     *
+     * Writers for the same driver are serialized on that driver's entry (the finest possible lock
+     * striping - pings for different drivers never contend). Readers are never blocked: they read the
+     * packed position once and skip a cell entry unless that position lies in the cell, so while a move
+     * between cells is in flight the driver is seen in exactly one of them.
+     */
+    public LocationUpdateResult updateLocation(String driverId, double latitude, double longitude, long pingMillis) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            return LocationUpdateResult.INVALID;
+        }
+        TrackedDriver tracked = drivers.get(driverId);
+        if (tracked == null) {
+            return LocationUpdateResult.UNKNOWN_DRIVER;
+        }
+        long position = TrackedDriver.pack(latitude, longitude);
+        long newCell = cellOf(position);
+        synchronized (tracked) {
+            if (pingMillis <= tracked.lastPingMillis()) {
+                return LocationUpdateResult.STALE;
+            }
+            long oldCell = cellOf(tracked.position());
+            if (oldCell == newCell) {
+                tracked.moveTo(position, pingMillis);
+                return LocationUpdateResult.APPLIED;
+            }
+            // Join the new cell before moving and leave the old one after: readers check the cell against
+            // the position, so the driver is never missing from both
+            cellMembers(newCell).add(tracked);
+            tracked.moveTo(position, pingMillis);
+            Set<TrackedDriver> previous = cells.get(oldCell);
+            if (previous != null) {
+                previous.remove(tracked);
+            }
+        }
+        return LocationUpdateResult.APPLIED;
+    }
+
+    public List<NearbyDriver> nearestIdle(double latitude, double longitude, int limit) {
+        return findNearestIdle(latitude, longitude, limit).stream()
+                .map(Candidate::toNearbyDriver)
+                .toList();
+    }
+
+    /**
+     * Atomically claim the closest idle driver (IDLE → ASSIGNED). Two concurrent claims can never
+     * return the same driver: the loser of the CAS simply moves on to the next candidate.
+     */
+    public Optional<NearbyDriver> claimNearestIdle(double latitude, double longitude) {
+        for (Candidate candidate : findNearestIdle(latitude, longitude, CLAIM_CANDIDATES)) {
+            if (candidate.tracked().transition(DriverState.IDLE, DriverState.ASSIGNED)) {
+                return Optional.of(candidate.toNearbyDriver());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Atomically claim a specific driver (IDLE → ASSIGNED), e.g. one picked by a batch matcher.
+     */
+    public boolean claim(String driverId) {
+        TrackedDriver tracked = drivers.get(driverId);
+        return tracked != null && tracked.transition(DriverState.IDLE, DriverState.ASSIGNED);
+    }
+
+    public boolean release(String driverId) {
+        TrackedDriver tracked = drivers.get(driverId);
+        return tracked != null && tracked.transition(DriverState.ASSIGNED, DriverState.IDLE);
+    }
+
+    public boolean setOffline(String driverId) {
+        TrackedDriver tracked = drivers.get(driverId);
+        return tracked != null && (tracked.transition(DriverState.IDLE, DriverState.OFFLINE)
+                || tracked.state() == DriverState.OFFLINE);
+    }
+
+    public boolean setOnline(String driverId) {
+        TrackedDriver tracked = drivers.get(driverId);
+        return tracked != null && tracked.transition(DriverState.OFFLINE, DriverState.IDLE);
+    }
+
+    public Map<DriverState, Integer> countByState() {
+        Map<DriverState, Integer> counts = new EnumMap<>(DriverState.class);
+        for (DriverState state : DriverState.values()) {
+            counts.put(state, 0);
+        }
+        drivers.values().forEach(tracked -> counts.merge(tracked.state(), 1, Integer::sum));
+        return counts;
+    }
+
+    public int size() {
+        return drivers.size();
+    }
+
+    private List<Candidate> findNearestIdle(double latitude, double longitude, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int row = row(latitude);
+        int col = col(longitude);
+        double lonScale = Math.cos(Math.toRadians(latitude));
+        // Narrowest side of a cell in km - used as the lower bound for "anything in the next ring"
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.min(1.0, lonScale);
+        int maxRing = (int) Math.ceil(MAX_SEARCH_RADIUS_KM / cellKm);
+
+        List<Candidate> found = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            scanRing(row, col, ring, latitude, longitude, lonScale, found);
+            if (found.size() >= limit) {
+                found.sort(Comparator.comparingDouble(Candidate::distanceKm));
+                if (found.get(limit - 1).distanceKm() <= ring * cellKm) {
+                    break;
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        found.removeIf(candidate -> candidate.distanceKm() > MAX_SEARCH_RADIUS_KM);
+        return found.size() > limit ? found.subList(0, limit) : found;
+    }
+
+    private void scanRing(int row, int col, int ring, double latitude, double longitude,
+                          double lonScale, List<Candidate> found) {
+        for (int dr = -ring; dr <= ring; dr++) {
+            boolean edgeRow = Math.abs(dr) == ring;
+            // Interior rows of the ring only contribute their two edge cells
+            int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+            for (int dc = -ring; dc <= ring; dc += step) {
+                long cell = cellKey(row + dr, col + dc);
+                Set<TrackedDriver> members = cells.get(cell);
+                if (members == null) {
+                    continue;
+                }
+                for (TrackedDriver tracked : members) {
+                    long position = tracked.position();
+                    if (cellOf(position) != cell || tracked.state() != DriverState.IDLE) {
+                        continue;
+                    }
+                    double distanceKm = distanceKm(latitude, longitude, lonScale,
+                            TrackedDriver.latitude(position), TrackedDriver.longitude(position));
+                    found.add(new Candidate(tracked, position, distanceKm));
+                }
+            }
+        }
+    }
+
+    private Set<TrackedDriver> cellMembers(long cell) {
+        return cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    // Equirectangular approximation - accurate to well under 1% at city scale and much cheaper than haversine
+    static double distanceKm(double lat1, double lon1, double lonScale, double lat2, double lon2) {
+        double dy = lat2 - lat1;
+        double dx = (lon2 - lon1) * lonScale;
+        return Math.sqrt(dx * dx + dy * dy) * KM_PER_DEGREE;
+    }
+
+    static long cellOf(double latitude, double longitude) {
+        return cellKey(row(latitude), col(longitude));
+    }
+
+    // The cell of a packed position - the only cell a registry entry at that position belongs to
+    static long cellOf(long position) {
+        return cellOf(TrackedDriver.latitude(position), TrackedDriver.longitude(position));
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int col(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private record Candidate(TrackedDriver tracked, long position, double distanceKm) {
+
+        NearbyDriver toNearbyDriver() {
+            return new NearbyDriver(tracked.driver(), tracked.state(),
+                    TrackedDriver.latitude(position), TrackedDriver.longitude(position), distanceKm);
+        }
+    }
+}
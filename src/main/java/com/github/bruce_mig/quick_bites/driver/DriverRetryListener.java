@@ -2,59 +2,53 @@ package com.github.bruce_mig.quick_bites.driver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.retry.RetryException;
 import org.springframework.core.retry.RetryListener;
 import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryState;
 import org.springframework.core.retry.Retryable;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
+/**
+ * Logs the retry lifecycle of driver assignments.
+ *
+ * Stateless: attempt numbers come from the {@link RetryState} Spring hands to every callback, so the
+ * log stays correct when retries hop threads (async back-off) or run on virtual threads. Metrics are
+ * recorded by {@link com.github.bruce_mig.quick_bites.resilience.RetryTelemetry}.
+ */
 @Component
 public class DriverRetryListener implements RetryListener {
 
     private static final Logger log = LoggerFactory.getLogger(DriverRetryListener.class);
 
-    private final AtomicInteger totalRetries = new AtomicInteger(0);
-    private final AtomicInteger successfulRecoveries = new AtomicInteger(0);
-    private final AtomicInteger finalFailures = new AtomicInteger(0);
-
-    private final ThreadLocal<Integer> currentAttempt = ThreadLocal.withInitial(() -> 0);
-
     @Override
     public void beforeRetry(RetryPolicy retryPolicy, Retryable<?> retryable) {
-        int attemptNumber = currentAttempt.get() + 1;
-        currentAttempt.set(attemptNumber);
-        totalRetries.incrementAndGet();
-        log.info("🔁 RetryListener: Attempt #{} starting for operation '{}'",
-                attemptNumber,
-                retryable.getName());
+        log.info("🔁 RetryListener: Retrying operation '{}'", retryable.getName());
     }
 
     @Override
-    public void onRetrySuccess(RetryPolicy retryPolicy, Retryable<?> retryable, Object result) {
-        int attemptCount = currentAttempt.get();
-
-        if (attemptCount > 1) {
-            successfulRecoveries.incrementAndGet();
+    public void onRetryableExecution(RetryPolicy retryPolicy, Retryable<?> retryable, RetryState retryState) {
+        int attempts = retryState.getRetryCount() + 1;
+        if (!retryState.isSuccessful()) {
+            log.info("🔁 RetryListener: Attempt #{} of operation '{}' failed: {}",
+                    attempts,
+                    retryable.getName(),
+                    retryState.getLastException().getMessage());
+        } else if (attempts > 1) {
             log.info("✅ RetryListener: Operation '{}' succeeded after {} attempt(s)",
                     retryable.getName(),
-                    attemptCount);
+                    attempts);
         } else {
             log.debug("✅ RetryListener: Operation '{}' succeeded on first attempt",
                     retryable.getName());
         }
-
-        currentAttempt.remove();
     }
 
     @Override
-    public void onRetryFailure(RetryPolicy retryPolicy, Retryable<?> retryable, Throwable throwable) {
-        int attemptCount = currentAttempt.get();
-        finalFailures.incrementAndGet();
-        log.error("❌ RetryListener: Operation '{}' failed after {} attempt(s): {}",
+    public void onRetryPolicyExhaustion(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+        log.error("❌ RetryListener: Operation '{}' gave up after {} attempt(s): {}",
                 retryable.getName(),
-                attemptCount,
-                throwable.getMessage());
-        currentAttempt.remove();
+                exception.getSuppressed().length + 1,
+                exception.getCause() != null ? exception.getCause().getMessage() : exception.getMessage());
     }
 }
@@ -0,0 +1,5 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+public enum DriverState {
+    IDLE, ASSIGNED, OFFLINE
+}
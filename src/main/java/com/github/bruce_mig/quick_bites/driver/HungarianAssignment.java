@@ -0,0 +1,106 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost bipartite assignment (Hungarian algorithm with potentials, O(n²·m)).
+ *
+ * Works on rectangular matrices: with more rows than columns the matrix is solved transposed, so
+ * every row gets a column only when there are enough columns to go round.
+ */
+final class HungarianAssignment {
+
+    private HungarianAssignment() {
+    }
+
+    /**
+     * @param cost {@code cost[row][col]}, all rows the same length
+     * @return for each row the assigned column, or {@code -1} if the row was left unassigned
+     */
+    static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        int cols = rows == 0 ? 0 : cost[0].length;
+        if (rows == 0 || cols == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= cols) {
+            return solveWide(cost, rows, cols);
+        }
+
+        double[][] transposed = new double[cols][rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                transposed[c][r] = cost[r][c];
+            }
+        }
+        int[] colToRow = solveWide(transposed, cols, rows);
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        for (int c = 0; c < cols; c++) {
+            rowToCol[colToRow[c]] = c;
+        }
+        return rowToCol;
+    }
+
+    // Requires n <= m. Arrays are 1-indexed with index 0 as the virtual "unmatched" column.
+    private static int[] solveWide(double[][] a, int n, int m) {
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double[] row = a[i0 - 1];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double cur = row[j - 1] - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] rowToCol = new int[n];
+        Arrays.fill(rowToCol, -1);
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) {
+                rowToCol[p[j] - 1] = j - 1;
+            }
+        }
+        return rowToCol;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+/**
+ * A batch of GPS pings in columnar form: entry {@code i} is
+ * ({@code driverIds[i]}, {@code latitudes[i]}, {@code longitudes[i]}, {@code timestamps[i]}).
+ *
+ * Parallel primitive arrays deserialize without a per-ping object, which matters at tens of
+ * thousands of pings per second.
+ */
+public record LocationPingBatch(
+        String[] driverIds,
+        double[] latitudes,
+        double[] longitudes,
+        long[] timestamps
+) {
+    public int size() {
+        return driverIds == null ? 0 : driverIds.length;
+    }
+
+    public boolean isWellFormed() {
+        int size = size();
+        return latitudes != null && latitudes.length == size
+                && longitudes != null && longitudes.length == size
+                && timestamps != null && timestamps.length == size;
+    }
+}
@@ -0,0 +1,5 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+public enum LocationUpdateResult {
+    APPLIED, STALE, UNKNOWN_DRIVER, INVALID
+}
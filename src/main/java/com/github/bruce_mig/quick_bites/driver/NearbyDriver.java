@@ -0,0 +1,10 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+public record NearbyDriver(
+        Driver driver,
+        DriverState state,
+        double latitude,
+        double longitude,
+        double distanceKm
+) {
+}
@@ -0,0 +1,34 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.restaurants.DataLoader;
+import com.github.bruce_mig.quick_bites.restaurants.Restaurant;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves where a driver has to pick an order up - the restaurant's location, or the city centre
+ * for orders whose restaurant is unknown (e.g. demo orders).
+ */
+@Component
+public class PickupLocator {
+
+    static final double CITY_CENTER_LATITUDE = 37.7880;
+    static final double CITY_CENTER_LONGITUDE = -122.4075;
+
+    private final DataLoader dataLoader;
+
+    public PickupLocator(DataLoader dataLoader) {
+        this.dataLoader = dataLoader;
+    }
+
+    public PickupPoint pickupFor(Order order) {
+        Restaurant restaurant = dataLoader.getRestaurant(order.restaurantId());
+        if (restaurant == null) {
+            return new PickupPoint(CITY_CENTER_LATITUDE, CITY_CENTER_LONGITUDE);
+        }
+        return new PickupPoint(restaurant.latitude(), restaurant.longitude());
+    }
+
+    public record PickupPoint(double latitude, double longitude) {
+    }
+}
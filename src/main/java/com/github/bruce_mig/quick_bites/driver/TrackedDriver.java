@@ -0,0 +1,71 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry entry for a driver: immutable identity plus mutable location and state.
+ *
+ * State transitions go through CAS so that a driver can only be claimed by one order at a time.
+ * The location is kept as fixed-point microdegrees packed into a single volatile {@code long}, so a
+ * GPS ping is one primitive store (no new {@link Driver} or boxed coordinates) and readers always see
+ * a consistent latitude/longitude pair without taking a lock. The grid cell is not stored separately
+ * but derived from that same value, so a reader can never pair a cell with coordinates from elsewhere.
+ */
+final class TrackedDriver {
+
+    private static final double MICRODEGREES = 1_000_000.0;
+
+    private final Driver driver;
+    private final AtomicReference<DriverState> state;
+    private volatile long position;
+    private volatile long lastPingMillis;
+
+    TrackedDriver(Driver driver, long position, DriverState state) {
+        this.driver = driver;
+        this.position = position;
+        this.state = new AtomicReference<>(state);
+    }
+
+    Driver driver() {
+        return driver;
+    }
+
+    DriverState state() {
+        return state.get();
+    }
+
+    boolean transition(DriverState expected, DriverState next) {
+        return state.compareAndSet(expected, next);
+    }
+
+    long position() {
+        return position;
+    }
+
+    long lastPingMillis() {
+        return lastPingMillis;
+    }
+
+    /**
+     * Callers must serialize writers for the same driver. The position is a single store, so readers
+     * see either the old location or the new one.
+     */
+    void moveTo(long position, long pingMillis) {
+        this.position = position;
+        this.lastPingMillis = pingMillis;
+    }
+
+    static long pack(double latitude, double longitude) {
+        int lat = (int) Math.round(latitude * MICRODEGREES);
+        int lon = (int) Math.round(longitude * MICRODEGREES);
+        return ((long) lat << 32) | (lon & 0xFFFFFFFFL);
+    }
+
+    static double latitude(long position) {
+        return (int) (position >> 32) / MICRODEGREES;
+    }
+
+    static double longitude(long position) {
+        return (int) position / MICRODEGREES;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.bruce_mig.quick_bites.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Events-per-second over a short sliding window, kept in a ring of one-second buckets.
+ *
+ * Marking is allocation-free; a bucket is lazily reset the first time it is touched in a new second.
+ */
+public class RateMeter {
+
+    private static final int WINDOW_SECONDS = 10;
+
+    private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray epochSeconds = new AtomicLongArray(WINDOW_SECONDS);
+
+    public void mark(long events) {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % WINDOW_SECONDS);
+        long bucketSecond = epochSeconds.get(slot);
+        if (bucketSecond != second && epochSeconds.compareAndSet(slot, bucketSecond, second)) {
+            counts.set(slot, 0);
+        }
+        counts.addAndGet(slot, events);
+    }
+
+    /**
+     * Average rate over the last complete seconds of the window (the current, partial second is excluded).
+     */
+    public double perSecond() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+            long age = now - epochSeconds.get(slot);
+            if (age >= 1 && age < WINDOW_SECONDS) {
+                total += counts.get(slot);
+            }
+        }
+        return total / (double) (WINDOW_SECONDS - 1);
+    }
+}
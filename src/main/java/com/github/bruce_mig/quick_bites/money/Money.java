@@ -0,0 +1,191 @@
+package com.github.bruce_mig.quick_bites.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money as a whole number of its currency's minor units - $12.99 is 1299 US cents.
+ *
+ * Arithmetic is plain {@code long} arithmetic, exact and overflow-checked, so summing prices allocates
+ * nothing beyond the result - unlike {@code BigDecimal}, where every {@code add} creates a new object.
+ * Amounts in different currencies never mix: adding or comparing them throws.
+ *
+ * In JSON an amount is a plain decimal number in the {@link #DEFAULT_CURRENCY}, as prices have always
+ * been. The conversion is exact both ways: a number with more decimals than the currency has minor units
+ * (12.999 dollars) is rejected rather than rounded.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    /**
+     * The currency of every price in the catalog and of amounts in JSON.
+     */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+        int digits = currency.getDefaultFractionDigits();
+        if (digits < 0 || digits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException(currency + " has no fixed number of minor units");
+        }
+    }
+
+    /**
+     * @param minorUnits cents, for the default currency
+     */
+    public static Money of(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * The exact amount of {@code amount} in the default currency, e.g. from a JSON number.
+     *
+     * @throws IllegalArgumentException if {@code amount} has a fraction of a minor unit or does not fit a long
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            return new Money(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(amount + " is not a whole number of " + currency + " minor units", e);
+        }
+    }
+
+    /**
+     * Parse a plain decimal amount such as {@code "25.99"}, {@code "7"} or {@code "-0.5"} in the default
+     * currency, exactly and without going through {@code BigDecimal}.
+     *
+     * @throws IllegalArgumentException if {@code text} is not a plain decimal, or has a fraction of a minor unit
+     */
+    public static Money parse(CharSequence text) {
+        return parse(text, DEFAULT_CURRENCY);
+    }
+
+    public static Money parse(CharSequence text, Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        int length = text.length();
+        int i = 0;
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        if (negative || length > 0 && text.charAt(0) == '+') {
+            i++;
+        }
+        // Accumulated as a negative number, like Long.parseLong, so that Long.MIN_VALUE minor units parse too
+        long units = 0;
+        int fractionDigits = -1;
+        boolean anyDigit = false;
+        try {
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9') {
+                    if (fractionDigits >= 0 && ++fractionDigits > digits) {
+                        if (c != '0') {
+                            throw new IllegalArgumentException(text + " is not a whole number of " + currency + " minor units");
+                        }
+                        continue; // trailing zeros beyond the minor unit change nothing
+                    }
+                    units = Math.subtractExact(Math.multiplyExact(units, 10), c - '0');
+                    anyDigit = true;
+                } else {
+                    throw new IllegalArgumentException("Not a decimal amount: " + text);
+                }
+            }
+            if (!anyDigit) {
+                throw new IllegalArgumentException("Not a decimal amount: " + text);
+            }
+            units = Math.multiplyExact(units, POWERS_OF_TEN[digits - Math.clamp(fractionDigits, 0, digits)]);
+            if (!negative) {
+                units = Math.negateExact(units);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(text + " does not fit in " + currency + " minor units", e);
+        }
+        return new Money(units, currency);
+    }
+
+    /**
+     * The exact amount as a decimal with the currency's number of decimals, e.g. 12.50 - how amounts are
+     * written to JSON.
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /**
+     * The amount as a plain decimal string, e.g. {@code "12.50"} or {@code "-0.05"}; {@link #parse} reads it back.
+     */
+    public String toPlainString() {
+        int digits = currency.getDefaultFractionDigits();
+        if (digits == 0) {
+            return Long.toString(minorUnits);
+        }
+        long unit = POWERS_OF_TEN[digits];
+        // Magnitudes of the parts rather than Math.abs(minorUnits), which overflows for Long.MIN_VALUE
+        long whole = Math.abs(minorUnits / unit);
+        long fraction = Math.abs(minorUnits % unit);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(whole).append('.');
+        String fractionDigits = Long.toString(fraction);
+        text.repeat('0', digits - fractionDigits.length()).append(fractionDigits);
+        return text.toString();
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toPlainString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " and " + other.currency + " amounts");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.bruce_mig.quick_bites.order;
+
+/**
+ * A status change the order state machine does not allow, e.g. DELIVERED → PREPARING.
+ */
+public class IllegalOrderTransitionException extends RuntimeException {
+
+    private final Order.OrderStatus from;
+    private final Order.OrderStatus to;
+
+    public IllegalOrderTransitionException(String orderId, Order.OrderStatus from, Order.OrderStatus to) {
+        super("Order " + orderId + " cannot go from " + from + " to " + to);
+        this.from = from;
+        this.to = to;
+    }
+
+    public Order.OrderStatus getFrom() {
+        return from;
+    }
+
+    public Order.OrderStatus getTo() {
+        return to;
+    }
+}
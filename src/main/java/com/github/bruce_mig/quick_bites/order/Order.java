@@ -1,6 +1,7 @@
 package com.github.bruce_mig.quick_bites.order;
 
-import java.math.BigDecimal;
+import com.github.bruce_mig.quick_bites.money.Money;
+
 import java.util.List;
 
 public record Order(
@@ -8,14 +9,14 @@ public record Order(
         String customerId,
         String restaurantId,
         List<String> items,
-        BigDecimal totalAmount,
+        Money totalAmount,
         String paymentId,
         String paymentConfirmation,
         OrderStatus status
 ) {
     // Convenience constructor for creating new orders (before payment confirmation)
     public Order(String id, String customerId, String restaurantId,
-                 List<String> items, BigDecimal totalAmount, String paymentId) {
+                 List<String> items, Money totalAmount, String paymentId) {
         this(id, customerId, restaurantId, items, totalAmount, paymentId, null, OrderStatus.PENDING);
     }
 
@@ -30,6 +31,24 @@ public record Order(
     }
 
     public enum OrderStatus {
-        PENDING, CONFIRMED, PREPARING, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, PREPARING, OUT_FOR_DELIVERY, DELIVERED, CANCELLED;
+
+        /**
+         * Orders move forward one step at a time, and can be cancelled until they leave the restaurant.
+         * DELIVERED and CANCELLED are final.
+         */
+        public boolean canTransitionTo(OrderStatus next) {
+            return switch (this) {
+                case PENDING -> next == CONFIRMED || next == CANCELLED;
+                case CONFIRMED -> next == PREPARING || next == CANCELLED;
+                case PREPARING -> next == OUT_FOR_DELIVERY || next == CANCELLED;
+                case OUT_FOR_DELIVERY -> next == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
+
+        public boolean isFinal() {
+            return this == DELIVERED || this == CANCELLED;
+        }
     }
 }
\ No newline at end of file
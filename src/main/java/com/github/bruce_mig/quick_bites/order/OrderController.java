@@ -0,0 +1,121 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+    private final OrderService orderService;
+    private final OrderPipeline orderPipeline;
+    private final PaymentService paymentService;
+
+    public OrderController(OrderService orderService, OrderPipeline orderPipeline, PaymentService paymentService) {
+        this.orderService = orderService;
+        this.orderPipeline = orderPipeline;
+        this.paymentService = paymentService;
+    }
+
+    /**
+     * Place an order and run it through the pipeline: payment, restaurant notification and driver
+     * assignment concurrently, then confirmation. 201 with the confirmed order and per-stage timings;
+     * if a stage fails the order is cancelled and the response is 502, or 504 if a stage timed out.
+     */
+    @PostMapping
+    public ResponseEntity<?> placeOrder(@RequestBody Order draft) throws InterruptedException {
+        log.info("📦 API request: Place order for restaurant {}", draft.restaurantId());
+        OrderPipeline.Result result;
+        try {
+            result = orderPipeline.process(draft);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (result.failedStage() == null) {
+            return ResponseEntity.created(URI.create("/api/orders/" + result.order().id())).body(result);
+        }
+        return ResponseEntity.status(result.timedOut() ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY)
+                .body(result);
+    }
+
+    @GetMapping("/{orderId}")
+    public ResponseEntity<?> getOrder(@PathVariable String orderId) {
+        return orderService.find(orderId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "error", "Order not found",
+                        "orderId", orderId
+                )));
+    }
+
+    /**
+     * Move an order to {@code status} - 409 if its current status does not allow that.
+     *
+     * @param paymentConfirmation recorded with the change, typically when confirming
+     */
+    @PostMapping("/{orderId}/status")
+    public ResponseEntity<?> changeStatus(@PathVariable String orderId,
+                                          @RequestParam Order.OrderStatus status,
+                                          @RequestParam(required = false) String paymentConfirmation) {
+        try {
+            Order order = orderService.transition(orderId, status, paymentConfirmation);
+            log.info("📦 Order {} is now {}", orderId, status);
+            return ResponseEntity.ok(order);
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Order not found",
+                    "orderId", orderId
+            ));
+        } catch (IllegalOrderTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "error", "Illegal status change",
+                    "message", e.getMessage(),
+                    "from", e.getFrom(),
+                    "to", e.getTo()
+            ));
+        }
+    }
+
+    /**
+     * Change the simulated payment provider: how long it takes to answer and how many payments it
+     * declines. A delay beyond the payment deadline times the stage out.
+     */
+    @PostMapping("/payments/simulated-behavior")
+    public ResponseEntity<Map<String, Object>> setPaymentBehavior(@RequestParam(required = false) Long delayMillis,
+                                                                  @RequestParam(required = false) Integer failurePercent) {
+        if (delayMillis != null) {
+            paymentService.setSimulatedDelay(Duration.ofMillis(Math.max(0, delayMillis)));
+            log.info("🐢 Simulated payment delay set to {}ms", delayMillis);
+        }
+        if (failurePercent != null) {
+            paymentService.setSimulatedFailureRate(failurePercent / 100.0);
+            log.info("💥 Simulated payment failure rate set to {}%", failurePercent);
+        }
+        return ResponseEntity.ok(Map.of(
+                "simulatedDelayMillis", paymentService.getSimulatedDelay().toMillis(),
+                "failurePercent", Math.round(paymentService.getSimulatedFailureRate() * 100)
+        ));
+    }
+
+    /**
+     * Order counts by status and journal statistics: group commit sizes, force latency, bytes written.
+     */
+    @GetMapping("/stats")
+    public OrderService.Stats stats() {
+        return orderService.stats();
+    }
+}
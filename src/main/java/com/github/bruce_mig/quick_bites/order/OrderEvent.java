@@ -0,0 +1,24 @@
+package com.github.bruce_mig.quick_bites.order;
+
+/**
+ * A change to an order, as written to the {@link OrderJournal}. Replaying every event in journal order
+ * rebuilds every order.
+ */
+public sealed interface OrderEvent {
+
+    String orderId();
+
+    record Created(Order order) implements OrderEvent {
+
+        @Override
+        public String orderId() {
+            return order.id();
+        }
+    }
+
+    /**
+     * @param paymentConfirmation set when the transition confirms payment, null otherwise
+     */
+    record StatusChanged(String orderId, Order.OrderStatus status, String paymentConfirmation) implements OrderEvent {
+    }
+}
@@ -0,0 +1,447 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import com.github.bruce_mig.quick_bites.metrics.LatencyHistogram;
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only order event log in memory-mapped segment files, with group commit.
+ *
+ * Appends are queued to a single writer thread. The writer takes everything queued so far as one group,
+ * encodes it straight into the mapped segment, forces the written range to disk once, and only then
+ * completes the group's futures. A caller's event is therefore durable when its future completes, and
+ * one force covers as many events as arrived while the previous force ran: the more concurrent writers,
+ * the larger the groups, and throughput grows while each caller still waits for only about one force.
+ *
+ * Each record is {@code [int length][int CRC32C][payload]}. Segments are fixed-size files named by their
+ * index and are pre-allocated by mapping, so unwritten space reads as zeros: a zero length ends a segment.
+ * On open, every segment is replayed in order. A torn record at the very end of the log (a crash during
+ * an append whose caller was never told it succeeded) is cut off, and writing resumes there. A bad record
+ * anywhere else means the log is corrupt, and opening fails.
+ *
+ * Only one process may have a journal directory open at a time.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final byte CREATED = 1;
+    private static final byte STATUS_CHANGED = 2;
+    private static final int MAX_GROUP_SIZE = 4_096;
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Owned by the writer thread after construction
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private int unforcedFrom;
+    private long nextSequence;
+
+    private final long replayedEvents;
+    private final LongAdder appendedEvents = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LatencyHistogram groupSizes = new LatencyHistogram();
+    private final LatencyHistogram forceMicros = new LatencyHistogram();
+
+    /**
+     * Open (or create) the journal in {@code directory}, replaying every event in it to {@code replay}
+     * before returning.
+     *
+     * @param segmentSize bytes per segment file; no single event may be larger
+     * @param force       whether to force each group to the storage device before acknowledging it - without
+     *                    it an acknowledged event survives a process crash but not a power loss
+     */
+    public OrderJournal(Path directory, int segmentSize, boolean force, Consumer<OrderEvent> replay) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.force = force;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // held by this process
+        }
+        this.lock = acquired;
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Order journal " + directory + " is already open");
+        }
+
+        this.replayedEvents = recover(replay);
+        this.writer = Thread.ofPlatform().name("order-journal").daemon(true).start(this::writeLoop);
+    }
+
+    /**
+     * Queue {@code event} for the next group commit.
+     *
+     * @return completes with the event's sequence number once it is durable, or exceptionally if it could
+     * not be written
+     */
+    public CompletableFuture<Long> append(OrderEvent event) {
+        PendingAppend pending = new PendingAppend(event, new CompletableFuture<>());
+        if (closed) {
+            pending.acknowledged.completeExceptionally(new RejectedExecutionException("Order journal is closed"));
+            return pending.acknowledged;
+        }
+        queue.add(pending);
+        return pending.acknowledged;
+    }
+
+    public Stats stats() {
+        return new Stats(directory.toAbsolutePath().toString(), force, replayedEvents, appendedEvents.sum(),
+                groups.sum(), bytesWritten.sum(), segmentIndex + 1, groupSizes.snapshot(), forceMicros.snapshot());
+    }
+
+    /**
+     * Stop accepting appends, write and force everything already queued, and release the directory.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Appends that raced with close and were queued after the writer's last drain
+        for (PendingAppend pending; (pending = queue.poll()) != null; ) {
+            pending.acknowledged.completeExceptionally(new RejectedExecutionException("Order journal is closed"));
+        }
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP_SIZE - 1);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingAppend> group) {
+        List<PendingAppend> written = new ArrayList<>(group.size());
+        List<Long> sequences = new ArrayList<>(group.size());
+        for (PendingAppend pending : group) {
+            try {
+                sequences.add(write(pending.event));
+                written.add(pending);
+            } catch (RuntimeException | IOException e) {
+                pending.acknowledged.completeExceptionally(e);
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            forceWritten();
+            forceMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            written.forEach(pending -> pending.acknowledged.completeExceptionally(e));
+            return;
+        }
+        groups.increment();
+        groupSizes.record(written.size());
+        appendedEvents.add(written.size());
+        for (int i = 0; i < written.size(); i++) {
+            written.get(i).acknowledged.complete(sequences.get(i));
+        }
+    }
+
+    private long write(OrderEvent event) throws IOException {
+        long sequence = nextSequence;
+        int start = segment.position();
+        try {
+            encode(sequence, event);
+        } catch (BufferOverflowException e) {
+            // Doesn't fit in what is left of this segment: wipe the partial record and start the next one
+            clear(start, segment.position());
+            roll();
+            start = segment.position();
+            try {
+                encode(sequence, event);
+            } catch (BufferOverflowException tooLarge) {
+                clear(start, segment.position());
+                throw new IllegalArgumentException("Event for order " + event.orderId() + " exceeds the journal segment size");
+            }
+        }
+        nextSequence++;
+        bytesWritten.add(segment.position() - start);
+        return sequence;
+    }
+
+    // Writes the payload first and the header last, at the current position
+    private void encode(long sequence, OrderEvent event) {
+        int start = segment.position();
+        if (segment.remaining() < HEADER_BYTES) {
+            throw new BufferOverflowException();
+        }
+        segment.position(start + HEADER_BYTES);
+        segment.putLong(sequence);
+        switch (event) {
+            case OrderEvent.Created created -> {
+                Order order = created.order();
+                segment.put(CREATED);
+                putString(order.id());
+                putString(order.customerId());
+                putString(order.restaurantId());
+                segment.putInt(order.items().size());
+                for (String item : order.items()) {
+                    putString(item);
+                }
+                putString(order.totalAmount() == null ? null : order.totalAmount().toPlainString());
+                putString(order.paymentId());
+                putString(order.paymentConfirmation());
+                segment.put((byte) order.status().ordinal());
+            }
+            case OrderEvent.StatusChanged changed -> {
+                segment.put(STATUS_CHANGED);
+                putString(changed.orderId());
+                segment.put((byte) changed.status().ordinal());
+                putString(changed.paymentConfirmation());
+            }
+        }
+        int end = segment.position();
+        int length = end - start - HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(start + HEADER_BYTES, length));
+        segment.putInt(start, length);
+        segment.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            segment.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        segment.putInt(bytes.length);
+        segment.put(bytes);
+    }
+
+    private void forceWritten() {
+        int end = segment.position();
+        if (force && end > unforcedFrom) {
+            segment.force(unforcedFrom, end - unforcedFrom);
+        }
+        unforcedFrom = end;
+    }
+
+    private void roll() throws IOException {
+        forceWritten();
+        segmentIndex++;
+        segment = map(segmentIndex);
+        unforcedFrom = 0;
+        log.info("📒 Order journal rolled to segment {}", segmentIndex);
+    }
+
+    private void clear(int from, int to) {
+        for (int i = from; i < to; i++) {
+            segment.put(i, (byte) 0);
+        }
+        segment.position(from);
+    }
+
+    private long recover(Consumer<OrderEvent> replay) throws IOException {
+        List<Integer> indexes;
+        try (Stream<Path> files = Files.list(directory)) {
+            indexes = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("orders-\\d{10}\\.journal"))
+                    .map(name -> Integer.parseInt(name.substring(7, 17)))
+                    .sorted()
+                    .toList();
+        }
+        long start = System.nanoTime();
+        long events = 0;
+        segmentIndex = indexes.isEmpty() ? 0 : indexes.getLast();
+        for (int index : indexes) {
+            MappedByteBuffer buffer = map(index);
+            boolean last = index == segmentIndex;
+            while (true) {
+                int position = buffer.position();
+                OrderEvent event;
+                try {
+                    event = read(buffer);
+                } catch (CorruptRecordException e) {
+                    if (!last) {
+                        throw new IOException("Order journal segment " + index + " is corrupt at " + position, e);
+                    }
+                    // Torn tail: nobody was told this append succeeded. Zero everything after it, so no stale
+                    // bytes that reached the disk out of order can be mistaken for records later
+                    log.warn("⚠️ Order journal: discarding torn record at segment {} offset {}", index, position);
+                    for (int i = position; i < buffer.limit(); i++) {
+                        buffer.put(i, (byte) 0);
+                    }
+                    buffer.force();
+                    buffer.position(position);
+                    event = null;
+                }
+                if (event == null) {
+                    break;
+                }
+                replay.accept(event);
+                events++;
+            }
+            if (last) {
+                segment = buffer;
+            }
+        }
+        if (segment == null) {
+            segment = map(segmentIndex);
+        }
+        unforcedFrom = segment.position();
+        nextSequence = events;
+        log.info("📒 Order journal {}: replayed {} events from {} segment(s) in {}ms",
+                directory.toAbsolutePath(), events, indexes.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return events;
+    }
+
+    /**
+     * The next event at the buffer's position, advancing past it, or null at the end of the segment.
+     */
+    private OrderEvent read(MappedByteBuffer buffer) throws CorruptRecordException {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining() - HEADER_BYTES) {
+            throw new CorruptRecordException("bad length " + length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_BYTES, length));
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            throw new CorruptRecordException("checksum mismatch");
+        }
+        try {
+            buffer.position(start + HEADER_BYTES);
+            buffer.getLong(); // sequence, implied by the position in the log
+            OrderEvent event = switch (buffer.get()) {
+                case CREATED -> {
+                    String id = getString(buffer);
+                    String customerId = getString(buffer);
+                    String restaurantId = getString(buffer);
+                    int itemCount = buffer.getInt();
+                    if (itemCount < 0 || itemCount > length) {
+                        throw new CorruptRecordException("bad item count " + itemCount);
+                    }
+                    List<String> items = new ArrayList<>(itemCount);
+                    for (int i = 0; i < itemCount; i++) {
+                        items.add(getString(buffer));
+                    }
+                    String totalAmount = getString(buffer);
+                    String paymentId = getString(buffer);
+                    String paymentConfirmation = getString(buffer);
+                    Order.OrderStatus status = STATUSES[buffer.get()];
+                    yield new OrderEvent.Created(new Order(id, customerId, restaurantId, List.copyOf(items),
+                            totalAmount == null ? null : Money.parse(totalAmount), paymentId,
+                            paymentConfirmation, status));
+                }
+                case STATUS_CHANGED -> new OrderEvent.StatusChanged(getString(buffer), STATUSES[buffer.get()], getString(buffer));
+                default -> throw new CorruptRecordException("unknown event type");
+            };
+            buffer.position(start + HEADER_BYTES + length);
+            return event;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new CorruptRecordException("truncated payload");
+        }
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        Path file = directory.resolve("orders-%010d.journal".formatted(index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping beyond the end grows the file; the mapping outlives the channel
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private record PendingAppend(OrderEvent event, CompletableFuture<Long> acknowledged) {
+    }
+
+    private static final class CorruptRecordException extends Exception {
+
+        CorruptRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param groupSizes events per group commit
+     * @param forceMicros time to force one group to disk (0 with forcing off)
+     */
+    public record Stats(
+            String directory,
+            boolean force,
+            long replayedEvents,
+            long appendedEvents,
+            long groupCommits,
+            long bytesWritten,
+            int segments,
+            LatencyHistogram.Snapshot groupSizes,
+            LatencyHistogram.Snapshot forceMicros
+    ) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.bruce_mig.quick_bites.order;
+
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(String orderId) {
+        super("Order not found: " + orderId);
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import com.github.bruce_mig.quick_bites.concurrent.TaskScope;
+import com.github.bruce_mig.quick_bites.driver.Driver;
+import com.github.bruce_mig.quick_bites.driver.DriverAssignmentService;
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.restaurants.DataLoader;
+import com.github.bruce_mig.quick_bites.restaurants.RestaurantNotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Takes a new order from placement to confirmation.
+ *
+ * The order is priced from the current menu and placed (journaled as PENDING), then payment confirmation,
+ * restaurant notification and driver assignment - which do not depend on each other - run at the same
+ * time, each in its own virtual thread of one {@link TaskScope.ShutdownOnFailure} and each with its own
+ * deadline. The first stage to fail or overrun its deadline cancels the others, and the order is cancelled
+ * (a captured payment is refunded and a claimed driver released, even if their stage was cancelled after
+ * the fact); otherwise the order is confirmed with its payment confirmation. End-to-end latency is
+ * therefore about the slowest stage rather than the sum of all of them, and every result carries the
+ * per-stage timings that show it.
+ */
+@Service
+public class OrderPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPipeline.class);
+
+    private final OrderService orderService;
+    private final DataLoader dataLoader;
+    private final PaymentService paymentService;
+    private final RestaurantNotificationService restaurantNotificationService;
+    private final DriverAssignmentService driverAssignmentService;
+    private final Duration paymentTimeout;
+    private final Duration notificationTimeout;
+    private final Duration driverTimeout;
+
+    public OrderPipeline(OrderService orderService,
+                         DataLoader dataLoader,
+                         PaymentService paymentService,
+                         RestaurantNotificationService restaurantNotificationService,
+                         DriverAssignmentService driverAssignmentService,
+                         @Value("${quick-bites.orders.pipeline.payment-timeout:3s}") Duration paymentTimeout,
+                         @Value("${quick-bites.orders.pipeline.notification-timeout:15s}") Duration notificationTimeout,
+                         @Value("${quick-bites.orders.pipeline.driver-timeout:20s}") Duration driverTimeout) {
+        this.orderService = orderService;
+        this.dataLoader = dataLoader;
+        this.paymentService = paymentService;
+        this.restaurantNotificationService = restaurantNotificationService;
+        this.driverAssignmentService = driverAssignmentService;
+        this.paymentTimeout = paymentTimeout;
+        this.notificationTimeout = notificationTimeout;
+        this.driverTimeout = driverTimeout;
+    }
+
+    /**
+     * Run {@code draft} through the pipeline. A failed stage does not throw: the result carries the
+     * cancelled order and the stage that failed.
+     *
+     * @throws IllegalArgumentException if the draft is not a valid order, lists items its restaurant does
+     *                                  not have on offer, or carries a total that differs from the menu total
+     * @throws InterruptedException if interrupted while the stages run; the order is cancelled
+     */
+    public Result process(Order draft) throws InterruptedException {
+        long start = System.nanoTime();
+        List<StageTiming> timings = new ArrayList<>();
+        Order placed = timed("place", timings, () -> orderService.place(priced(draft)));
+
+        Stage<String> payment = new Stage<>("payment", paymentTimeout,
+                () -> paymentService.confirmPayment(placed));
+        Stage<Duration> notification = new Stage<>("restaurant-notification", notificationTimeout,
+                () -> restaurantNotificationService.notifyRestaurant(placed));
+        Stage<Driver> driver = new Stage<>("driver-assignment", driverTimeout,
+                () -> driverAssignmentService.assignDriverWithin(placed, driverTimeout));
+        List<Stage<?>> stages = List.of(payment, notification, driver);
+
+        Stage<?> failed = null;
+        long fanOutStart = System.nanoTime();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure("order-" + placed.id())) {
+            for (Stage<?> stage : stages) {
+                stage.fork(scope);
+            }
+            scope.join();
+            TaskScope.Subtask<?> failure = scope.firstFailure();
+            for (Stage<?> stage : stages) {
+                if (stage.subtask == failure) {
+                    failed = stage;
+                }
+            }
+        } catch (InterruptedException e) {
+            // The scope has cancelled every stage on the way out
+            cancel(placed, payment, driver);
+            throw e;
+        }
+        // Closing the scope waited for every stage thread, so each stage's timing is final
+        long fanOutMillis = millisSince(fanOutStart);
+        for (Stage<?> stage : stages) {
+            timings.add(stage.timing());
+        }
+
+        Order order;
+        String error = null;
+        boolean timedOut = false;
+        if (failed == null) {
+            order = timed("confirm", timings,
+                    () -> orderService.transition(placed.id(), Order.OrderStatus.CONFIRMED, payment.result()));
+            log.info("✅ Order {} confirmed in {}ms: payment, restaurant and driver done in {}ms together",
+                    placed.id(), millisSince(start), fanOutMillis);
+        } else {
+            StageTiming failedTiming = failed.timing();
+            error = failedTiming.error();
+            timedOut = failedTiming.outcome() == Outcome.TIMED_OUT;
+            order = timed("cancel", timings, () -> cancel(placed, payment, driver));
+            log.warn("❌ Order {} cancelled: {} {} after {}ms ({})", placed.id(), failed.name,
+                    timedOut ? "timed out" : "failed", failedTiming.millis(), error);
+        }
+
+        long stagesMillis = timings.stream().mapToLong(StageTiming::millis).sum();
+        return new Result(order, failed == null ? null : failed.name, timedOut, error,
+                driver.succeeded() ? driver.result() : null, timings, millisSince(start), stagesMillis);
+    }
+
+    // The draft with its total taken from the menu; a total sent along must match it to the cent
+    private Order priced(Order draft) {
+        if (draft.restaurantId() == null || draft.items() == null || draft.items().isEmpty()) {
+            return draft; // rejected when placed
+        }
+        Money total = dataLoader.catalog().total(draft.restaurantId(), draft.items());
+        if (draft.totalAmount() != null && !draft.totalAmount().equals(total)) {
+            throw new IllegalArgumentException("totalAmount " + draft.totalAmount().toPlainString()
+                    + " does not match the menu total " + total.toPlainString());
+        }
+        return new Order(draft.id(), draft.customerId(), draft.restaurantId(), draft.items(), total, draft.paymentId());
+    }
+
+    // Only called once the scope is closed, so whatever a stage's work returned is known
+    private Order cancel(Order placed, Stage<String> payment, Stage<Driver> driver) {
+        if (payment.returned != null) {
+            paymentService.refund(placed, payment.returned);
+        }
+        if (driver.returned != null) {
+            driverAssignmentService.releaseDriver(driver.returned);
+        }
+        return orderService.transition(placed.id(), Order.OrderStatus.CANCELLED, null);
+    }
+
+    private static <T> T timed(String stage, List<StageTiming> timings, Supplier<T> step) {
+        long start = System.nanoTime();
+        T result = step.get();
+        timings.add(new StageTiming(stage, Outcome.SUCCEEDED, millisSince(start), null));
+        return result;
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // One concurrent stage: its work, deadline, subtask and the time it actually ran
+    private static final class Stage<T> {
+
+        private final String name;
+        private final Duration timeout;
+        private final Callable<T> work;
+        private TaskScope.Subtask<T> subtask;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        // What the work returned, kept even when the subtask was cancelled or timed out before it could
+        // finish - a payment captured or a driver claimed just then still has to be given back
+        private volatile T returned;
+
+        private Stage(String name, Duration timeout, Callable<T> work) {
+            this.name = name;
+            this.timeout = timeout;
+            this.work = work;
+        }
+
+        private void fork(TaskScope scope) {
+            subtask = scope.fork(() -> {
+                startNanos = System.nanoTime();
+                try {
+                    returned = work.call();
+                    return returned;
+                } finally {
+                    endNanos = System.nanoTime();
+                }
+            }, timeout);
+        }
+
+        private boolean succeeded() {
+            return subtask.state() == TaskScope.Subtask.State.SUCCESS;
+        }
+
+        private T result() {
+            return subtask.get();
+        }
+
+        private StageTiming timing() {
+            long millis = startNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+            return switch (subtask.state()) {
+                case SUCCESS -> new StageTiming(name, Outcome.SUCCEEDED, millis, null);
+                case FAILED -> {
+                    Throwable exception = subtask.exception();
+                    yield exception instanceof TimeoutException
+                            ? new StageTiming(name, Outcome.TIMED_OUT, millis, "No result within " + timeout.toMillis() + "ms")
+                            : new StageTiming(name, Outcome.FAILED, millis, String.valueOf(exception.getMessage()));
+                }
+                case UNAVAILABLE -> new StageTiming(name, Outcome.CANCELLED, millis, null);
+            };
+        }
+    }
+
+    public enum Outcome {
+        SUCCEEDED, FAILED, TIMED_OUT, CANCELLED
+    }
+
+    /**
+     * @param millis how long the stage ran; a cancelled stage stops at the cancellation
+     */
+    public record StageTiming(String stage, Outcome outcome, long millis, String error) {
+    }
+
+    /**
+     * @param failedStage the stage that failed first and cancelled the rest, null if the order was confirmed
+     * @param timedOut whether that stage overran its deadline rather than failing
+     * @param driver the assigned driver, null unless driver assignment succeeded
+     * @param stages place, the concurrent stages, then confirm or cancel
+     * @param totalMillis end to end, compare with {@code sumOfStagesMillis}
+     */
+    public record Result(
+            Order order,
+            String failedStage,
+            boolean timedOut,
+            String error,
+            Driver driver,
+            List<StageTiming> stages,
+            long totalMillis,
+            long sumOfStagesMillis
+    ) {
+    }
+}
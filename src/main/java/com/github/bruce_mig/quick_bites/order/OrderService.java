@@ -0,0 +1,186 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns every order and drives it through the {@link Order.OrderStatus} state machine.
+ *
+ * Each change is validated, written to the {@link OrderJournal} and acknowledged as durable before it
+ * becomes visible: readers never see a status a restart could lose. Changes to one order are serialized
+ * by that order's lock, while changes to different orders run concurrently and share the journal's group
+ * commits. On startup the journal is replayed to rebuild every order.
+ */
+@Service
+public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private final Map<String, OrderEntry> orders = new ConcurrentHashMap<>();
+    private final OrderJournal journal;
+
+    public OrderService(@Value("${quick-bites.orders.journal.directory:data/orders}") String directory,
+                        @Value("${quick-bites.orders.journal.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${quick-bites.orders.journal.sync:true}") boolean sync) {
+        try {
+            this.journal = new OrderJournal(Path.of(directory), Math.toIntExact(segmentSize.toBytes()), sync, this::replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the order journal in " + directory, e);
+        }
+        log.info("📦 Restored {} orders from the journal", orders.size());
+    }
+
+    /**
+     * Record a new PENDING order. The id is generated unless the draft carries one; status and payment
+     * confirmation in the draft are ignored.
+     *
+     * @return the order as stored, once it is durable
+     * @throws IllegalArgumentException if the draft is incomplete or its id is taken
+     */
+    public Order place(Order draft) {
+        if (isBlank(draft.customerId()) || isBlank(draft.restaurantId())) {
+            throw new IllegalArgumentException("customerId and restaurantId are required");
+        }
+        if (draft.items() == null || draft.items().isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one item");
+        }
+        String id = isBlank(draft.id()) ? UUID.randomUUID().toString() : draft.id();
+        Order order = new Order(id, draft.customerId(), draft.restaurantId(), List.copyOf(draft.items()),
+                draft.totalAmount(), draft.paymentId());
+
+        // Claim the id with the entry already locked, so no transition can run before the order is durable
+        OrderEntry entry = new OrderEntry();
+        entry.lock.lock();
+        try {
+            if (orders.putIfAbsent(id, entry) != null) {
+                throw new IllegalArgumentException("Order " + id + " already exists");
+            }
+            try {
+                awaitDurable(journal.append(new OrderEvent.Created(order)));
+            } catch (RuntimeException e) {
+                orders.remove(id, entry);
+                throw e;
+            }
+            entry.order = order;
+            return order;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Move an order to {@code next}, optionally recording its payment confirmation.
+     *
+     * @return the updated order, once the change is durable
+     * @throws OrderNotFoundException if there is no such order
+     * @throws IllegalOrderTransitionException if the state machine does not allow the change
+     */
+    public Order transition(String orderId, Order.OrderStatus next, String paymentConfirmation) {
+        OrderEntry entry = orders.get(orderId);
+        if (entry == null) {
+            throw new OrderNotFoundException(orderId);
+        }
+        entry.lock.lock();
+        try {
+            Order current = entry.order;
+            if (current == null) {
+                // Placing failed and the entry is about to be removed
+                throw new OrderNotFoundException(orderId);
+            }
+            if (!current.status().canTransitionTo(next)) {
+                throw new IllegalOrderTransitionException(orderId, current.status(), next);
+            }
+            awaitDurable(journal.append(new OrderEvent.StatusChanged(orderId, next, paymentConfirmation)));
+            Order updated = apply(current, next, paymentConfirmation);
+            entry.order = updated;
+            return updated;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    public Optional<Order> find(String orderId) {
+        OrderEntry entry = orders.get(orderId);
+        return Optional.ofNullable(entry == null ? null : entry.order);
+    }
+
+    public Stats stats() {
+        Map<Order.OrderStatus, Integer> byStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (OrderEntry entry : orders.values()) {
+            Order order = entry.order;
+            if (order != null) {
+                byStatus.merge(order.status(), 1, Integer::sum);
+            }
+        }
+        return new Stats(byStatus.values().stream().mapToInt(Integer::intValue).sum(), byStatus, journal.stats());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        journal.close();
+    }
+
+    // Runs on the constructing thread, before the service is published
+    private void replay(OrderEvent event) {
+        switch (event) {
+            case OrderEvent.Created created -> {
+                OrderEntry entry = new OrderEntry();
+                entry.order = created.order();
+                orders.put(created.orderId(), entry);
+            }
+            case OrderEvent.StatusChanged changed -> {
+                OrderEntry entry = orders.get(changed.orderId());
+                if (entry == null) {
+                    log.warn("⚠️ Order journal: status change for unknown order {}", changed.orderId());
+                    return;
+                }
+                entry.order = apply(entry.order, changed.status(), changed.paymentConfirmation());
+            }
+        }
+    }
+
+    private static Order apply(Order order, Order.OrderStatus status, String paymentConfirmation) {
+        Order updated = order.withStatus(status);
+        return paymentConfirmation == null ? updated : updated.withPaymentConfirmation(paymentConfirmation);
+    }
+
+    private static void awaitDurable(CompletableFuture<Long> append) {
+        try {
+            append.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order journal write failed", e.getCause());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class OrderEntry {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Order order;
+    }
+
+    public record Stats(int orders, Map<Order.OrderStatus, Integer> byStatus, OrderJournal.Stats journal) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.bruce_mig.quick_bites.order;
+
+public class PaymentDeclinedException extends RuntimeException {
+
+    public PaymentDeclinedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated payment provider: confirms an order's payment after a round trip, declining a configurable
+ * share of payments.
+ */
+@Service
+public class PaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    private volatile Duration simulatedDelay = Duration.ofMillis(500);
+    private volatile double simulatedFailureRate;
+
+    /**
+     * Capture the payment for {@code order}.
+     *
+     * @return the provider's confirmation reference
+     * @throws PaymentDeclinedException if the provider declines the payment
+     * @throws InterruptedException if interrupted while waiting for the provider
+     */
+    public String confirmPayment(Order order) throws InterruptedException {
+        log.info("💳 Confirming payment {} for order {}", order.paymentId(), order.id());
+        Thread.sleep(simulatedDelay.toMillis());
+        if (ThreadLocalRandom.current().nextDouble() < simulatedFailureRate) {
+            throw new PaymentDeclinedException("Payment " + order.paymentId() + " declined for order " + order.id());
+        }
+        String confirmation = "pay-conf-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("✅ Payment for order {} confirmed: {}", order.id(), confirmation);
+        return confirmation;
+    }
+
+    /**
+     * Give back a captured payment, e.g. for an order cancelled after its payment went through.
+     */
+    public void refund(Order order, String paymentConfirmation) {
+        log.info("↩️ Refunded payment {} for order {}", paymentConfirmation, order.id());
+    }
+
+    public Duration getSimulatedDelay() {
+        return simulatedDelay;
+    }
+
+    public void setSimulatedDelay(Duration simulatedDelay) {
+        this.simulatedDelay = simulatedDelay;
+    }
+
+    public double getSimulatedFailureRate() {
+        return simulatedFailureRate;
+    }
+
+    /**
+     * Share of payments the simulated provider declines (0 to 1).
+     */
+    public void setSimulatedFailureRate(double simulatedFailureRate) {
+        this.simulatedFailureRate = Math.clamp(simulatedFailureRate, 0.0, 1.0);
+    }
+}
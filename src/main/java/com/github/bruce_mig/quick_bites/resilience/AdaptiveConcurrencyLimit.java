@@ -0,0 +1,76 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Latency-driven alternative to {@link org.springframework.resilience.annotation.ConcurrencyLimit}.
+ *
+ * Instead of a fixed number of permits, the limit is continuously re-estimated by an
+ * {@link AdaptiveConcurrencyLimiter} from observed call latency: it grows while the downstream
+ * answers as fast as usual and shrinks as soon as latency climbs (i.e. requests start queueing
+ * on the other side). Callers over the current limit wait for a permit, optionally bounded by
+ * {@link #maxWaiting()} and {@link #maxWaitMillis()} and ordered by {@link #lane()}.
+ *
+ * With a {@link #key()}, every distinct key gets its own limiter (a bulkhead), so one slow
+ * downstream cannot use up the permits of the others.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdaptiveConcurrencyLimit {
+
+    /**
+     * Limiter name used for metrics; defaults to the qualified method name.
+     * Methods sharing a name share one limiter.
+     */
+    String name() default "";
+
+    /**
+     * SpEL expression over the method arguments (e.g. {@code "#order.restaurantId()"}) selecting the
+     * bulkhead for a call. Empty means one limiter for all calls.
+     */
+    String key() default "";
+
+    int initialLimit() default 10;
+
+    int minLimit() default 1;
+
+    int maxLimit() default 200;
+
+    /**
+     * Callers allowed to wait for a permit per limiter; beyond that calls fail fast with
+     * {@link BulkheadFullException}.
+     */
+    int maxWaiting() default Integer.MAX_VALUE;
+
+    /**
+     * Longest a caller waits for a permit before failing with {@link PermitWaitTimeoutException};
+     * negative for no limit.
+     */
+    long maxWaitMillis() default -1;
+
+    /**
+     * Number of priority lanes for waiting callers.
+     */
+    int lanes() default 1;
+
+    /**
+     * SpEL expression over the method arguments returning the caller's lane (0 is served first,
+     * out-of-range values are clamped). Empty means lane 0.
+     */
+    String lane() default "";
+
+    /**
+     * Cap on calls in flight across all keys; {@code 0} for none.
+     */
+    int maxConcurrentTotal() default 0;
+
+    /**
+     * Per-key limiters unused for this long are evicted.
+     */
+    long idleTimeoutSeconds() default 300;
+}
@@ -0,0 +1,164 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proxies beans with {@link AdaptiveConcurrencyLimit} methods, mirroring how Spring's own
+ * {@code ConcurrencyLimitBeanPostProcessor} handles {@code @ConcurrencyLimit}.
+ *
+ * Limiters live in the {@link ConcurrencyLimiterRegistry} bean. They are registered as soon as a bean is
+ * proxied (so their state can be published before the first call); the registry is looked up at that
+ * point rather than injected, so this post-processor does not force early initialization of regular beans.
+ */
+@SuppressWarnings("serial")
+public class AdaptiveConcurrencyLimitBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final AdaptiveConcurrencyLimitInterceptor interceptor = new AdaptiveConcurrencyLimitInterceptor();
+    private BeanFactory beanFactory;
+
+    public AdaptiveConcurrencyLimitBeanPostProcessor() {
+        this.beforeExistingAdvisors = true;
+
+        Pointcut cpc = new AnnotationMatchingPointcut(AdaptiveConcurrencyLimit.class, true);
+        Pointcut mpc = new AnnotationMatchingPointcut(null, AdaptiveConcurrencyLimit.class, true);
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(cpc).union(mpc),
+                interceptor);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Object result = super.postProcessAfterInitialization(bean, beanName);
+        // Eligible beans were either proxied here or advised on an existing proxy
+        if (isEligible(bean, beanName)) {
+            Class<?> targetClass = ClassUtils.getUserClass(bean);
+            boolean classLevel = AnnotatedElementUtils.hasAnnotation(targetClass, AdaptiveConcurrencyLimit.class);
+            ReflectionUtils.doWithMethods(targetClass,
+                    method -> interceptor.register(method, targetClass),
+                    method -> !method.isBridge() && Modifier.isPublic(method.getModifiers())
+                            && (classLevel || AnnotatedElementUtils.hasAnnotation(method, AdaptiveConcurrencyLimit.class)));
+        }
+        return result;
+    }
+
+    private class AdaptiveConcurrencyLimitInterceptor implements MethodInterceptor {
+
+        private final Map<Method, Binding> bindings = new ConcurrentHashMap<>();
+        private final SpelExpressionParser parser = new SpelExpressionParser();
+        private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object target = invocation.getThis();
+            Method method = invocation.getMethod();
+            Class<?> targetClass = (target != null ? target.getClass() : method.getDeclaringClass());
+            Binding binding = bindingFor(method, targetClass);
+
+            Object[] arguments = invocation.getArguments();
+            KeyedConcurrencyLimiter.Permit permit = binding.limiter().acquire(
+                    binding.keyFor(arguments), binding.laneFor(arguments), binding.maxWaitNanos());
+            boolean success = false;
+            try {
+                Object result = invocation.proceed();
+                success = true;
+                return result;
+            } finally {
+                binding.limiter().release(permit, success);
+            }
+        }
+
+        void register(Method method, Class<?> targetClass) {
+            bindingFor(method, targetClass);
+        }
+
+        private Binding bindingFor(Method method, Class<?> targetClass) {
+            Binding binding = bindings.get(method);
+            if (binding == null) {
+                binding = bindings.computeIfAbsent(method, key -> createBinding(method, targetClass));
+            }
+            return binding;
+        }
+
+        private Binding createBinding(Method method, Class<?> targetClass) {
+            AdaptiveConcurrencyLimit annotation = AnnotatedElementUtils.getMergedAnnotation(method, AdaptiveConcurrencyLimit.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.getMergedAnnotation(targetClass, AdaptiveConcurrencyLimit.class);
+            }
+            if (annotation == null) {
+                throw new IllegalStateException("No @AdaptiveConcurrencyLimit annotation found on " + method);
+            }
+            AdaptiveConcurrencyLimit config = annotation;
+            String name = StringUtils.hasText(config.name()) ? config.name()
+                    : ClassUtils.getQualifiedMethodName(method, targetClass);
+            KeyedConcurrencyLimiter limiter = beanFactory.getBean(ConcurrencyLimiterRegistry.class).getOrCreate(name,
+                    () -> new KeyedConcurrencyLimiter(name,
+                            key -> new AdaptiveConcurrencyLimiter(key, config.initialLimit(), config.minLimit(),
+                                    config.maxLimit(), config.maxWaiting(), config.lanes()),
+                            config.maxConcurrentTotal(),
+                            Duration.ofSeconds(config.idleTimeoutSeconds())));
+            Expression keyExpression = StringUtils.hasText(config.key()) ? parser.parseExpression(config.key()) : null;
+            Expression laneExpression = StringUtils.hasText(config.lane()) ? parser.parseExpression(config.lane()) : null;
+            long maxWaitNanos = config.maxWaitMillis() < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(config.maxWaitMillis());
+            return new Binding(limiter, name, keyExpression, laneExpression, maxWaitNanos, method, parameterNameDiscoverer);
+        }
+    }
+
+    private record Binding(
+            KeyedConcurrencyLimiter limiter,
+            String name,
+            Expression keyExpression,
+            Expression laneExpression,
+            long maxWaitNanos,
+            Method method,
+            ParameterNameDiscoverer parameterNameDiscoverer
+    ) {
+
+        String keyFor(Object[] arguments) {
+            if (keyExpression == null) {
+                return name;
+            }
+            return String.valueOf(keyExpression.getValue(contextFor(arguments)));
+        }
+
+        int laneFor(Object[] arguments) {
+            if (laneExpression == null) {
+                return 0;
+            }
+            Integer lane = laneExpression.getValue(contextFor(arguments), Integer.class);
+            return lane == null ? 0 : lane;
+        }
+
+        private MethodBasedEvaluationContext contextFor(Object[] arguments) {
+            return new MethodBasedEvaluationContext(null, method, arguments, parameterNameDiscoverer);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit follows observed latency (gradient algorithm, in the spirit of
+ * Netflix's Gradient2).
+ *
+ * A long-term moving average of latency serves as the "no load" baseline. Each completed call
+ * compares its latency to that baseline: {@code gradient = clamp(tolerance * longRtt / rtt, 0.5, 1)}.
+ * The new limit is {@code limit * gradient + sqrt(limit)}, smoothed - so while latency stays near
+ * the baseline the limit creeps up, and once calls slow down (the downstream is queueing) it is cut
+ * back proportionally. Failures are treated as a congestion signal and shrink the limit by 10%.
+ *
+ * Callers over the limit queue in priority lanes (lane 0 first). The queue is bounded and waiting
+ * for a permit can be given a deadline; either way an overloaded limiter sheds calls fast with a
+ * {@link LoadSheddingException} instead of letting latency grow with the backlog.
+ *
+ * Usable as a plain wrapper via {@link #execute(Callable)} or declaratively via {@link AdaptiveConcurrencyLimit}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double TOLERANCE = 1.2;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_DECAY = 0.01;
+    private static final double FAILURE_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxWaiting;
+    private final int[] waitingByLane;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    // Guarded by lock
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long lastRttNanos;
+    private int inFlight;
+    private int waiting;
+    private long completed;
+    private long failed;
+    private long rejected;
+    private long timedOut;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this(name, initialLimit, minLimit, maxLimit, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * @param maxWaiting how many callers may queue for a permit; beyond that {@link #acquire()}
+     *                   fails fast with {@link BulkheadFullException}
+     * @param lanes      number of priority lanes for waiting callers
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      int maxWaiting, int lanes) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaiting = maxWaiting;
+        this.waitingByLane = new int[Math.max(1, lanes)];
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public <T> T execute(Callable<T> callable) throws Exception {
+        acquire();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = callable.call();
+            success = true;
+            return result;
+        } finally {
+            release(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Block until the number of in-flight calls is below the current limit.
+     *
+     * @throws BulkheadFullException if the limit is reached and the wait queue is already full
+     */
+    public void acquire() throws InterruptedException {
+        acquire(0, -1);
+    }
+
+    /**
+     * Block until the number of in-flight calls is below the current limit and no caller in a
+     * higher-priority lane is waiting.
+     *
+     * @param lane         priority lane, 0 being served first
+     * @param maxWaitNanos how long to wait for a permit, negative for no limit
+     * @throws BulkheadFullException      if the limit is reached and the wait queue is already full
+     * @throws PermitWaitTimeoutException if no permit became available within {@code maxWaitNanos}
+     */
+    public void acquire(int lane, long maxWaitNanos) throws InterruptedException {
+        int myLane = Math.clamp(lane, 0, waitingByLane.length - 1);
+        lock.lockInterruptibly();
+        try {
+            // Fast path: capacity is free and nobody of the same or higher priority is queued ahead of us
+            if (inFlight < currentLimit() && !hasWaitersUpTo(myLane)) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= maxWaiting) {
+                rejected++;
+                throw new BulkheadFullException("Concurrency limit '%s' reached (%d in flight, %d waiting)"
+                        .formatted(name, inFlight, waiting));
+            }
+            waiting++;
+            waitingByLane[myLane]++;
+            long remaining = maxWaitNanos;
+            try {
+                while (inFlight >= currentLimit() || hasWaitersUpTo(myLane - 1)) {
+                    if (maxWaitNanos < 0) {
+                        permitAvailable.await();
+                    } else if (remaining <= 0) {
+                        timedOut++;
+                        throw new PermitWaitTimeoutException("No permit from concurrency limit '%s' within %dms"
+                                .formatted(name, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)));
+                    } else {
+                        remaining = permitAvailable.awaitNanos(remaining);
+                    }
+                }
+                inFlight++;
+            } finally {
+                waiting--;
+                waitingByLane[myLane]--;
+                // Leaving the queue may unblock lower-priority waiters
+                if (inFlight < currentLimit()) {
+                    permitAvailable.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasWaitersUpTo(int lane) {
+        for (int i = 0; i <= lane; i++) {
+            if (waitingByLane[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return a permit and feed the call's latency into the limit estimate.
+     */
+    public void release(long rttNanos, boolean success) {
+        lock.lock();
+        try {
+            int inFlightAtCompletion = inFlight;
+            inFlight--;
+            int previousLimit = currentLimit();
+            if (success) {
+                completed++;
+                onSample(rttNanos, inFlightAtCompletion);
+            } else {
+                failed++;
+                estimatedLimit = Math.max(minLimit, estimatedLimit * FAILURE_BACKOFF);
+            }
+            int newLimit = currentLimit();
+            if (newLimit != previousLimit) {
+                log.info("📈 Concurrency limit '{}': {} → {} (rtt {}ms, baseline {}ms, in flight {}, waiting {})",
+                        name, previousLimit, newLimit,
+                        TimeUnit.NANOSECONDS.toMillis(rttNanos),
+                        TimeUnit.NANOSECONDS.toMillis((long) longRttNanos),
+                        inFlight, waiting);
+            }
+            // A raised limit may admit several waiters at once
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a permit without recording a sample, e.g. when the caller never got to run.
+     */
+    void abandon() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtCompletion) {
+        lastRttNanos = rttNanos;
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos = longRttNanos * (1 - LONG_RTT_DECAY) + rttNanos * LONG_RTT_DECAY;
+        }
+        // Baseline drifted far above current latency (e.g. after a slow period) - snap it back down
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos = rttNanos * 2;
+        }
+
+        // Don't grow the limit while the caller isn't even using half of it
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(TOLERANCE * longRttNanos / rttNanos, 0.5, 1.0);
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+    }
+
+    private int currentLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(name, currentLimit(), minLimit, maxLimit, inFlight, waiting,
+                    TimeUnit.NANOSECONDS.toMillis(lastRttNanos),
+                    TimeUnit.NANOSECONDS.toMillis((long) longRttNanos),
+                    completed, failed, rejected, timedOut);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Snapshot(
+            String name,
+            int limit,
+            int minLimit,
+            int maxLimit,
+            int inFlight,
+            int queueDepth,
+            long lastRttMillis,
+            long baselineRttMillis,
+            long completed,
+            long failed,
+            long rejected,
+            long timedOut
+    ) {
+    }
+}
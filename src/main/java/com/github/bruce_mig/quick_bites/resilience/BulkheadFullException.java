@@ -0,0 +1,7 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+public class BulkheadFullException extends LoadSheddingException {
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
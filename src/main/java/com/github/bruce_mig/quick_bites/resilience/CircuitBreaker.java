@@ -0,0 +1,58 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guards a method with a {@link SlidingWindowCircuitBreaker}.
+ *
+ * Meant to sit inside {@link org.springframework.resilience.annotation.Retryable}: every attempt is
+ * recorded separately, and once the circuit opens further attempts fail immediately with
+ * {@link CircuitBreakerOpenException}. Leave that exception out of the retry {@code includes} and the
+ * whole retry loop ends on the spot instead of backing off against a downstream that is known to be down.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CircuitBreaker {
+
+    /**
+     * Breaker name used for metrics; defaults to the qualified method name.
+     * Methods sharing a name share one breaker.
+     */
+    String name() default "";
+
+    /**
+     * Number of most recent calls the failure rate is computed over.
+     */
+    int slidingWindowSize() default 20;
+
+    /**
+     * Calls needed in the window before the failure rate can open the circuit.
+     */
+    int minimumCalls() default 10;
+
+    /**
+     * Failure rate (percent) at or above which the circuit opens.
+     */
+    int failureRateThreshold() default 50;
+
+    /**
+     * How long the circuit stays open before letting probe calls through.
+     */
+    long openDurationMillis() default 10_000;
+
+    /**
+     * Probe calls let through while half-open; the circuit closes again if their failure rate is
+     * below {@link #failureRateThreshold()}.
+     */
+    int probeCalls() default 3;
+
+    /**
+     * Exceptions counted as failures; empty means all. Other exceptions count as successful calls.
+     */
+    Class<? extends Throwable>[] includes() default {};
+}
@@ -0,0 +1,144 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxies beans with {@link CircuitBreaker} methods.
+ *
+ * Unlike the {@code @Retryable} and {@code @ConcurrencyLimit} post-processors this one does not put its
+ * advisor in front of existing ones, so on a method that is also {@code @Retryable} the breaker ends
+ * up inside the retry loop and sees every attempt.
+ *
+ * Breakers live in the {@link CircuitBreakerRegistry} bean and are registered as soon as a bean is proxied.
+ */
+@SuppressWarnings("serial")
+public class CircuitBreakerBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor();
+    private BeanFactory beanFactory;
+
+    public CircuitBreakerBeanPostProcessor() {
+        Pointcut cpc = new AnnotationMatchingPointcut(CircuitBreaker.class, true);
+        Pointcut mpc = new AnnotationMatchingPointcut(null, CircuitBreaker.class, true);
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(cpc).union(mpc),
+                interceptor);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Object result = super.postProcessAfterInitialization(bean, beanName);
+        // Eligible beans were either proxied here or advised on an existing proxy
+        if (isEligible(bean, beanName)) {
+            Class<?> targetClass = ClassUtils.getUserClass(bean);
+            boolean classLevel = AnnotatedElementUtils.hasAnnotation(targetClass, CircuitBreaker.class);
+            ReflectionUtils.doWithMethods(targetClass,
+                    method -> interceptor.register(method, targetClass),
+                    method -> !method.isBridge() && Modifier.isPublic(method.getModifiers())
+                            && (classLevel || AnnotatedElementUtils.hasAnnotation(method, CircuitBreaker.class)));
+        }
+        return result;
+    }
+
+    private class CircuitBreakerInterceptor implements MethodInterceptor {
+
+        private final Map<Method, Binding> bindings = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object target = invocation.getThis();
+            Method method = invocation.getMethod();
+            Class<?> targetClass = (target != null ? target.getClass() : method.getDeclaringClass());
+            Binding binding = bindingFor(method, targetClass);
+
+            long epoch = binding.breaker().acquirePermission();
+            try {
+                Object result = invocation.proceed();
+                if (Thread.currentThread().isInterrupted()) {
+                    binding.breaker().onCancelled(epoch);
+                } else {
+                    binding.breaker().onSuccess(epoch);
+                }
+                return result;
+            } catch (Throwable ex) {
+                // A call whose thread was interrupted was cancelled by its caller, and says nothing about the downstream
+                if (Thread.currentThread().isInterrupted()) {
+                    binding.breaker().onCancelled(epoch);
+                } else if (binding.isFailure(ex)) {
+                    binding.breaker().onFailure(epoch);
+                } else {
+                    binding.breaker().onSuccess(epoch);
+                }
+                throw ex;
+            }
+        }
+
+        void register(Method method, Class<?> targetClass) {
+            bindingFor(method, targetClass);
+        }
+
+        private Binding bindingFor(Method method, Class<?> targetClass) {
+            Binding binding = bindings.get(method);
+            if (binding == null) {
+                binding = bindings.computeIfAbsent(method, key -> createBinding(method, targetClass));
+            }
+            return binding;
+        }
+
+        private Binding createBinding(Method method, Class<?> targetClass) {
+            CircuitBreaker annotation = AnnotatedElementUtils.getMergedAnnotation(method, CircuitBreaker.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.getMergedAnnotation(targetClass, CircuitBreaker.class);
+            }
+            if (annotation == null) {
+                throw new IllegalStateException("No @CircuitBreaker annotation found on " + method);
+            }
+            CircuitBreaker config = annotation;
+            String name = StringUtils.hasText(config.name()) ? config.name()
+                    : ClassUtils.getQualifiedMethodName(method, targetClass);
+            SlidingWindowCircuitBreaker breaker = beanFactory.getBean(CircuitBreakerRegistry.class).getOrCreate(name,
+                    () -> new SlidingWindowCircuitBreaker(name, config.slidingWindowSize(), config.minimumCalls(),
+                            config.failureRateThreshold(), Duration.ofMillis(config.openDurationMillis()),
+                            config.probeCalls()));
+            return new Binding(breaker, config.includes());
+        }
+    }
+
+    private record Binding(SlidingWindowCircuitBreaker breaker, Class<? extends Throwable>[] includes) {
+
+        boolean isFailure(Throwable ex) {
+            if (includes.length == 0) {
+                return true;
+            }
+            for (Class<? extends Throwable> include : includes) {
+                if (include.isInstance(ex)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
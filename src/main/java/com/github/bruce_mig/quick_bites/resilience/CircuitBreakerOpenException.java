@@ -0,0 +1,20 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.time.Duration;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CircuitBreakerOpenException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time until the circuit lets probe calls through again.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
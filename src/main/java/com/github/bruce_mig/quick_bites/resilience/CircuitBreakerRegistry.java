@@ -0,0 +1,30 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named {@link SlidingWindowCircuitBreaker}s, shared between the {@link CircuitBreaker}
+ * interceptor and anything that wants to publish their state.
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    private final Map<String, SlidingWindowCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public SlidingWindowCircuitBreaker getOrCreate(String name, Supplier<SlidingWindowCircuitBreaker> factory) {
+        return breakers.computeIfAbsent(name, key -> factory.get());
+    }
+
+    public SlidingWindowCircuitBreaker get(String name) {
+        return breakers.get(name);
+    }
+
+    public Collection<SlidingWindowCircuitBreaker> all() {
+        return breakers.values();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named {@link KeyedConcurrencyLimiter}s, shared between the {@link AdaptiveConcurrencyLimit}
+ * interceptor and anything that wants to publish their state.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<String, KeyedConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public KeyedConcurrencyLimiter getOrCreate(String name, Supplier<KeyedConcurrencyLimiter> factory) {
+        return limiters.computeIfAbsent(name, key -> factory.get());
+    }
+
+    public KeyedConcurrencyLimiter get(String name) {
+        return limiters.get(name);
+    }
+
+    public Collection<KeyedConcurrencyLimiter> all() {
+        return limiters.values();
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bulkheads: one {@link AdaptiveConcurrencyLimiter} per key (e.g. per restaurant), each with its own
+ * permits and bounded wait queue, plus an optional global cap on calls in flight across all keys.
+ *
+ * A slow key only shrinks its own limit and fills its own queue - callers for other keys are never
+ * stuck behind it. The global cap is taken only after the key's permit, so callers queueing for a
+ * busy key never hold a global permit while they wait.
+ *
+ * Compartments for keys that have been idle longer than the idle timeout are evicted lazily. A
+ * compartment counts the callers using it and is only evicted after being retired at a count of zero,
+ * so a caller can never end up in a compartment that is no longer in the map - there is exactly one
+ * limiter per key at any time.
+ */
+public class KeyedConcurrencyLimiter {
+
+    private final String name;
+    private final Function<String, AdaptiveConcurrencyLimiter> compartmentFactory;
+    private final Semaphore globalPermits;
+    private final int maxConcurrentTotal;
+    private final long idleTimeoutNanos;
+
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder globalTimeouts = new LongAdder();
+
+    /**
+     * @param maxConcurrentTotal global cap across all keys, or {@code <= 0} for none
+     */
+    public KeyedConcurrencyLimiter(String name, Function<String, AdaptiveConcurrencyLimiter> compartmentFactory,
+                                   int maxConcurrentTotal, Duration idleTimeout) {
+        this.name = name;
+        this.compartmentFactory = compartmentFactory;
+        this.maxConcurrentTotal = maxConcurrentTotal;
+        this.globalPermits = maxConcurrentTotal > 0 ? new Semaphore(maxConcurrentTotal, true) : null;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Take a permit from the key's compartment, then from the global cap.
+     *
+     * @throws BulkheadFullException if the key's wait queue is full
+     */
+    public Permit acquire(String key) throws InterruptedException {
+        return acquire(key, 0, -1);
+    }
+
+    /**
+     * Take a permit from the key's compartment, then from the global cap, waiting at most
+     * {@code maxWaitNanos} in total for both.
+     *
+     * @param lane         priority lane within the key's compartment, 0 being served first
+     * @param maxWaitNanos how long to wait for both permits, negative for no limit
+     * @throws BulkheadFullException      if the key's wait queue is full
+     * @throws PermitWaitTimeoutException if the permits could not be taken within {@code maxWaitNanos}
+     */
+    public Permit acquire(String key, int lane, long maxWaitNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        evictIdleCompartments();
+        Compartment compartment = retainCompartment(key);
+        boolean acquired = false;
+        try {
+            acquirePermits(compartment, lane, maxWaitNanos, start);
+            acquired = true;
+        } finally {
+            if (!acquired) {
+                compartment.unretain();
+            }
+        }
+        return new Permit(compartment, System.nanoTime());
+    }
+
+    private void acquirePermits(Compartment compartment, int lane, long maxWaitNanos, long start)
+            throws InterruptedException {
+        compartment.limiter().acquire(lane, maxWaitNanos);
+        if (globalPermits != null) {
+            boolean acquired = false;
+            try {
+                if (maxWaitNanos < 0) {
+                    globalPermits.acquire();
+                    acquired = true;
+                } else {
+                    long remaining = maxWaitNanos - (System.nanoTime() - start);
+                    acquired = globalPermits.tryAcquire(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                }
+            } finally {
+                if (!acquired) {
+                    compartment.limiter().abandon();
+                }
+            }
+            if (!acquired) {
+                globalTimeouts.increment();
+                throw new PermitWaitTimeoutException("No global permit from concurrency limit '%s' within %dms"
+                        .formatted(name, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)));
+            }
+        }
+    }
+
+    public void release(Permit permit, boolean success) {
+        if (globalPermits != null) {
+            globalPermits.release();
+        }
+        permit.compartment().limiter().release(System.nanoTime() - permit.startNanos(), success);
+        permit.compartment().unretain();
+    }
+
+    // The key's live compartment, counted as in use until unretained; a retired one is already leaving the map
+    private Compartment retainCompartment(String key) {
+        while (true) {
+            Compartment compartment = compartments.computeIfAbsent(key,
+                    k -> new Compartment(compartmentFactory.apply(k)));
+            if (compartment.retain()) {
+                return compartment;
+            }
+            compartments.remove(key, compartment);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public AdaptiveConcurrencyLimiter.Snapshot snapshot(String key) {
+        Compartment compartment = compartments.get(key);
+        return compartment == null ? null : compartment.limiter().snapshot();
+    }
+
+    public Snapshot snapshot() {
+        List<AdaptiveConcurrencyLimiter.Snapshot> perKey = compartments.values().stream()
+                .map(compartment -> compartment.limiter().snapshot())
+                .sorted(Comparator.comparing(AdaptiveConcurrencyLimiter.Snapshot::name))
+                .toList();
+        int globalInFlight = globalPermits == null
+                ? perKey.stream().mapToInt(AdaptiveConcurrencyLimiter.Snapshot::inFlight).sum()
+                : maxConcurrentTotal - globalPermits.availablePermits();
+        return new Snapshot(name, maxConcurrentTotal, globalInFlight,
+                globalPermits == null ? 0 : globalPermits.getQueueLength(), globalTimeouts.sum(), perKey);
+    }
+
+    // At most one sweep per idle timeout; compartments with callers in them are never evicted
+    private void evictIdleCompartments() {
+        long now = System.nanoTime();
+        long last = lastEvictionNanos.get();
+        if (now - last < idleTimeoutNanos || !lastEvictionNanos.compareAndSet(last, now)) {
+            return;
+        }
+        compartments.forEach((key, compartment) -> {
+            if (now - compartment.lastUsedNanos() > idleTimeoutNanos && compartment.retire()) {
+                compartments.remove(key, compartment);
+            }
+        });
+    }
+
+    public record Permit(Compartment compartment, long startNanos) {
+    }
+
+    static final class Compartment {
+
+        private static final int RETIRED = -1;
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        // Callers holding or waiting for a permit here, or RETIRED once evicted
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private Compartment(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        AdaptiveConcurrencyLimiter limiter() {
+            return limiter;
+        }
+
+        long lastUsedNanos() {
+            return lastUsedNanos;
+        }
+
+        boolean retain() {
+            int current;
+            do {
+                current = users.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!users.compareAndSet(current, current + 1));
+            lastUsedNanos = System.nanoTime();
+            return true;
+        }
+
+        void unretain() {
+            lastUsedNanos = System.nanoTime();
+            users.decrementAndGet();
+        }
+
+        // Only an unused compartment can be retired, and a retired one is never used again
+        boolean retire() {
+            return users.compareAndSet(0, RETIRED);
+        }
+    }
+
+    public record Snapshot(
+            String name,
+            int maxConcurrentTotal,
+            int inFlightTotal,
+            int waitingForGlobalPermit,
+            long globalPermitTimeouts,
+            List<AdaptiveConcurrencyLimiter.Snapshot> compartments
+    ) {
+    }
+}
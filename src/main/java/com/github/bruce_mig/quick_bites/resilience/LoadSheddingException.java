@@ -0,0 +1,11 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+/**
+ * A call was shed by a concurrency limiter before it reached the protected method - either its wait
+ * queue was full or it waited longer than allowed for a permit. Nothing was sent downstream.
+ */
+public abstract class LoadSheddingException extends RuntimeException {
+    protected LoadSheddingException(String message) {
+        super(message);
+    }
+}
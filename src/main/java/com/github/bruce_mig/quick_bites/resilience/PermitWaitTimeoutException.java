@@ -0,0 +1,7 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+public class PermitWaitTimeoutException extends LoadSheddingException {
+    public PermitWaitTimeoutException(String message) {
+        super(message);
+    }
+}
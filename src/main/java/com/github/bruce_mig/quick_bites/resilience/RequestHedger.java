@@ -0,0 +1,188 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import com.github.bruce_mig.quick_bites.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hedged requests: if an attempt has not answered within the hedge delay - the observed p95 of
+ * successful attempts - a second attempt is started in parallel, and the first success wins while
+ * the loser is cancelled (interrupted). An attempt that fails outright is hedged straight away
+ * rather than after the delay. Attempts should give up when interrupted; a cancelled attempt is never
+ * counted towards the hedge delay.
+ *
+ * Hedges are paid for from a token bucket that every primary call tops up by {@code budgetRatio}
+ * tokens, and each call hedges at most once, so hedging can never more than double the load on the
+ * downstream. A hedge is an extra attempt like a retry, so it also needs the {@code retryPermit} - e.g.
+ * the downstream's {@link RetryBudget} - and while retries are being refused no hedges are sent either.
+ * Attempts run on virtual threads.
+ */
+public class RequestHedger implements AutoCloseable {
+
+    // Successful attempts needed before the observed percentile replaces the initial delay
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_TOKENS = 10.0;
+
+    private final String name;
+    private final double hedgePercentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final BooleanSupplier retryPermit;
+
+    private final ExecutorService attempts = Executors.newVirtualThreadPerTaskExecutor();
+    private final LatencyHistogram attemptMicros = new LatencyHistogram();
+
+    // Guarded by this
+    private double tokens = MAX_TOKENS;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgesAfterDelay = new LongAdder();
+    private final LongAdder hedgesAfterFailure = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder hedgesDenied = new LongAdder();
+
+    /**
+     * @param hedgePercentile percentile of successful attempt latency used as the hedge delay
+     * @param initialDelay    hedge delay until enough attempts have been observed
+     * @param minDelay        floor for the hedge delay
+     * @param budgetRatio     hedges allowed per primary call, at most 1
+     * @param retryPermit     asked before every hedge the hedger's own budget allows; {@code false} denies it
+     */
+    public RequestHedger(String name, double hedgePercentile, Duration initialDelay, Duration minDelay,
+                         double budgetRatio, BooleanSupplier retryPermit) {
+        this.name = name;
+        this.hedgePercentile = hedgePercentile;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = Math.clamp(budgetRatio, 0.0, 1.0);
+        this.retryPermit = retryPermit;
+    }
+
+    /**
+     * Run {@code attempt}, hedging it once if it is slow or fails and the budget allows.
+     *
+     * @throws Exception the last attempt's exception if no attempt succeeded
+     */
+    public <T> T execute(Callable<T> attempt) throws Exception {
+        calls.increment();
+        deposit();
+        CompletionService<T> completion = new ExecutorCompletionService<>(attempts);
+        List<Future<T>> started = new ArrayList<>(2);
+        started.add(completion.submit(timed(attempt)));
+        int pending = 1;
+        boolean mayHedge = true;
+        Throwable lastFailure = null;
+        try {
+            while (pending > 0) {
+                Future<T> done = mayHedge
+                        ? completion.poll(hedgeDelayNanos(), TimeUnit.NANOSECONDS)
+                        : completion.take();
+                if (done == null) {
+                    // Slow attempt: hedge it if we can afford to, otherwise just keep waiting
+                    mayHedge = false;
+                    if (tryWithdraw()) {
+                        hedgesAfterDelay.increment();
+                        started.add(completion.submit(timed(attempt)));
+                        pending++;
+                    }
+                    continue;
+                }
+                pending--;
+                try {
+                    T result = done.get();
+                    if (done != started.getFirst()) {
+                        hedgeWins.increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause();
+                }
+                if (pending == 0 && mayHedge) {
+                    mayHedge = false;
+                    if (tryWithdraw()) {
+                        hedgesAfterFailure.increment();
+                        started.add(completion.submit(timed(attempt)));
+                        pending++;
+                    }
+                }
+            }
+        } finally {
+            started.forEach(future -> future.cancel(true));
+        }
+        if (lastFailure instanceof Exception exception) {
+            throw exception;
+        }
+        throw (Error) lastFailure;
+    }
+
+    public Snapshot snapshot() {
+        double available;
+        synchronized (this) {
+            available = tokens;
+        }
+        return new Snapshot(name, calls.sum(), hedgesAfterDelay.sum(), hedgesAfterFailure.sum(), hedgeWins.sum(),
+                hedgesDenied.sum(), available, TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos()));
+    }
+
+    @Override
+    public void close() {
+        attempts.shutdownNow();
+    }
+
+    private long hedgeDelayNanos() {
+        if (attemptMicros.count() < MIN_SAMPLES) {
+            return initialDelayNanos;
+        }
+        return Math.max(minDelayNanos, TimeUnit.MICROSECONDS.toNanos(attemptMicros.percentile(hedgePercentile)));
+    }
+
+    // Only attempts that finished without being cancelled are timed - a loser's latency is cut short
+    private <T> Callable<T> timed(Callable<T> attempt) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = attempt.call();
+            if (!Thread.currentThread().isInterrupted()) {
+                attemptMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+            return result;
+        };
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized boolean tryWithdraw() {
+        if (tokens >= 1.0 && retryPermit.getAsBoolean()) {
+            tokens -= 1.0;
+            return true;
+        }
+        hedgesDenied.increment();
+        return false;
+    }
+
+    public record Snapshot(
+            String name,
+            long calls,
+            long hedgesAfterDelay,
+            long hedgesAfterFailure,
+            long hedgeWins,
+            long hedgesDenied,
+            double budgetTokens,
+            long hedgeDelayMillis
+    ) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Registers the post-processors for this project's own resilience annotations, next to the ones
+ * {@code @EnableResilientMethods} registers for Spring's built-in {@code @Retryable} and {@code @ConcurrencyLimit}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ResilienceConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static AdaptiveConcurrencyLimitBeanPostProcessor adaptiveConcurrencyLimitAdvisor() {
+        return new AdaptiveConcurrencyLimitBeanPostProcessor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static CircuitBreakerBeanPostProcessor circuitBreakerAdvisor() {
+        return new CircuitBreakerBeanPostProcessor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static RetryBudgetBeanPostProcessor retryBudgetAdvisor() {
+        return new RetryBudgetBeanPostProcessor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static RetryTelemetryBeanPostProcessor retryTelemetryCallAdvisor() {
+        return RetryTelemetryBeanPostProcessor.aroundRetries();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static RetryTelemetryBeanPostProcessor retryTelemetryAttemptAdvisor() {
+        return RetryTelemetryBeanPostProcessor.insideRetries();
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * State of every retry budget, retry operation, circuit breaker and concurrency limiter in one place.
+ */
+@RestController
+@RequestMapping("/api/resilience")
+public class ResilienceController {
+
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final RetryTelemetry retryTelemetry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+
+    public ResilienceController(RetryBudgetRegistry retryBudgetRegistry,
+                                RetryTelemetry retryTelemetry,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                ConcurrencyLimiterRegistry concurrencyLimiterRegistry) {
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.retryTelemetry = retryTelemetry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+    }
+
+    @GetMapping("/retry-budgets")
+    public List<RetryBudget.Snapshot> retryBudgets() {
+        return retryBudgetRegistry.snapshot();
+    }
+
+    /**
+     * Attempts per call and end-to-end latency (microseconds) per retryable operation.
+     */
+    @GetMapping("/retries")
+    public List<RetryTelemetry.Snapshot> retries() {
+        return retryTelemetry.snapshot();
+    }
+
+    @GetMapping("/circuit-breakers")
+    public List<SlidingWindowCircuitBreaker.Snapshot> circuitBreakers() {
+        return circuitBreakerRegistry.all().stream()
+                .map(SlidingWindowCircuitBreaker::snapshot)
+                .sorted(Comparator.comparing(SlidingWindowCircuitBreaker.Snapshot::name))
+                .toList();
+    }
+
+    @GetMapping("/concurrency-limiters")
+    public List<KeyedConcurrencyLimiter.Snapshot> concurrencyLimiters() {
+        return concurrencyLimiterRegistry.all().stream()
+                .map(KeyedConcurrencyLimiter::snapshot)
+                .sorted(Comparator.comparing(KeyedConcurrencyLimiter.Snapshot::name))
+                .toList();
+    }
+}
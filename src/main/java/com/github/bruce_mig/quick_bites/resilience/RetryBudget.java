@@ -0,0 +1,126 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.core.retry.Retryable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket retry budget for one downstream, shared by every call site that retries against it.
+ *
+ * Every attempt deposits {@code ratio} tokens and every retry has to withdraw {@code 1 + ratio}
+ * (its own deposit included), so over time retries stay within {@code ratio} × first attempts - e.g.
+ * 0.2 allows one retry per five calls. The bucket is capped at {@code maxTokens}, which doubles as the
+ * reserve that lets a quiet service still retry the odd failure. Once the bucket is empty retries are
+ * refused and callers fail fast instead of multiplying traffic against a struggling downstream.
+ *
+ * The retry check happens in the retry policy's predicate, which Spring consults before it knows
+ * whether the back-off allows another attempt, so the final failure of a call that runs out of
+ * retries is charged as well - the budget errs on the side of fewer retries.
+ */
+public class RetryBudget {
+
+    private final String name;
+    private final double ratio;
+    private final double maxTokens;
+
+    // Guarded by this
+    private double tokens;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    public RetryBudget(String name, double ratio, double maxTokens) {
+        this.name = name;
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public void recordAttempt(String operation) {
+        stats(operation).attempts.increment();
+        synchronized (this) {
+            tokens = Math.min(maxTokens, tokens + ratio);
+        }
+    }
+
+    /**
+     * @return {@code true} if the operation may retry, in which case the retry has been paid for
+     */
+    public boolean tryAcquireRetry(String operation) {
+        OperationStats stats = stats(operation);
+        boolean granted;
+        synchronized (this) {
+            granted = tokens >= 1.0 + ratio;
+            if (granted) {
+                tokens -= 1.0 + ratio;
+            }
+        }
+        (granted ? stats.retriesGranted : stats.retriesDenied).increment();
+        return granted;
+    }
+
+    /**
+     * Wrap a {@link Retryable} for a {@code RetryTemplate} so that every attempt is recorded under
+     * {@code operation}, which also becomes the retryable's name.
+     */
+    public <R> Retryable<R> recordingAttempts(String operation, Retryable<R> retryable) {
+        return new Retryable<>() {
+            @Override
+            public R execute() throws Throwable {
+                recordAttempt(operation);
+                return retryable.execute();
+            }
+
+            @Override
+            public String getName() {
+                return operation;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        double available;
+        synchronized (this) {
+            available = tokens;
+        }
+        List<OperationSnapshot> perOperation = operations.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(OperationSnapshot::operation))
+                .toList();
+        return new Snapshot(name, ratio, maxTokens, available, perOperation);
+    }
+
+    private OperationStats stats(String operation) {
+        return operations.computeIfAbsent(operation, key -> new OperationStats());
+    }
+
+    private static final class OperationStats {
+
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retriesGranted = new LongAdder();
+        private final LongAdder retriesDenied = new LongAdder();
+
+        OperationSnapshot snapshot(String operation) {
+            return new OperationSnapshot(operation, attempts.sum(), retriesGranted.sum(), retriesDenied.sum());
+        }
+    }
+
+    public record Snapshot(
+            String name,
+            double ratio,
+            double maxTokens,
+            double availableTokens,
+            List<OperationSnapshot> operations
+    ) {
+    }
+
+    public record OperationSnapshot(String operation, long attempts, long retriesGranted, long retriesDenied) {
+    }
+}
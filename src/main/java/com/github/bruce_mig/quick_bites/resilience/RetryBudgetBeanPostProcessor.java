@@ -0,0 +1,61 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every attempt of {@link RetryBudgeted} methods against their {@link RetryBudget}.
+ *
+ * Like {@link CircuitBreakerBeanPostProcessor}, the advisor is not put in front of existing ones, so it
+ * ends up inside the {@code @Retryable} loop and sees each attempt rather than each call.
+ */
+@SuppressWarnings("serial")
+public class RetryBudgetBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private BeanFactory beanFactory;
+
+    public RetryBudgetBeanPostProcessor() {
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, RetryBudgeted.class, true),
+                new AttemptRecordingInterceptor());
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    private class AttemptRecordingInterceptor implements MethodInterceptor {
+
+        private final Map<Method, Binding> bindings = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Binding binding = bindings.computeIfAbsent(invocation.getMethod(), this::createBinding);
+            binding.budget().recordAttempt(binding.operation());
+            return invocation.proceed();
+        }
+
+        private Binding createBinding(Method method) {
+            RetryBudgeted budgeted = AnnotatedElementUtils.findMergedAnnotation(method, RetryBudgeted.class);
+            if (budgeted == null) {
+                throw new IllegalStateException("No @RetryBudgeted annotation found on " + method);
+            }
+            RetryBudget budget = beanFactory.getBean(RetryBudgetRegistry.class).budget(budgeted.value());
+            return new Binding(budget, RetryBudgetPredicate.operationName(method, budgeted));
+        }
+    }
+
+    private record Binding(RetryBudget budget, String operation) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.resilience.retry.MethodRetryPredicate;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link MethodRetryPredicate} for {@code @Retryable(predicate = ...)}: a retry only happens if the
+ * method's {@link RetryBudgeted} budget can pay for it. Spring only asks once the exception already
+ * matched the {@code includes}. Methods without {@code @RetryBudgeted} retry as usual.
+ *
+ * Instantiated by Spring's retry post-processor through the bean factory, so the registry is injected.
+ */
+public class RetryBudgetPredicate implements MethodRetryPredicate {
+
+    private final RetryBudgetRegistry retryBudgetRegistry;
+
+    public RetryBudgetPredicate(RetryBudgetRegistry retryBudgetRegistry) {
+        this.retryBudgetRegistry = retryBudgetRegistry;
+    }
+
+    @Override
+    public boolean shouldRetry(Method method, Throwable throwable) {
+        RetryBudgeted budgeted = AnnotatedElementUtils.findMergedAnnotation(method, RetryBudgeted.class);
+        return budgeted == null
+                || retryBudgetRegistry.budget(budgeted.value()).tryAcquireRetry(operationName(method, budgeted));
+    }
+
+    static String operationName(Method method, RetryBudgeted budgeted) {
+        return StringUtils.hasText(budgeted.operation()) ? budgeted.operation()
+                : method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link RetryBudget} per downstream, created on first use with the configured ratio and reserve.
+ * The ratio can be overridden per downstream ({@code quick-bites.retry-budget.ratios.<downstream>}) for
+ * dependencies whose normal failure rate needs more than the default.
+ */
+@Component
+public class RetryBudgetRegistry {
+
+    private final double ratio;
+    private final double maxTokens;
+    private final Environment environment;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgetRegistry(@Value("${quick-bites.retry-budget.ratio:0.2}") double ratio,
+                               @Value("${quick-bites.retry-budget.max-tokens:10}") double maxTokens,
+                               Environment environment) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.environment = environment;
+    }
+
+    public RetryBudget budget(String downstream) {
+        return budgets.computeIfAbsent(downstream, name -> new RetryBudget(name,
+                environment.getProperty("quick-bites.retry-budget.ratios." + name, Double.class, ratio), maxTokens));
+    }
+
+    public Collection<RetryBudget> all() {
+        return budgets.values();
+    }
+
+    public List<RetryBudget.Snapshot> snapshot() {
+        return budgets.values().stream()
+                .map(RetryBudget::snapshot)
+                .sorted(Comparator.comparing(RetryBudget.Snapshot::name))
+                .toList();
+    }
+}
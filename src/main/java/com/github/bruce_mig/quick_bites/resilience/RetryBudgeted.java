@@ -0,0 +1,29 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a {@link org.springframework.resilience.annotation.Retryable} method on a shared {@link RetryBudget}.
+ *
+ * Every attempt of the method is recorded against the budget, and with
+ * {@code @Retryable(predicate = RetryBudgetPredicate.class)} each retry must be paid for from it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryBudgeted {
+
+    /**
+     * The downstream whose budget this method draws on; call sites against the same downstream share it.
+     */
+    String value();
+
+    /**
+     * Operation name the budget's usage is published under; defaults to {@code SimpleClassName.method}.
+     */
+    String operation() default "";
+}
@@ -0,0 +1,227 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import com.github.bruce_mig.quick_bites.metrics.LatencyHistogram;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryState;
+import org.springframework.core.retry.Retryable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry telemetry per {@link Retryable} name: outcome counters plus histograms of attempts per call and
+ * end-to-end latency (first attempt to final outcome, back-offs included).
+ *
+ * State lives on the execution, not the thread: {@link #track(Retryable)} wraps each execution in a
+ * {@link TrackedExecution}, and since every listener callback receives that same instance, attempts and
+ * start time are found there no matter which thread runs the callback - so async retries that hop
+ * between scheduler threads, or virtual threads, need no {@code ThreadLocal}. Counters are
+ * {@link LongAdder}s and histograms are lock-free, so concurrent executions never contend.
+ *
+ * Register it as (part of) a {@code RetryTemplate}'s listener. Executions that were not tracked are
+ * still counted, without latency. {@code @Retryable} methods have no listener hook; their calls are
+ * recorded through {@link #start(String)} by the interceptors of {@link RetryTelemetryBeanPostProcessor}.
+ */
+@Component
+public class RetryTelemetry implements RetryListener {
+
+    private final Map<String, RetryStats> stats = new ConcurrentHashMap<>();
+
+    public <R> Retryable<R> track(Retryable<R> retryable) {
+        return new TrackedExecution<>(retryable);
+    }
+
+    /**
+     * Start recording one call of a retried method whose attempts are reported one by one, e.g. a
+     * {@code @Retryable} method.
+     */
+    public Execution start(String name) {
+        return new Execution(stats.computeIfAbsent(name, key -> new RetryStats()));
+    }
+
+    @Override
+    public void beforeRetry(RetryPolicy retryPolicy, Retryable<?> retryable) {
+        stats(retryable).retries.increment();
+    }
+
+    @Override
+    public void onRetryableExecution(RetryPolicy retryPolicy, Retryable<?> retryable, RetryState retryState) {
+        if (retryState.isSuccessful()) {
+            finish(retryable, retryState.getRetryCount() + 1, Outcome.SUCCESS);
+        }
+    }
+
+    @Override
+    public void onRetryPolicyExhaustion(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+        finish(retryable, attempts(exception), Outcome.EXHAUSTED);
+    }
+
+    @Override
+    public void onRetryPolicyTimeout(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+        finish(retryable, attempts(exception), Outcome.TIMED_OUT);
+    }
+
+    @Override
+    public void onRetryPolicyInterruption(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+        finish(retryable, attempts(exception), Outcome.INTERRUPTED);
+    }
+
+    public List<Snapshot> snapshot() {
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(Snapshot::name))
+                .toList();
+    }
+
+    private void finish(Retryable<?> retryable, int attempts, Outcome outcome) {
+        RetryStats retryStats = stats(retryable);
+        if (retryable instanceof TrackedExecution<?> execution) {
+            // The first terminal callback wins (a timeout is reported before the execution gives up)
+            if (!execution.finished.compareAndSet(false, true)) {
+                return;
+            }
+            retryStats.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - execution.startNanos));
+        }
+        retryStats.record(attempts, outcome);
+    }
+
+    // Every failed attempt is in the RetryException: the last as its cause, earlier ones suppressed
+    private static int attempts(RetryException exception) {
+        return exception.getSuppressed().length + (exception.getCause() != null ? 1 : 0);
+    }
+
+    private RetryStats stats(Retryable<?> retryable) {
+        return stats.computeIfAbsent(retryable.getName(), name -> new RetryStats());
+    }
+
+    private enum Outcome {
+        SUCCESS, EXHAUSTED, TIMED_OUT, INTERRUPTED, FAILED
+    }
+
+    /**
+     * One call of a method retried by something other than a tracked {@code RetryTemplate}: counts its
+     * attempts and, once finished, records them with the outcome and the latency since {@link #start}.
+     */
+    public static final class Execution {
+
+        private final RetryStats stats;
+        private final long startNanos = System.nanoTime();
+        // Attempts of one execution never overlap, so a volatile counter is enough
+        private volatile int attempts;
+
+        private Execution(RetryStats stats) {
+            this.stats = stats;
+        }
+
+        public void attempt() {
+            attempts++;
+        }
+
+        public void succeeded() {
+            finish(Outcome.SUCCESS);
+        }
+
+        /**
+         * The call gave up with an exception: retries exhausted or refused, or the exception was not retryable.
+         */
+        public void failed(Throwable exception) {
+            finish(exception instanceof InterruptedException ? Outcome.INTERRUPTED : Outcome.FAILED);
+        }
+
+        private void finish(Outcome outcome) {
+            stats.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+            if (attempts > 1) {
+                stats.retries.add(attempts - 1);
+            }
+            stats.record(attempts, outcome);
+        }
+    }
+
+    /**
+     * One retry execution; records when its first attempt started.
+     */
+    private static final class TrackedExecution<R> implements Retryable<R> {
+
+        private final Retryable<R> delegate;
+        private volatile long startNanos;
+        private volatile boolean started;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private TrackedExecution(Retryable<R> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public R execute() throws Throwable {
+            // Attempts of one execution never overlap, so a plain check is enough
+            if (!started) {
+                startNanos = System.nanoTime();
+                started = true;
+            }
+            return delegate.execute();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+    }
+
+    private static final class RetryStats {
+
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder recovered = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private final LongAdder interrupted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LatencyHistogram attemptsPerCall = new LatencyHistogram();
+        private final LatencyHistogram latencyMicros = new LatencyHistogram();
+
+        void record(int attempts, Outcome outcome) {
+            attemptsPerCall.record(attempts);
+            switch (outcome) {
+                case SUCCESS -> {
+                    successes.increment();
+                    if (attempts > 1) {
+                        recovered.increment();
+                    }
+                }
+                case EXHAUSTED -> exhausted.increment();
+                case TIMED_OUT -> timedOut.increment();
+                case INTERRUPTED -> interrupted.increment();
+                case FAILED -> failed.increment();
+            }
+        }
+
+        Snapshot snapshot(String name) {
+            return new Snapshot(name, attemptsPerCall.count(), successes.sum(), recovered.sum(), exhausted.sum(),
+                    timedOut.sum(), interrupted.sum(), failed.sum(), retries.sum(), attemptsPerCall.snapshot(),
+                    latencyMicros.snapshot());
+        }
+    }
+
+    public record Snapshot(
+            String name,
+            long calls,
+            long successes,
+            long recoveredAfterRetry,
+            long exhausted,
+            long timedOut,
+            long interrupted,
+            long failed,
+            long retries,
+            LatencyHistogram.Snapshot attemptsPerCall,
+            LatencyHistogram.Snapshot latencyMicros
+    ) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.resilience.annotation.Retryable;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RetryTelemetry} for {@link Retryable} methods, which have no retry listener hook. It takes two
+ * instances: {@link #aroundRetries()} is put in front of existing advisors like
+ * {@link AdaptiveConcurrencyLimitBeanPostProcessor}, so it sees each call and records its latency and
+ * outcome; {@link #insideRetries()} is not, like {@link RetryBudgetBeanPostProcessor}, so it ends up inside
+ * the {@code @Retryable} loop and counts each attempt.
+ *
+ * Spring's retry interceptor runs every attempt on a clone of the method invocation that shares the
+ * original's user attributes, so the outer interceptor hands the {@link RetryTelemetry.Execution} to the
+ * inner one as an attribute of the call - no {@code ThreadLocal}, like the {@code RetryTemplate} path.
+ * Calls are recorded as {@code SimpleClassName.method}.
+ */
+@SuppressWarnings("serial")
+public class RetryTelemetryBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final String EXECUTION_ATTRIBUTE = RetryTelemetryBeanPostProcessor.class.getName() + ".execution";
+
+    private BeanFactory beanFactory;
+    private volatile RetryTelemetry retryTelemetry;
+
+    private RetryTelemetryBeanPostProcessor(boolean aroundRetries) {
+        this.beforeExistingAdvisors = aroundRetries;
+
+        Pointcut cpc = new AnnotationMatchingPointcut(Retryable.class, true);
+        Pointcut mpc = new AnnotationMatchingPointcut(null, Retryable.class, true);
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(cpc).union(mpc),
+                aroundRetries ? new CallRecordingInterceptor() : new AttemptCountingInterceptor());
+    }
+
+    public static RetryTelemetryBeanPostProcessor aroundRetries() {
+        return new RetryTelemetryBeanPostProcessor(true);
+    }
+
+    public static RetryTelemetryBeanPostProcessor insideRetries() {
+        return new RetryTelemetryBeanPostProcessor(false);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    // Looked up on first use rather than injected, so this post-processor does not initialize beans early
+    private RetryTelemetry retryTelemetry() {
+        RetryTelemetry telemetry = retryTelemetry;
+        if (telemetry == null) {
+            telemetry = beanFactory.getBean(RetryTelemetry.class);
+            retryTelemetry = telemetry;
+        }
+        return telemetry;
+    }
+
+    private class CallRecordingInterceptor implements MethodInterceptor {
+
+        private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+                return invocation.proceed();
+            }
+            String name = names.computeIfAbsent(invocation.getMethod(),
+                    method -> method.getDeclaringClass().getSimpleName() + "." + method.getName());
+            RetryTelemetry.Execution execution = retryTelemetry().start(name);
+            proxyInvocation.setUserAttribute(EXECUTION_ATTRIBUTE, execution);
+            try {
+                Object result = invocation.proceed();
+                execution.succeeded();
+                return result;
+            } catch (Throwable e) {
+                execution.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static class AttemptCountingInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation instanceof ProxyMethodInvocation proxyInvocation
+                    && proxyInvocation.getUserAttribute(EXECUTION_ATTRIBUTE) instanceof RetryTelemetry.Execution execution) {
+                execution.attempt();
+            }
+            return invocation.proceed();
+        }
+    }
+}
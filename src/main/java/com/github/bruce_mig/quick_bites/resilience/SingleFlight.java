@@ -0,0 +1,72 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls for the same key share one execution.
+ *
+ * The first caller for a key (the leader) runs the call on its own thread - retries included - while
+ * callers arriving before it finishes wait for and receive the same result or the same exception.
+ * Once the call completes the key is free again, so nothing is cached beyond the in-flight window.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+        executions.increment();
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * Calls that joined an execution already in flight instead of starting their own.
+     */
+    public long deduplicated() {
+        return deduplicated.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    // Followers see the leader's own exception, not a CompletionException wrapper
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED: calls pass and their outcomes fill a ring buffer of the last {@code slidingWindowSize}
+ * calls; once at least {@code minimumCalls} are recorded and the failure rate reaches the threshold,
+ * the circuit opens. OPEN: calls are rejected with {@link CircuitBreakerOpenException} without
+ * touching the downstream. After {@code openDuration} the circuit turns HALF_OPEN and lets
+ * {@code probeCalls} calls through and judges them by the same failure-rate threshold: below it the
+ * circuit closes with a fresh window, otherwise it opens again.
+ *
+ * Every permission carries the epoch it was granted in, so a slow call started before a state change
+ * cannot be mistaken for a probe (or skew the new window) when it finally completes.
+ */
+public class SlidingWindowCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(SlidingWindowCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int probeCalls;
+
+    // Guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long epoch;
+    private long openedAtNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+    private int probesFailed;
+    private long rejected;
+    private long timesOpened;
+
+    public SlidingWindowCircuitBreaker(String name, int slidingWindowSize, int minimumCalls,
+                                       int failureRateThreshold, Duration openDuration, int probeCalls) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, slidingWindowSize)];
+        this.minimumCalls = Math.clamp(minimumCalls, 1, window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.probeCalls = Math.max(1, probeCalls);
+    }
+
+    /**
+     * @return the permission's epoch, to be passed back to {@link #onSuccess(long)}, {@link #onFailure(long)}
+     *         or {@link #onCancelled(long)}
+     * @throws CircuitBreakerOpenException if the circuit is open, or half-open with all probes taken
+     */
+    public synchronized long acquirePermission() {
+        if (state == State.OPEN) {
+            long openFor = System.nanoTime() - openedAtNanos;
+            if (openFor < openDurationNanos) {
+                rejected++;
+                long remainingNanos = openDurationNanos - openFor;
+                throw new CircuitBreakerOpenException("Circuit '%s' is open; retry in %dms"
+                        .formatted(name, TimeUnit.NANOSECONDS.toMillis(remainingNanos)), Duration.ofNanos(remainingNanos));
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= probeCalls) {
+                rejected++;
+                throw new CircuitBreakerOpenException("Circuit '%s' is half-open and waiting on its probe calls"
+                        .formatted(name), Duration.ZERO);
+            }
+            probesStarted++;
+        }
+        return epoch;
+    }
+
+    public synchronized void onSuccess(long permissionEpoch) {
+        if (permissionEpoch != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesSucceeded++;
+            judgeProbes();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(long permissionEpoch) {
+        if (permissionEpoch != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesFailed++;
+            judgeProbes();
+            return;
+        }
+        record(true);
+        if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * The call was abandoned before the downstream answered, e.g. a hedged attempt that lost the race: its
+     * outcome is not recorded, and a half-open probe it took is handed back for another call.
+     */
+    public synchronized void onCancelled(long permissionEpoch) {
+        if (permissionEpoch == epoch && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Snapshot snapshot() {
+        long remainingOpenMillis = state == State.OPEN
+                ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(openDurationNanos - (System.nanoTime() - openedAtNanos)))
+                : 0;
+        double failureRate = windowCalls == 0 ? 0 : 100.0 * windowFailures / windowCalls;
+        return new Snapshot(name, state, failureRate, failureRateThreshold, windowCalls, windowFailures,
+                window.length, remainingOpenMillis, rejected, timesOpened);
+    }
+
+    private void judgeProbes() {
+        if (probesSucceeded + probesFailed < probeCalls) {
+            return;
+        }
+        transitionTo(probesFailed * 100 >= failureRateThreshold * probeCalls ? State.OPEN : State.CLOSED);
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        log.info("🔌 Circuit '{}' {} -> {} (failure rate {}/{})", name, state, next, windowFailures, windowCalls);
+        state = next;
+        epoch++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        probesFailed = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+            timesOpened++;
+        } else if (next == State.CLOSED) {
+            windowNext = 0;
+            windowCalls = 0;
+            windowFailures = 0;
+        }
+    }
+
+    public record Snapshot(
+            String name,
+            State state,
+            double failureRatePercent,
+            int failureRateThreshold,
+            int windowCalls,
+            int windowFailures,
+            int slidingWindowSize,
+            long remainingOpenMillis,
+            long rejectedCalls,
+            long timesOpened
+    ) {
+    }
+}
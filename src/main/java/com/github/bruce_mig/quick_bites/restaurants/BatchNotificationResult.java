@@ -0,0 +1,15 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restaurant's answer to a batched notification: which orders it accepted and, for the ones it
+ * rejected, why.
+ */
+public record BatchNotificationResult(
+        String restaurantId,
+        List<String> acceptedOrderIds,
+        Map<String, String> rejectedOrders
+) {
+}
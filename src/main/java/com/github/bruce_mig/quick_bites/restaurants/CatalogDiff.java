@@ -0,0 +1,58 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entries that differ between the current catalog and new data: upserts carry the new version of
+ * added or changed entries, removals the ids that are gone.
+ */
+public record CatalogDiff(
+        Map<String, Restaurant> upsertedRestaurants,
+        Set<String> removedRestaurantIds,
+        Map<String, MenuItem> upsertedMenuItems,
+        Set<String> removedMenuItemIds
+) {
+
+    public CatalogDiff {
+        upsertedRestaurants = Map.copyOf(upsertedRestaurants);
+        removedRestaurantIds = Set.copyOf(removedRestaurantIds);
+        upsertedMenuItems = Map.copyOf(upsertedMenuItems);
+        removedMenuItemIds = Set.copyOf(removedMenuItemIds);
+    }
+
+    public static CatalogDiff restaurants(Map<String, Restaurant> upserted, Set<String> removed) {
+        return new CatalogDiff(upserted, removed, Map.of(), Set.of());
+    }
+
+    public static CatalogDiff menuItems(Map<String, MenuItem> upserted, Set<String> removed) {
+        return new CatalogDiff(Map.of(), Set.of(), upserted, removed);
+    }
+
+    public CatalogDiff and(CatalogDiff other) {
+        return new CatalogDiff(
+                merge(upsertedRestaurants, other.upsertedRestaurants),
+                union(removedRestaurantIds, other.removedRestaurantIds),
+                merge(upsertedMenuItems, other.upsertedMenuItems),
+                union(removedMenuItemIds, other.removedMenuItemIds));
+    }
+
+    public boolean isEmpty() {
+        return upsertedRestaurants.isEmpty() && removedRestaurantIds.isEmpty()
+                && upsertedMenuItems.isEmpty() && removedMenuItemIds.isEmpty();
+    }
+
+    private static <V> Map<String, V> merge(Map<String, V> first, Map<String, V> second) {
+        Map<String, V> merged = new HashMap<>(first);
+        merged.putAll(second);
+        return merged;
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
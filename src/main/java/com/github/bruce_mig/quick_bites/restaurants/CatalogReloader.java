@@ -0,0 +1,257 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Applies catalog changes without a restart, from the data directory or from uploaded files.
+ *
+ * A data file is read as a stream - one entry at a time, never the whole array in memory - and every
+ * entry is compared with the current catalog, so a reload knows exactly which restaurants and menu items
+ * were added, changed or removed. Only those entries are applied (see
+ * {@link RestaurantCatalog#withChanges(CatalogDiff, long)}), and only the menu cache entries of
+ * restaurants whose menu actually changed are invalidated; every other cached menu stays warm.
+ *
+ * A file is the full truth for its kind: entries missing from it are removed. With
+ * {@code quick-bites.catalog.data-dir} set, the directory is watched and any change to one of its data
+ * files triggers a reload. Reloads run one at a time.
+ */
+@Component
+public class CatalogReloader {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReloader.class);
+
+    // Editors often write a file in several steps - wait for the burst of events to settle
+    private static final Duration WATCH_SETTLE_TIME = Duration.ofMillis(200);
+
+    private final DataLoader dataLoader;
+    private final MenuCache menuCache;
+    private final boolean watch;
+
+    private volatile ReloadReport lastReload;
+    private WatchService watchService;
+
+    public CatalogReloader(DataLoader dataLoader,
+                           MenuCache menuCache,
+                           @Value("${quick-bites.catalog.watch:true}") boolean watch) {
+        this.dataLoader = dataLoader;
+        this.menuCache = menuCache;
+        this.watch = watch;
+    }
+
+    /**
+     * Re-read both data files from where the catalog was loaded.
+     */
+    public synchronized ReloadReport reload(String source) {
+        long start = System.nanoTime();
+        RestaurantCatalog current = dataLoader.catalog();
+        CatalogDiff diff;
+        try (InputStream restaurants = dataLoader.dataResource(DataLoader.RESTAURANTS_FILE).getInputStream();
+             InputStream menuItems = dataLoader.dataResource(DataLoader.MENU_ITEMS_FILE).getInputStream()) {
+            diff = diffRestaurants(restaurants, current).and(diffMenuItems(menuItems, current));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return apply(source, current, diff, start);
+    }
+
+    /**
+     * Replace all restaurants with the uploaded {@code restaurants.json} content.
+     */
+    public synchronized ReloadReport uploadRestaurants(InputStream restaurants) {
+        long start = System.nanoTime();
+        RestaurantCatalog current = dataLoader.catalog();
+        return apply("upload:" + DataLoader.RESTAURANTS_FILE, current, diffRestaurants(restaurants, current), start);
+    }
+
+    /**
+     * Replace all menu items with the uploaded {@code menu-items.json} content.
+     */
+    public synchronized ReloadReport uploadMenuItems(InputStream menuItems) {
+        long start = System.nanoTime();
+        RestaurantCatalog current = dataLoader.catalog();
+        return apply("upload:" + DataLoader.MENU_ITEMS_FILE, current, diffMenuItems(menuItems, current), start);
+    }
+
+    public ReloadReport lastReload() {
+        return lastReload;
+    }
+
+    private ReloadReport apply(String source, RestaurantCatalog previous, CatalogDiff diff, long start) {
+        long parsed = System.nanoTime();
+        RestaurantCatalog updated = dataLoader.apply(diff);
+        long applied = System.nanoTime();
+
+        // Only menus that really differ - a changed rating or an unavailable item nobody lists needs no eviction
+        List<String> invalidated = previous.restaurantsAffectedBy(diff).stream()
+                .filter(restaurantId -> !previous.menu(restaurantId).equals(updated.menu(restaurantId)))
+                .sorted()
+                .toList();
+        invalidated.forEach(menuCache::invalidate);
+        long finished = System.nanoTime();
+
+        ReloadReport report = new ReloadReport(
+                source,
+                Instant.now(),
+                previous.version(),
+                updated.version(),
+                diff.upsertedRestaurants().size(),
+                diff.removedRestaurantIds().size(),
+                diff.upsertedMenuItems().size(),
+                diff.removedMenuItemIds().size(),
+                invalidated,
+                TimeUnit.NANOSECONDS.toMicros(parsed - start),
+                TimeUnit.NANOSECONDS.toMicros(applied - parsed),
+                TimeUnit.NANOSECONDS.toMicros(finished - start));
+        lastReload = report;
+        log.info("🔄 Catalog reload from {}: version {} → {}, {} restaurant(s) and {} menu item(s) changed, " +
+                        "{} removed, {} menu(s) invalidated in {}µs",
+                source, report.previousVersion(), report.version(),
+                report.restaurantsUpserted(), report.menuItemsUpserted(),
+                report.restaurantsRemoved() + report.menuItemsRemoved(),
+                invalidated.size(), report.totalMicros());
+        return report;
+    }
+
+    private CatalogDiff diffRestaurants(InputStream json, RestaurantCatalog current) {
+        DiffCollector<Restaurant> diff = diffEntries(json, Restaurant.class, Restaurant::id, current::restaurant,
+                current.restaurantsById().keySet());
+        return CatalogDiff.restaurants(diff.upserted, diff.removed);
+    }
+
+    private CatalogDiff diffMenuItems(InputStream json, RestaurantCatalog current) {
+        DiffCollector<MenuItem> diff = diffEntries(json, MenuItem.class, MenuItem::id, current::menuItem,
+                current.menuItemsById().keySet());
+        return CatalogDiff.menuItems(diff.upserted, diff.removed);
+    }
+
+    // Streams the JSON array entry by entry, keeping only the entries that differ from the current catalog
+    private <T> DiffCollector<T> diffEntries(InputStream json, Class<T> type, Function<T, String> id,
+                                             Function<String, T> current, Set<String> currentIds) {
+        DiffCollector<T> diff = new DiffCollector<>(currentIds);
+        dataLoader.readEach(json, type, entry -> {
+            String entryId = id.apply(entry);
+            diff.removed.remove(entryId);
+            if (!entry.equals(current.apply(entryId))) {
+                diff.upserted.put(entryId, entry);
+            }
+        });
+        return diff;
+    }
+
+    private static final class DiffCollector<T> {
+
+        private final Map<String, T> upserted = new HashMap<>();
+        // Everything currently in the catalog until the stream proves otherwise
+        private final Set<String> removed;
+
+        private DiffCollector(Set<String> currentIds) {
+            this.removed = new HashSet<>(currentIds);
+        }
+    }
+
+    @PostConstruct
+    void startWatching() throws IOException {
+        Path directory = dataLoader.dataDirectory().orElse(null);
+        if (directory == null || !watch) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread.ofPlatform()
+                .name("catalog-watcher")
+                .daemon(true)
+                .start(this::watchLoop);
+        log.info("👀 Watching {} for catalog changes", directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean dataFileChanged = containsDataFile(key);
+                key.reset();
+                // Collect the rest of the burst before reloading once
+                WatchKey more;
+                while ((more = watchService.poll(WATCH_SETTLE_TIME.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    dataFileChanged |= containsDataFile(more);
+                    more.reset();
+                }
+                if (dataFileChanged) {
+                    try {
+                        reload("watch");
+                    } catch (RuntimeException e) {
+                        // A half-written or invalid file - keep serving the current catalog until the next change
+                        log.error("❌ Catalog reload failed, keeping version {}: {}",
+                                dataLoader.catalog().version(), e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Catalog watcher stopped");
+        }
+    }
+
+    private static boolean containsDataFile(WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path changed) {
+                String fileName = changed.getFileName().toString();
+                if (fileName.equals(DataLoader.RESTAURANTS_FILE) || fileName.equals(DataLoader.MENU_ITEMS_FILE)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * What a reload changed and how long it took. Timings are in microseconds: parsing and diffing, building
+     * and swapping in the new catalog, and everything including menu cache invalidation.
+     */
+    public record ReloadReport(
+            String source,
+            Instant reloadedAt,
+            long previousVersion,
+            long version,
+            int restaurantsUpserted,
+            int restaurantsRemoved,
+            int menuItemsUpserted,
+            int menuItemsRemoved,
+            List<String> invalidatedMenus,
+            long parseMicros,
+            long applyMicros,
+            long totalMicros
+    ) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded JSON for the catalog read endpoints, kept per catalog version.
+ *
+ * The restaurant list and each restaurant's menu are serialized once - plain and gzipped - together with a
+ * strong ETag derived from the bytes, and served from here until the catalog version changes or the menu
+ * they were encoded from is replaced. A request carrying the ETag in {@code If-None-Match} gets a 304 from
+ * Spring MVC without a body. Since the ETag depends only on the content, a reload that leaves a response
+ * unchanged keeps its ETag, and clients keep getting 304s.
+ */
+@Component
+class CatalogResponseCache {
+
+    private final JsonMapper jsonMapper;
+
+    private volatile Generation generation = new Generation(-1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder encodings = new LongAdder();
+
+    CatalogResponseCache(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * @param cuisine null for all restaurants
+     */
+    EncodedResponse restaurants(RestaurantCatalog catalog, String cuisine) {
+        List<Restaurant> restaurants = cuisine == null ? catalog.restaurants() : catalog.restaurantsByCuisine(cuisine);
+        return encoded(catalog, "restaurants:" + (cuisine == null ? "" : cuisine), restaurants, () -> restaurants);
+    }
+
+    EncodedResponse menu(RestaurantCatalog catalog, String restaurantId, List<MenuItem> menu) {
+        return encoded(catalog, "menu:" + restaurantId, menu, () -> new MenuBody(restaurantId, menu, menu.size()));
+    }
+
+    Stats stats() {
+        return new Stats(generation.version(), generation.responses().size(), hits.sum(), encodings.sum());
+    }
+
+    // Reused while the entry was encoded from this very list - catalog lists are immutable, so the same list
+    // means the same content
+    private EncodedResponse encoded(RestaurantCatalog catalog, String key, List<?> source, Supplier<Object> body) {
+        Generation current = generation(catalog.version());
+        EncodedResponse cached = current.responses().get(key);
+        if (cached != null && cached.source() == source) {
+            hits.increment();
+            return cached;
+        }
+        encodings.increment();
+        EncodedResponse encoded = EncodedResponse.of(source, jsonMapper.writeValueAsBytes(body.get()));
+        // Empty results (an unknown cuisine, say) are cheap to encode and would only fill the map
+        if (!source.isEmpty()) {
+            current.responses().put(key, encoded);
+        }
+        return encoded;
+    }
+
+    private Generation generation(long catalogVersion) {
+        Generation current = generation;
+        if (current.version() == catalogVersion) {
+            return current;
+        }
+        synchronized (this) {
+            // A newer catalog drops every response encoded from the old one
+            if (generation.version() < catalogVersion) {
+                generation = new Generation(catalogVersion);
+            }
+            return generation.version() == catalogVersion ? generation : new Generation(catalogVersion);
+        }
+    }
+
+    private record Generation(long version, Map<String, EncodedResponse> responses) {
+
+        Generation(long version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+    }
+
+    private record MenuBody(String restaurantId, List<MenuItem> menuItems, int count) {
+    }
+
+    /**
+     * One response body, plain and gzipped, with a strong ETag for each.
+     */
+    record EncodedResponse(List<?> source, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+        static EncodedResponse of(List<?> source, byte[] json) {
+            String hash = hash(json);
+            return new EncodedResponse(source, json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        }
+
+        /**
+         * A 200 with the gzipped body if {@code acceptEncoding} allows gzip, the plain one otherwise. Spring MVC
+         * turns it into a 304 without a body when the request's {@code If-None-Match} has the ETag.
+         */
+        ResponseEntity.BodyBuilder response(String acceptEncoding) {
+            boolean gzipped = acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(gzipped ? gzipEtag : etag);
+            if (gzipped) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response;
+        }
+
+        byte[] body(String acceptEncoding) {
+            return acceptsGzip(acceptEncoding) ? gzip : json;
+        }
+
+        private static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                    // "gzip;q=0" means "never gzip"
+                    return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+            return false;
+        }
+
+        private static String hash(byte[] json) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is required on every JVM", e);
+            }
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 32);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+
+    /**
+     * @param catalogVersion the version the cached responses were encoded from
+     * @param hits           responses served without serializing
+     * @param encodings      responses serialized (and gzipped)
+     */
+    record Stats(long catalogVersion, int responses, long hits, long encodings) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of the catalog, read through a memory-mapped file for fast startup.
+ *
+ * Layout (big-endian): a header (magic, format version), a string table, then the restaurants and the
+ * menu items. Every string - ids, names, cuisines, categories - is stored once in the table and referenced
+ * by index, so the repeated ones (restaurant ids on every menu item, the handful of cuisines and categories)
+ * take four bytes per use on disk and share one {@code String} instance once loaded. Prices are stored as
+ * minor units and currency code, so they load back exactly.
+ *
+ * Reading decodes the mapped bytes straight into the catalog's indexes: no JSON tokenizing, no field name
+ * matching and no intermediate lists.
+ */
+final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x51424353; // "QBCS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int NO_STRING = -1;
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Write {@code catalog} to {@code file}, replacing it atomically so a concurrent reader never maps a
+     * half-written snapshot.
+     */
+    static void write(RestaurantCatalog catalog, Path file) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Restaurant restaurant : catalog.restaurants()) {
+            intern(strings, restaurant.id(), restaurant.name(), restaurant.cuisine(), restaurant.address());
+            restaurant.menuItemIds().forEach(id -> intern(strings, id));
+        }
+        for (MenuItem item : catalog.menuItemsById().values()) {
+            intern(strings, item.id(), item.restaurantId(), item.name(), item.description(), item.category());
+            if (item.price() != null) {
+                intern(strings, item.price().currency().getCurrencyCode());
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+
+            out.writeInt(strings.size());
+            for (String value : strings.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(catalog.restaurants().size());
+            for (Restaurant restaurant : catalog.restaurants()) {
+                out.writeInt(ref(strings, restaurant.id()));
+                out.writeInt(ref(strings, restaurant.name()));
+                out.writeInt(ref(strings, restaurant.cuisine()));
+                out.writeDouble(restaurant.rating());
+                out.writeInt(ref(strings, restaurant.address()));
+                out.writeDouble(restaurant.latitude());
+                out.writeDouble(restaurant.longitude());
+                out.writeInt(restaurant.menuItemIds().size());
+                for (String menuItemId : restaurant.menuItemIds()) {
+                    out.writeInt(ref(strings, menuItemId));
+                }
+            }
+
+            out.writeInt(catalog.menuItemsById().size());
+            for (MenuItem item : catalog.menuItemsById().values()) {
+                out.writeInt(ref(strings, item.id()));
+                out.writeInt(ref(strings, item.restaurantId()));
+                out.writeInt(ref(strings, item.name()));
+                out.writeInt(ref(strings, item.description()));
+                out.writeInt(ref(strings, item.category()));
+                out.writeBoolean(item.price() != null);
+                if (item.price() != null) {
+                    out.writeLong(item.price().minorUnits());
+                    out.writeInt(ref(strings, item.price().currency().getCurrencyCode()));
+                }
+                out.writeBoolean(item.available());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map {@code file} and decode it into a catalog.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot in this format
+     */
+    static RestaurantCatalog read(Path file, long version) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a catalog snapshot in format " + FORMAT_VERSION);
+            }
+
+            String[] strings = new String[size(buffer, 4)];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = size(buffer, 1);
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int restaurantCount = size(buffer, 4);
+            Map<String, Restaurant> restaurants = HashMap.newHashMap(restaurantCount);
+            for (int i = 0; i < restaurantCount; i++) {
+                String id = string(strings, buffer.getInt());
+                String name = string(strings, buffer.getInt());
+                String cuisine = string(strings, buffer.getInt());
+                double rating = buffer.getDouble();
+                String address = string(strings, buffer.getInt());
+                double latitude = buffer.getDouble();
+                double longitude = buffer.getDouble();
+                int menuSize = size(buffer, 4);
+                List<String> menuItemIds = new ArrayList<>(menuSize);
+                for (int item = 0; item < menuSize; item++) {
+                    menuItemIds.add(string(strings, buffer.getInt()));
+                }
+                restaurants.put(id, new Restaurant(id, name, cuisine, rating, address, latitude, longitude, menuItemIds));
+            }
+
+            int menuItemCount = size(buffer, 4);
+            Map<String, MenuItem> menuItems = HashMap.newHashMap(menuItemCount);
+            for (int i = 0; i < menuItemCount; i++) {
+                String id = string(strings, buffer.getInt());
+                String restaurantId = string(strings, buffer.getInt());
+                String name = string(strings, buffer.getInt());
+                String description = string(strings, buffer.getInt());
+                String category = string(strings, buffer.getInt());
+                Money price = buffer.get() != 0 ? price(buffer.getLong(), string(strings, buffer.getInt())) : null;
+                boolean available = buffer.get() != 0;
+                menuItems.put(id, new MenuItem(id, restaurantId, name, description, price, category, available));
+            }
+
+            return RestaurantCatalog.ofIndexed(version, restaurants, menuItems);
+        } catch (RuntimeException e) {
+            // Truncated or corrupted: BufferUnderflowException, an index outside the string table, or a bad size
+            throw new IOException(file + " is not a valid catalog snapshot", e);
+        }
+    }
+
+    // Catalog prices are almost all in the default currency, which needs no lookup
+    private static Money price(long minorUnits, String currencyCode) {
+        return Money.DEFAULT_CURRENCY.getCurrencyCode().equals(currencyCode)
+                ? Money.of(minorUnits)
+                : Money.of(minorUnits, Currency.getInstance(currencyCode));
+    }
+
+    // A count or length, checked against the rest of the file before anything is allocated for it
+    private static int size(ByteBuffer buffer, int minBytesEach) {
+        int size = buffer.getInt();
+        if (size < 0 || (long) size * minBytesEach > buffer.remaining()) {
+            throw new IllegalArgumentException("size " + size + " at " + (buffer.position() - 4) + " overruns the file");
+        }
+        return size;
+    }
+
+    private static void intern(Map<String, Integer> strings, String... values) {
+        for (String value : values) {
+            if (value != null) {
+                strings.putIfAbsent(value, strings.size());
+            }
+        }
+    }
+
+    private static int ref(Map<String, Integer> strings, String value) {
+        return value == null ? NO_STRING : strings.get(value);
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref == NO_STRING ? null : strings[ref];
+    }
+}
@@ -3,73 +3,207 @@ package com.github.bruce_mig.quick_bites.restaurants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import tools.jackson.core.JacksonException;
-import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.MappingIterator;
 import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Component
 public class DataLoader implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
+    static final String RESTAURANTS_FILE = "restaurants.json";
+    static final String MENU_ITEMS_FILE = "menu-items.json";
     private final JsonMapper jsonMapper;
 
-    private final Map<String, Restaurant> restaurants = new ConcurrentHashMap<>();
-    private final Map<String, MenuItem> menuItems = new ConcurrentHashMap<>();
+    // Swapped whole on every load - readers see either the old catalog or the new one, never a mix
+    private volatile RestaurantCatalog catalog = RestaurantCatalog.empty();
+    private final AtomicLong catalogVersions = new AtomicLong();
+
+    private final Path dataDirectory;
+    private final Path snapshotFile;
 
-    public DataLoader(JsonMapper jsonMapper) {
+    public DataLoader(JsonMapper jsonMapper,
+                      @Value("${quick-bites.catalog.data-dir:}") String dataDirectory,
+                      @Value("${quick-bites.catalog.snapshot-file:}") String snapshotFile) {
         this.jsonMapper = jsonMapper;
+        this.dataDirectory = dataDirectory.isBlank() ? null : Path.of(dataDirectory);
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
     }
 
     @Override
     public void run(String... args) throws Exception {
-        log.info("🚀 Loading Restaurant Data from JSON files...");
+        log.info("🚀 Loading Restaurant Data...");
         loadData();
         log.info("✅ Data loading completed successfully");
     }
 
-    private void loadData() {
-        try {
-            // Load restaurants using Jackson 3's JsonMapper
-            var restaurantsResource = new ClassPathResource("data/restaurants.json");
-            List<Restaurant> restaurantList = jsonMapper.readValue(restaurantsResource.getInputStream(), new TypeReference<>() {});
-            restaurantList.forEach(r -> restaurants.put(r.id(), r));
-            log.info("  → Loaded {} restaurants", restaurants.size());
-
-            // Load menu items using Jackson 3's JsonMapper
-            ClassPathResource menuItemsResource = new ClassPathResource("data/menu-items.json");
-            List<MenuItem> menuItemList = jsonMapper.readValue(menuItemsResource.getInputStream(), new TypeReference<>() {});
-            menuItemList.forEach(m -> menuItems.put(m.id(), m));
-            log.info("  → Loaded {} menu items", menuItems.size());
+    /**
+     * Load the catalog from the binary snapshot when it is newer than both JSON files, from JSON otherwise
+     * - writing a fresh snapshot for the next start.
+     */
+    private synchronized void loadData() {
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        long version = catalogVersions.incrementAndGet();
+
+        String source = "snapshot " + snapshotFile;
+        RestaurantCatalog loaded = snapshotIsFresh() ? loadSnapshot(version) : null;
+        if (loaded == null) {
+            source = "JSON";
+            loaded = loadJson(version);
+            writeSnapshot(loaded);
+        }
 
+        // Menus are resolved and the indexes built before publishing - then the whole catalog is swapped in
+        catalog = loaded;
+        log.info("  → Loaded catalog version {} from {}: {} restaurants, {} menu items in {}ms " +
+                        "({} KB allocated, {} MB heap in use)",
+                loaded.version(), source, loaded.restaurantsById().size(), loaded.menuItemsById().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                (allocatedBytes() - allocatedBefore) / 1024,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024));
+    }
+
+    /**
+     * Stream both data files record by record straight into the id indexes - no intermediate lists, so
+     * memory beyond the catalog itself stays bounded by one record.
+     */
+    RestaurantCatalog loadJson(long version) {
+        Map<String, Restaurant> restaurants = new HashMap<>();
+        Map<String, MenuItem> menuItems = new HashMap<>();
+        try (InputStream restaurantsJson = dataResource(RESTAURANTS_FILE).getInputStream();
+             InputStream menuItemsJson = dataResource(MENU_ITEMS_FILE).getInputStream()) {
+            // Load restaurants and menu items using Jackson 3's JsonMapper
+            readEach(restaurantsJson, Restaurant.class, restaurant -> restaurants.put(restaurant.id(), restaurant));
+            readEach(menuItemsJson, MenuItem.class, item -> menuItems.put(item.id(), item));
         } catch (JacksonException e) {
             log.error("Failed to load data from JSON files", e);
             throw e;
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
+        }
+        return RestaurantCatalog.ofIndexed(version, restaurants, menuItems);
+    }
+
+    /**
+     * Read a JSON array of {@code type} one element at a time, handing each to {@code action} as soon as
+     * it is parsed.
+     */
+    <T> void readEach(InputStream json, Class<T> type, Consumer<? super T> action) {
+        try (MappingIterator<T> values = jsonMapper.readerFor(type).readValues(json)) {
+            while (values.hasNextValue()) {
+                action.accept(values.nextValue());
+            }
+        }
+    }
+
+    private boolean snapshotIsFresh() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+        try {
+            long snapshotModified = Files.getLastModifiedTime(snapshotFile).toMillis();
+            return snapshotModified > dataResource(RESTAURANTS_FILE).lastModified()
+                    && snapshotModified > dataResource(MENU_ITEMS_FILE).lastModified();
+        } catch (IOException e) {
+            // Can't tell which is newer - the JSON files are the source of truth
+            return false;
+        }
+    }
+
+    private RestaurantCatalog loadSnapshot(long version) {
+        try {
+            return CatalogSnapshot.read(snapshotFile, version);
+        } catch (IOException e) {
+            log.warn("⚠️ Ignoring catalog snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshot(RestaurantCatalog catalog) {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            CatalogSnapshot.write(catalog, snapshotFile);
+            log.info("  → Wrote catalog snapshot {}", snapshotFile);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not write catalog snapshot {}: {}", snapshotFile, e.getMessage());
         }
     }
 
+    private static long allocatedBytes() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                ? threads.getCurrentThreadAllocatedBytes()
+                : 0;
+    }
+
+    /**
+     * Build the next catalog version from the current one with {@code diff} applied, and swap it in.
+     * An empty diff leaves the current catalog (and its version) as it is.
+     */
+    synchronized RestaurantCatalog apply(CatalogDiff diff) {
+        if (!diff.isEmpty()) {
+            catalog = catalog.withChanges(diff, catalogVersions.incrementAndGet());
+        }
+        return catalog;
+    }
+
+    /**
+     * Where a data file is read from: {@code quick-bites.catalog.data-dir} if set, the bundled
+     * classpath data otherwise.
+     */
+    Resource dataResource(String fileName) {
+        return dataDirectory != null
+                ? new FileSystemResource(dataDirectory.resolve(fileName))
+                : new ClassPathResource("data/" + fileName);
+    }
+
+    Optional<Path> dataDirectory() {
+        return Optional.ofNullable(dataDirectory);
+    }
+
+    /**
+     * The current catalog snapshot. Hold on to it for the duration of a request to read one consistent
+     * catalog across several lookups.
+     */
+    public RestaurantCatalog catalog() {
+        return catalog;
+    }
+
     // helper methods for outside classes to access data
     public Map<String, Restaurant> getRestaurants() {
-        return restaurants;
+        return catalog.restaurantsById();
     }
 
     public Map<String, MenuItem> getMenuItems() {
-        return menuItems;
+        return catalog.menuItemsById();
     }
 
     public Restaurant getRestaurant(String id) {
-        return restaurants.get(id);
+        return catalog.restaurant(id);
     }
 
     public MenuItem getMenuItem(String id) {
-        return menuItems.get(id);
+        return catalog.menuItem(id);
     }
 }
\ No newline at end of file
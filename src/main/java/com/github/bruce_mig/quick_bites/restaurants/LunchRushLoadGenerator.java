@@ -0,0 +1,374 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.concurrent.TaskScope;
+import com.github.bruce_mig.quick_bites.metrics.LatencyHistogram;
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.resilience.ConcurrencyLimiterRegistry;
+import com.github.bruce_mig.quick_bites.resilience.KeyedConcurrencyLimiter;
+import com.github.bruce_mig.quick_bites.resilience.LoadSheddingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the restaurant notification path - the "lunch rush".
+ *
+ * Orders arrive on a fixed schedule ({@code ratePerSecond}, or all at once when it is 0) however long
+ * earlier ones take, so a slow notification path shows up as queueing instead of quietly slowing the
+ * generator down. Latency is measured from each order's scheduled arrival and split into queueing (waiting
+ * for a thread and for a concurrency permit) and service time (the restaurant's own answer).
+ *
+ * Orders run on a fixed platform thread pool, on one virtual thread each, or as subtasks of a
+ * {@link TaskScope}. Whatever has not finished by the plan's deadline is cancelled.
+ */
+@Component
+class LunchRushLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LunchRushLoadGenerator.class);
+
+    static final int MAX_ORDERS = 100_000;
+
+    // How often the concurrency limit is sampled while the rush runs
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RestaurantNotificationService restaurantNotificationService;
+    private final RestaurantNotificationBatcher restaurantNotificationBatcher;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+
+    LunchRushLoadGenerator(RestaurantNotificationService restaurantNotificationService,
+                           RestaurantNotificationBatcher restaurantNotificationBatcher,
+                           ConcurrencyLimiterRegistry concurrencyLimiterRegistry) {
+        this.restaurantNotificationService = restaurantNotificationService;
+        this.restaurantNotificationBatcher = restaurantNotificationBatcher;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+    }
+
+    Report run(Plan plan) {
+        log.info("🍔 LUNCH RUSH STARTED - {} orders over {} restaurant(s) at {}/s on {} threads{}",
+                plan.orderCount(), plan.restaurants(),
+                plan.ratePerSecond() > 0 ? plan.ratePerSecond() : "unlimited",
+                plan.executor(), plan.batched() ? ", batched" : "");
+
+        KeyedConcurrencyLimiter limiter = concurrencyLimiterRegistry.get(plan.batched()
+                ? RestaurantNotificationService.BATCH_LIMITER_NAME
+                : RestaurantNotificationService.LIMITER_NAME);
+        Recorder recorder = new Recorder();
+        List<KeyedConcurrencyLimiter.Snapshot> limitTimeline = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long deadline = start + plan.maxDuration().toNanos();
+        int sent = 0;
+        long dispatchNanos = 0;
+        try (Runner runner = runner(plan)) {
+            sent = dispatch(plan, start, deadline, runner, recorder);
+            dispatchNanos = System.nanoTime() - start;
+            if (!runner.awaitUntil(deadline, () -> limitTimeline.add(limiter.snapshot()))) {
+                log.warn("⚠️  Lunch rush hit its {}s deadline, cancelling unfinished notifications",
+                        plan.maxDuration().toSeconds());
+            }
+        } catch (InterruptedException e) {
+            log.error("❌ Lunch rush interrupted: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        limitTimeline.add(limiter.snapshot());
+
+        Report report = recorder.report(plan, sent, dispatchNanos, elapsedNanos, limitTimeline);
+        log.info("🎉 LUNCH RUSH COMPLETED - {} of {} notifications sent in {}ms ({} shed, {} failed, {} cancelled), p99 {}ms",
+                report.completed(), plan.orderCount(), report.durationMillis(), report.shed(), report.failed(),
+                report.cancelled(), TimeUnit.MICROSECONDS.toMillis(report.latencyMicros().p99()));
+        return report;
+    }
+
+    // Returns how many orders were handed to the runner - fewer than planned if the deadline came first
+    private int dispatch(Plan plan, long start, long deadline, Runner runner, Recorder recorder) {
+        for (int i = 0; i < plan.orderCount(); i++) {
+            long arrival = plan.ratePerSecond() > 0
+                    ? start + (long) (i * 1e9 / plan.ratePerSecond())
+                    : start;
+            if (arrival - deadline >= 0) {
+                return i;
+            }
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return i;
+                }
+                LockSupport.parkNanos(wait);
+            }
+            Order order = order(i + 1, plan);
+            runner.submit(() -> notifyAndRecord(order, arrival, plan.batched(), recorder));
+        }
+        return plan.orderCount();
+    }
+
+    private void notifyAndRecord(Order order, long arrivalNanos, boolean batched, Recorder recorder) {
+        try {
+            Duration serviceTime = null;
+            if (batched) {
+                restaurantNotificationBatcher.submit(order).join();
+            } else {
+                serviceTime = restaurantNotificationService.notifyRestaurant(order);
+            }
+            // Cut short by the deadline - neither a success nor a failure of the notification path
+            if (!Thread.currentThread().isInterrupted()) {
+                recorder.completed(order, arrivalNanos, serviceTime);
+            }
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof LoadSheddingException) {
+                recorder.shed(order, arrivalNanos);
+                log.warn("🚫 Notification shed for order {}: {}", order.id(), cause.getMessage());
+            } else {
+                recorder.failed(order, arrivalNanos);
+                log.error("❌ Error notifying restaurant for order {}: {}", order.id(), cause.getMessage());
+            }
+        }
+    }
+
+    private static Order order(int orderNumber, Plan plan) {
+        return new Order(
+                String.format("lunch-%06d", orderNumber),
+                "customer-" + orderNumber,
+                String.format("restaurant-%03d", (orderNumber - 1) % plan.restaurants() + 1),
+                List.of("burger", "fries", "drink"),
+                Money.parse("15.99"),
+                "payment-" + orderNumber,
+                "confirmed-" + orderNumber,
+                isStatusUpdate(orderNumber, plan.statusUpdatePercent())
+                        ? Order.OrderStatus.PREPARING
+                        : Order.OrderStatus.CONFIRMED
+        );
+    }
+
+    // Spread status updates evenly over the rush rather than bunching them at the end
+    private static boolean isStatusUpdate(int orderNumber, int statusUpdatePercent) {
+        return orderNumber * statusUpdatePercent / 100 != (orderNumber - 1) * statusUpdatePercent / 100;
+    }
+
+    private static Runner runner(Plan plan) {
+        return switch (plan.executor()) {
+            case PLATFORM -> new ExecutorRunner(Executors.newFixedThreadPool(plan.platformThreads(),
+                    Thread.ofPlatform().name("lunch-rush-", 1).factory()));
+            case VIRTUAL -> new ExecutorRunner(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("lunch-rush-v-", 1).factory()));
+            case STRUCTURED -> new ScopeRunner(new TaskScope("lunch-rush-s"));
+        };
+    }
+
+    enum ExecutorType {
+        PLATFORM, VIRTUAL, STRUCTURED
+    }
+
+    /**
+     * @param ratePerSecond       order arrivals per second, or 0 to send every order at once
+     * @param platformThreads     size of the thread pool for {@link ExecutorType#PLATFORM}
+     * @param statusUpdatePercent share of orders sent as lower-priority status updates (PREPARING)
+     * @param maxDuration         orders not finished by then are cancelled
+     */
+    record Plan(
+            int orderCount,
+            double ratePerSecond,
+            ExecutorType executor,
+            int platformThreads,
+            int restaurants,
+            int statusUpdatePercent,
+            boolean batched,
+            Duration maxDuration
+    ) {
+    }
+
+    /**
+     * Latencies are in microseconds from each order's scheduled arrival, shed and failed orders included.
+     * Queueing and service time cover delivered, unbatched orders only: a batch has one service time
+     * for all of its orders.
+     */
+    record Report(
+            Plan plan,
+            int sent,
+            long completed,
+            long shed,
+            long failed,
+            long cancelled,
+            long durationMillis,
+            double arrivalRatePerSecond,
+            double throughputPerSecond,
+            LatencyHistogram.Snapshot latencyMicros,
+            LatencyHistogram.Snapshot queueingMicros,
+            LatencyHistogram.Snapshot serviceMicros,
+            Map<Order.OrderStatus, LatencyHistogram.Snapshot> latencyMicrosByStatus,
+            List<KeyedConcurrencyLimiter.Snapshot> limitTimeline
+    ) {
+    }
+
+    private static final class Recorder {
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LatencyHistogram latencyMicros = new LatencyHistogram();
+        private final LatencyHistogram queueingMicros = new LatencyHistogram();
+        private final LatencyHistogram serviceMicros = new LatencyHistogram();
+        private final Map<Order.OrderStatus, LatencyHistogram> latencyMicrosByStatus = new ConcurrentHashMap<>();
+
+        void completed(Order order, long arrivalNanos, Duration serviceTime) {
+            completed.increment();
+            long latency = latency(order, arrivalNanos);
+            if (serviceTime != null) {
+                long service = TimeUnit.NANOSECONDS.toMicros(serviceTime.toNanos());
+                serviceMicros.record(service);
+                queueingMicros.record(Math.max(0, latency - service));
+            }
+        }
+
+        void shed(Order order, long arrivalNanos) {
+            shed.increment();
+            latency(order, arrivalNanos);
+        }
+
+        void failed(Order order, long arrivalNanos) {
+            failed.increment();
+            latency(order, arrivalNanos);
+        }
+
+        long finished() {
+            return completed.sum() + shed.sum() + failed.sum();
+        }
+
+        private long latency(Order order, long arrivalNanos) {
+            long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - arrivalNanos);
+            latencyMicros.record(latency);
+            latencyMicrosByStatus.computeIfAbsent(order.status(), status -> new LatencyHistogram()).record(latency);
+            return latency;
+        }
+
+        Report report(Plan plan, int sent, long dispatchNanos, long elapsedNanos,
+                      List<KeyedConcurrencyLimiter.Snapshot> limitTimeline) {
+            Map<Order.OrderStatus, LatencyHistogram.Snapshot> byStatus = new EnumMap<>(Order.OrderStatus.class);
+            latencyMicrosByStatus.forEach((status, histogram) -> byStatus.put(status, histogram.snapshot()));
+            return new Report(
+                    plan,
+                    sent,
+                    completed.sum(),
+                    shed.sum(),
+                    failed.sum(),
+                    plan.orderCount() - finished(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    sent / Math.max(1e-9, dispatchNanos / 1e9),
+                    completed.sum() / Math.max(1e-9, elapsedNanos / 1e9),
+                    latencyMicros.snapshot(),
+                    plan.batched() ? null : queueingMicros.snapshot(),
+                    plan.batched() ? null : serviceMicros.snapshot(),
+                    byStatus,
+                    limitTimeline
+            );
+        }
+    }
+
+    /**
+     * Where orders run: submit them as they arrive, then wait for all of them up to the deadline.
+     * Closing cancels whatever is still running.
+     */
+    private interface Runner extends AutoCloseable {
+
+        void submit(Runnable task);
+
+        /**
+         * @param sampler called about once a second while waiting
+         * @return {@code false} if the deadline passed before every order finished
+         */
+        boolean awaitUntil(long deadlineNanos, Runnable sampler) throws InterruptedException;
+
+        @Override
+        void close();
+    }
+
+    private static final class ExecutorRunner implements Runner {
+
+        private final ExecutorService executor;
+
+        private ExecutorRunner(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void submit(Runnable task) {
+            executor.execute(task);
+        }
+
+        @Override
+        public boolean awaitUntil(long deadlineNanos, Runnable sampler) throws InterruptedException {
+            executor.shutdown();
+            while (true) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (executor.awaitTermination(Math.clamp(remaining, 0, SAMPLE_INTERVAL_NANOS), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                sampler.run();
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+
+    private static final class ScopeRunner implements Runner {
+
+        private final TaskScope scope;
+
+        private ScopeRunner(TaskScope scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public void submit(Runnable task) {
+            scope.fork(Executors.callable(task));
+        }
+
+        @Override
+        public boolean awaitUntil(long deadlineNanos, Runnable sampler) throws InterruptedException {
+            while (true) {
+                long remaining = deadlineNanos - System.nanoTime();
+                try {
+                    scope.joinUntil(Instant.now().plusNanos(Math.clamp(remaining, 0, SAMPLE_INTERVAL_NANOS)));
+                    return true;
+                } catch (TimeoutException e) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    sampler.run();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            scope.close();
+        }
+    }
+}
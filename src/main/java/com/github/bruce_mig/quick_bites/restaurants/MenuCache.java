@@ -0,0 +1,238 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.resilience.SingleFlight;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, in-memory menu cache in front of the flaky partner API, with stale-while-revalidate.
+ *
+ * A fresh entry (younger than the TTL) is served as is. An expired one is still served straight away
+ * while a single background refresh - including its {@code @Retryable} retries - fetches a new menu;
+ * callers never wait on the partner for a menu we already have. If the refresh fails the stale menu
+ * simply stays in place. Only once an entry is older than {@code max-stale} do callers wait for a
+ * fresh fetch, and even then the stale menu is served if that fetch fails.
+ *
+ * Partner fetches are coalesced per restaurant: a burst of misses for the same menu, and a background
+ * refresh running at the same time, all share one fetch and its retries. An invalidation starts a new
+ * generation of the restaurant's menu: a fetch already in flight is neither cached nor joined by later
+ * callers, since it may still return the menu that was just invalidated.
+ *
+ * When full, the least recently read entry is evicted.
+ */
+@Component
+public class MenuCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuCache.class);
+
+    private final PartnerMenuClient partnerMenuClient;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<Flight, Entry> partnerFetches = new SingleFlight<>();
+    // Bumped before an invalidation removes entries, so fetches started earlier can tell
+    private final AtomicLong allInvalidations = new AtomicLong();
+    private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+    private final ExecutorService refreshers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MenuCache(PartnerMenuClient partnerMenuClient,
+                     @Value("${quick-bites.menu-cache.ttl:30s}") Duration ttl,
+                     @Value("${quick-bites.menu-cache.max-stale:10m}") Duration maxStale,
+                     @Value("${quick-bites.menu-cache.max-size:1000}") int maxSize) {
+        this.partnerMenuClient = partnerMenuClient;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * The restaurant's menu, from the cache where possible.
+     *
+     * @throws RestaurantApiException if the menu is not cached and the partner fetch failed
+     * @throws RestaurantNotFoundException if the restaurant is not in the catalog
+     */
+    public Lookup getMenu(String restaurantId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(restaurantId);
+        if (entry == null) {
+            misses.increment();
+            return new Lookup(load(restaurantId).menu(), CacheStatus.MISS, 0);
+        }
+        entry.lastReadNanos = now;
+        long age = now - entry.loadedNanos;
+        if (age < ttlNanos) {
+            hits.increment();
+            return entry.lookup(CacheStatus.HIT, age);
+        }
+        if (age < maxStaleNanos) {
+            staleHits.increment();
+            refreshInBackground(restaurantId, entry);
+            return entry.lookup(CacheStatus.STALE, age);
+        }
+        // Too old to serve without trying the partner first - but better stale than nothing
+        misses.increment();
+        try {
+            return new Lookup(load(restaurantId).menu(), CacheStatus.MISS, 0);
+        } catch (RestaurantNotFoundException e) {
+            // Gone from the catalog - its stale menu is no answer
+            entries.remove(restaurantId, entry);
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Menu for {} could not be refreshed, serving stale copy: {}", restaurantId, e.getMessage());
+            staleHits.increment();
+            return entry.lookup(CacheStatus.STALE, age);
+        }
+    }
+
+    public void invalidate(String restaurantId) {
+        invalidations.merge(restaurantId, 1L, Long::sum);
+        entries.remove(restaurantId);
+    }
+
+    public void invalidateAll() {
+        allInvalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(entries.size(), maxSize, TimeUnit.NANOSECONDS.toMillis(ttlNanos),
+                TimeUnit.NANOSECONDS.toMillis(maxStaleNanos), hits.sum(), staleHits.sum(), misses.sum(),
+                refreshes.sum(), refreshFailures.sum(), evictions.sum(),
+                partnerFetches.executions(), partnerFetches.deduplicated());
+    }
+
+    @PreDestroy
+    private void stop() {
+        refreshers.shutdownNow();
+    }
+
+    private Entry load(String restaurantId) {
+        long generation = generation(restaurantId);
+        return partnerFetches.execute(new Flight(restaurantId, generation), () -> {
+            Entry loaded = new Entry(partnerMenuClient.getMenu(restaurantId));
+            // Checked under the key's lock, so an invalidation either sees this entry or keeps it out
+            entries.compute(restaurantId, (key, current) -> generation(restaurantId) == generation ? loaded : current);
+            evictIfFull();
+            return loaded;
+        });
+    }
+
+    private long generation(String restaurantId) {
+        return allInvalidations.get() + invalidations.getOrDefault(restaurantId, 0L);
+    }
+
+    // One refresh per entry at a time; a failed refresh leaves the stale entry in place
+    private void refreshInBackground(String restaurantId, Entry stale) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshers.execute(() -> {
+                refreshes.increment();
+                try {
+                    partnerFetches.execute(new Flight(restaurantId, generation(restaurantId)), () -> {
+                        Entry refreshed = new Entry(partnerMenuClient.getMenu(restaurantId));
+                        refreshed.lastReadNanos = stale.lastReadNanos;
+                        // Don't resurrect an entry that was invalidated or evicted meanwhile
+                        entries.replace(restaurantId, stale, refreshed);
+                        return refreshed;
+                    });
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("⚠️ Background menu refresh for {} failed, keeping stale copy: {}",
+                            restaurantId, e.getMessage());
+                } finally {
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    // Least recently read goes first; a linear scan is fine at menu-cache sizes and only runs when full
+    private void evictIfFull() {
+        while (entries.size() > maxSize) {
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (oldest == null || candidate.getValue().lastReadNanos - oldest.getValue().lastReadNanos < 0) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null || !entries.remove(oldest.getKey(), oldest.getValue())) {
+                return;
+            }
+            evictions.increment();
+        }
+    }
+
+    private record Flight(String restaurantId, long generation) {
+    }
+
+    private static final class Entry {
+
+        private final List<MenuItem> menu;
+        private final long loadedNanos = System.nanoTime();
+        private volatile long lastReadNanos = loadedNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<MenuItem> menu) {
+            this.menu = menu;
+        }
+
+        List<MenuItem> menu() {
+            return menu;
+        }
+
+        Lookup lookup(CacheStatus status, long ageNanos) {
+            return new Lookup(menu, status, TimeUnit.NANOSECONDS.toMillis(ageNanos));
+        }
+    }
+
+    public enum CacheStatus {
+        HIT, STALE, MISS
+    }
+
+    public record Lookup(List<MenuItem> menu, CacheStatus status, long ageMillis) {
+    }
+
+    public record Stats(
+            int size,
+            int maxSize,
+            long ttlMillis,
+            long maxStaleMillis,
+            long hits,
+            long staleHits,
+            long misses,
+            long refreshes,
+            long refreshFailures,
+            long evictions,
+            long partnerFetches,
+            long deduplicatedFetches
+    ) {
+    }
+}
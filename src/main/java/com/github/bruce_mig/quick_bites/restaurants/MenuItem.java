@@ -1,13 +1,13 @@
 package com.github.bruce_mig.quick_bites.restaurants;
 
-import java.math.BigDecimal;
+import com.github.bruce_mig.quick_bites.money.Money;
 
 public record MenuItem(
         String id,
         String restaurantId,
         String name,
         String description,
-        BigDecimal price,
+        Money price,
         String category,
         boolean available
 ) {}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu item search over the current catalog.
+ *
+ * The {@link MenuSearchIndex} is built on the first search against a catalog version and reused until the
+ * catalog changes, so reloads stay cheap and only searching pays for the index.
+ */
+@Component
+class MenuSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuSearch.class);
+
+    private final DataLoader dataLoader;
+
+    private volatile MenuSearchIndex index;
+
+    MenuSearch(DataLoader dataLoader) {
+        this.dataLoader = dataLoader;
+    }
+
+    MenuSearchIndex.Result search(MenuSearchIndex.Query query) {
+        return index().search(query);
+    }
+
+    MenuSearchIndex index() {
+        RestaurantCatalog catalog = dataLoader.catalog();
+        MenuSearchIndex current = index;
+        if (current != null && current.catalogVersion() == catalog.version()) {
+            return current;
+        }
+        synchronized (this) {
+            catalog = dataLoader.catalog();
+            if (index == null || index.catalogVersion() != catalog.version()) {
+                long start = System.nanoTime();
+                index = MenuSearchIndex.build(catalog);
+                log.info("🔎 Indexed {} menu items ({} terms) for catalog version {} in {}ms",
+                        index.size(), index.terms(), catalog.version(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return index;
+        }
+    }
+}
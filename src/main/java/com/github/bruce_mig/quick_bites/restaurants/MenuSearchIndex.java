@@ -0,0 +1,364 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable full-text and filter index over one catalog version's menu items.
+ *
+ * Every menu item gets a document number - its position in id order - and everything else is keyed by it:
+ * posting lists ({@code int[]} of document numbers, ascending) per word of the name and description, per
+ * category and per cuisine; price in cents and availability as primitive columns; and for each sort key the
+ * documents in sorted order plus each document's rank in it.
+ *
+ * A search intersects the posting lists of its words and of the category and cuisine it filters on,
+ * shortest list first, then checks price and availability against the columns. Few matches are sorted by
+ * their precomputed rank. Many matches (or no list to intersect at all) are marked in a bitmap, filtered 64
+ * documents at a time in one sequential pass over the columns, and the page is read off by walking the
+ * documents in sort order until it is full. Neither way sorts more than the candidates or copies more items
+ * than the page.
+ */
+final class MenuSearchIndex {
+
+    private static final int[] NO_DOCS = new int[0];
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    private final long catalogVersion;
+    private final MenuItem[] items;
+    private final long[] priceCents;
+    // Availability bitmap: bit (doc % 64) of word (doc / 64)
+    private final long[] availableWords;
+    private final Map<String, int[]> postingsByTerm;
+    private final Map<String, int[]> postingsByCategory;
+    private final Map<String, int[]> postingsByCuisine;
+    // Indexed by Sort.ordinal()
+    private final int[][] docsInOrder;
+    private final int[][] ranks;
+
+    private MenuSearchIndex(long catalogVersion, MenuItem[] items, long[] priceCents, long[] availableWords,
+                            Map<String, int[]> postingsByTerm, Map<String, int[]> postingsByCategory,
+                            Map<String, int[]> postingsByCuisine, int[][] docsInOrder, int[][] ranks) {
+        this.catalogVersion = catalogVersion;
+        this.items = items;
+        this.priceCents = priceCents;
+        this.availableWords = availableWords;
+        this.postingsByTerm = postingsByTerm;
+        this.postingsByCategory = postingsByCategory;
+        this.postingsByCuisine = postingsByCuisine;
+        this.docsInOrder = docsInOrder;
+        this.ranks = ranks;
+    }
+
+    static MenuSearchIndex build(RestaurantCatalog catalog) {
+        MenuItem[] items = catalog.menuItemsById().values().stream()
+                .sorted(Comparator.comparing(MenuItem::id))
+                .toArray(MenuItem[]::new);
+        int count = items.length;
+        long[] priceCents = new long[count];
+        double[] ratings = new double[count];
+        long[] availableWords = new long[(count + 63) >>> 6];
+        Map<String, PostingList> terms = new HashMap<>();
+        Map<String, PostingList> categories = new HashMap<>();
+        Map<String, PostingList> cuisines = new HashMap<>();
+
+        for (int doc = 0; doc < count; doc++) {
+            MenuItem item = items[doc];
+            priceCents[doc] = item.price() == null ? -1 : item.price().minorUnits();
+            if (item.available()) {
+                availableWords[doc >>> 6] |= 1L << doc;
+            }
+            for (String term : tokenize(item.name())) {
+                terms.computeIfAbsent(term, t -> new PostingList()).add(doc);
+            }
+            for (String term : tokenize(item.description())) {
+                terms.computeIfAbsent(term, t -> new PostingList()).add(doc);
+            }
+            if (item.category() != null) {
+                categories.computeIfAbsent(item.category(), c -> new PostingList()).add(doc);
+            }
+            Restaurant restaurant = catalog.restaurant(item.restaurantId());
+            ratings[doc] = restaurant == null ? 0 : restaurant.rating();
+            if (restaurant != null && restaurant.cuisine() != null) {
+                cuisines.computeIfAbsent(restaurant.cuisine(), c -> new PostingList()).add(doc);
+            }
+        }
+
+        int[][] docsInOrder = new int[Sort.values().length][];
+        int[][] ranks = new int[Sort.values().length][];
+        for (Sort sort : Sort.values()) {
+            Comparator<Integer> order = switch (sort) {
+                case NAME -> Comparator.comparing(doc -> items[doc].name(),
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case PRICE -> Comparator.comparingLong(doc -> priceCents[doc]);
+                case RATING -> Comparator.comparingDouble(doc -> ratings[doc]);
+            };
+            Integer[] docs = new Integer[count];
+            Arrays.setAll(docs, doc -> doc);
+            // Stable sort: ties stay in id order
+            Arrays.sort(docs, order);
+            int[] sorted = new int[count];
+            int[] rank = new int[count];
+            for (int position = 0; position < count; position++) {
+                sorted[position] = docs[position];
+                rank[docs[position]] = position;
+            }
+            docsInOrder[sort.ordinal()] = sorted;
+            ranks[sort.ordinal()] = rank;
+        }
+
+        return new MenuSearchIndex(catalog.version(), items, priceCents, availableWords,
+                freeze(terms), freeze(categories), freeze(cuisines), docsInOrder, ranks);
+    }
+
+    long catalogVersion() {
+        return catalogVersion;
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    int terms() {
+        return postingsByTerm.size();
+    }
+
+    Result search(Query query) {
+        long start = System.nanoTime();
+        long minCents = query.minPrice() == null ? 0 : Math.max(0, toCents(query.minPrice(), RoundingMode.CEILING));
+        long maxCents = query.maxPrice() == null ? Long.MAX_VALUE : toCents(query.maxPrice(), RoundingMode.FLOOR);
+        if (maxCents < minCents) {
+            // No whole cent in range, e.g. 4.991 to 4.999, or a negative maximum
+            return new Result(0, query.page(), query.size(), List.of(),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+
+        // Every word, the category and the cuisine must match: intersect their posting lists
+        List<int[]> lists = new ArrayList<>();
+        for (String term : tokenize(query.text())) {
+            lists.add(postingsByTerm.getOrDefault(term, NO_DOCS));
+        }
+        if (query.category() != null) {
+            lists.add(postingsByCategory.getOrDefault(query.category(), NO_DOCS));
+        }
+        if (query.cuisine() != null) {
+            lists.add(postingsByCuisine.getOrDefault(query.cuisine(), NO_DOCS));
+        }
+        int[] candidates = null;
+        int candidateCount = items.length;
+        if (!lists.isEmpty()) {
+            lists.sort(Comparator.comparingInt(list -> list.length));
+            candidates = lists.getFirst();
+            candidateCount = candidates.length;
+            for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+                int[] intersection = new int[candidateCount];
+                candidateCount = intersect(candidates, candidateCount, lists.get(i), intersection);
+                candidates = intersection;
+            }
+        }
+
+        boolean priceFiltered = query.minPrice() != null || query.maxPrice() != null;
+        // One unsigned comparison per price: below the minimum (or no price, -1) wraps around above the span,
+        // which is never negative here
+        long priceSpan = maxCents - minCents;
+        long from = (long) query.page() * query.size();
+        List<MenuItem> page = new ArrayList<>(query.size());
+        int total = 0;
+
+        if (candidates == null || candidateCount > items.length / 16) {
+            // Many candidates: mark the matches in a bitmap, filtering 64 documents at a time, then walk the
+            // documents in sort order only until the page is full - no sorting, and the total is the number of marks
+            long[] matched = new long[availableWords.length];
+            if (candidates == null) {
+                Arrays.fill(matched, -1L);
+                if ((items.length & 63) != 0) {
+                    matched[matched.length - 1] = (1L << items.length) - 1;
+                }
+            } else {
+                for (int i = 0; i < candidateCount; i++) {
+                    matched[candidates[i] >>> 6] |= 1L << candidates[i];
+                }
+            }
+            for (int word = 0; word < matched.length; word++) {
+                long bits = matched[word];
+                if (query.available() != null) {
+                    bits &= query.available() ? availableWords[word] : ~availableWords[word];
+                }
+                if (priceFiltered && bits != 0) {
+                    int base = word << 6;
+                    int end = Math.min(64, items.length - base);
+                    long inRange = 0;
+                    for (int bit = 0; bit < end; bit++) {
+                        inRange |= (Long.compareUnsigned(priceCents[base + bit] - minCents, priceSpan) <= 0 ? 1L : 0L) << bit;
+                    }
+                    bits &= inRange;
+                }
+                matched[word] = bits;
+                total += Long.bitCount(bits);
+            }
+            int[] order = docsInOrder[query.sort().ordinal()];
+            long seen = 0;
+            for (int position = 0; position < order.length && page.size() < query.size() && seen < total; position++) {
+                int doc = order[query.descending() ? order.length - 1 - position : position];
+                if ((matched[doc >>> 6] & 1L << doc) != 0 && seen++ >= from) {
+                    page.add(items[doc]);
+                }
+            }
+        } else {
+            // Few candidates: filter them, then sort by precomputed rank packed above the document number
+            int[] rank = ranks[query.sort().ordinal()];
+            long[] hits = new long[candidateCount];
+            for (int i = 0; i < candidateCount; i++) {
+                int doc = candidates[i];
+                if (matches(doc, query.available(), priceFiltered, minCents, priceSpan)) {
+                    hits[total++] = (long) rank[doc] << 32 | doc;
+                }
+            }
+            Arrays.sort(hits, 0, total);
+            for (long i = from; i < total && page.size() < query.size(); i++) {
+                long hit = hits[(int) (query.descending() ? total - 1 - i : i)];
+                page.add(items[(int) hit]);
+            }
+        }
+
+        return new Result(total, query.page(), query.size(), List.copyOf(page),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    private boolean matches(int doc, Boolean wantAvailable, boolean priceFiltered, long minCents, long priceSpan) {
+        if (wantAvailable != null && ((availableWords[doc >>> 6] & 1L << doc) != 0) != wantAvailable) {
+            return false;
+        }
+        return !priceFiltered || Long.compareUnsigned(priceCents[doc] - minCents, priceSpan) <= 0;
+    }
+
+    // Both inputs ascending; writes the common documents to out and returns how many
+    private static int intersect(int[] left, int leftCount, int[] right, int[] out) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftCount && j < right.length) {
+            int a = left[i];
+            int b = right[j];
+            if (a == b) {
+                out[count++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, each once, in order of appearance.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Query bounds to whole cents, rounded inwards; bounds beyond what a long holds are clamped to it
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        if (price.compareTo(MAX_CENTS) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (price.compareTo(MIN_CENTS) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private static Map<String, int[]> freeze(Map<String, PostingList> postings) {
+        Map<String, int[]> frozen = HashMap.newHashMap(postings.size());
+        postings.forEach((key, list) -> frozen.put(key, list.toArray()));
+        return frozen;
+    }
+
+    // Growable int[] of ascending document numbers; a document is added once however often its word appears
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+
+    enum Sort {
+        NAME, PRICE, RATING
+    }
+
+    /**
+     * @param text      words that must all appear in the name or description, case-insensitive; null for none
+     * @param cuisine   the restaurant's cuisine, exactly as in the catalog
+     * @param category  exactly as in the catalog
+     * @param minPrice  inclusive
+     * @param maxPrice  inclusive
+     * @param available null for available and unavailable items alike
+     * @param page      zero-based
+     */
+    record Query(
+            String text,
+            String cuisine,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean available,
+            Sort sort,
+            boolean descending,
+            int page,
+            int size
+    ) {
+    }
+
+    /**
+     * One page of results, with the total number of matches and the search time.
+     */
+    record Result(
+            int total,
+            int page,
+            int size,
+            List<MenuItem> items,
+            long tookMicros
+    ) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+public class NotificationRejectedException extends RuntimeException {
+    public NotificationRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.resilience.CircuitBreaker;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The one circuit breaker shared by every call to the restaurant partner API: once 80% of the last
+ * 20 attempts failed, the circuit opens for 10s, then 3 probe calls decide whether it closes again.
+ * The threshold sits well above the partner's usual 40% flakiness, so only a real outage opens it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@CircuitBreaker(
+        name = RestaurantService.PARTNER_API,
+        slidingWindowSize = 20,
+        minimumCalls = 20,
+        failureRateThreshold = 80,
+        openDurationMillis = 10_000,
+        probeCalls = 3,
+        includes = RestaurantApiException.class
+)
+@interface PartnerApiCircuitBreaker {
+}
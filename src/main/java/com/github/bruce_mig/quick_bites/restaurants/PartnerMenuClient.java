@@ -0,0 +1,96 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.resilience.RequestHedger;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudget;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgetRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Entry point for partner menu fetches, with opt-in hedging.
+ *
+ * Without hedging a fetch is {@link RestaurantService#getMenuFromPartner(String)}: one attempt at a time,
+ * backing off between retries, so an unlucky first attempt sets the latency of the whole call. With
+ * hedging, single attempts are raced by a {@link RequestHedger} and the call fails if both attempts do -
+ * there is no fallback to the retry loop, so a hedged call costs the partner at most two calls. Hedged
+ * attempts are recorded against the partner API's {@link RetryBudget}, and every hedge is paid for from
+ * it like a retry.
+ */
+@Component
+public class PartnerMenuClient {
+
+    private static final Logger log = LoggerFactory.getLogger(PartnerMenuClient.class);
+
+    static final String HEDGED_FETCH = "PartnerMenuClient.getMenuHedged";
+
+    private final RestaurantService restaurantService;
+    private final RetryBudget retryBudget;
+    private final RequestHedger hedger;
+    private volatile boolean hedgingEnabled;
+
+    public PartnerMenuClient(RestaurantService restaurantService,
+                             RetryBudgetRegistry retryBudgetRegistry,
+                             @Value("${quick-bites.partner.hedging.enabled:false}") boolean hedgingEnabled,
+                             @Value("${quick-bites.partner.hedging.percentile:95}") double percentile,
+                             @Value("${quick-bites.partner.hedging.initial-delay:300ms}") Duration initialDelay,
+                             @Value("${quick-bites.partner.hedging.min-delay:50ms}") Duration minDelay,
+                             @Value("${quick-bites.partner.hedging.budget-ratio:0.5}") double budgetRatio) {
+        this.restaurantService = restaurantService;
+        this.retryBudget = retryBudgetRegistry.budget(RestaurantService.PARTNER_API);
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedger = new RequestHedger(RestaurantService.PARTNER_API, percentile, initialDelay, minDelay, budgetRatio,
+                () -> retryBudget.tryAcquireRetry(HEDGED_FETCH));
+    }
+
+    public List<MenuItem> getMenu(String restaurantId) {
+        return hedgingEnabled ? getMenuHedged(restaurantId) : restaurantService.getMenuFromPartner(restaurantId);
+    }
+
+    public List<MenuItem> getMenuRetrying(String restaurantId) {
+        return restaurantService.getMenuFromPartner(restaurantId);
+    }
+
+    public List<MenuItem> getMenuHedged(String restaurantId) {
+        // Settled before racing attempts, so an unknown id is not hedged like a failure
+        if (restaurantService.catalog().restaurant(restaurantId) == null) {
+            throw new RestaurantNotFoundException(restaurantId);
+        }
+        try {
+            return hedger.execute(() -> {
+                retryBudget.recordAttempt(HEDGED_FETCH);
+                return restaurantService.fetchMenuAttempt(restaurantId);
+            });
+        } catch (RuntimeException e) {
+            log.debug("Hedged attempts for {} failed: {}", restaurantId, e.getMessage());
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestaurantApiException("Interrupted while fetching menu for " + restaurantId);
+        } catch (Exception e) {
+            throw new RestaurantApiException("Hedged menu fetch for " + restaurantId + " failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    public RequestHedger.Snapshot hedgingStats() {
+        return hedger.snapshot();
+    }
+
+    @PreDestroy
+    private void stop() {
+        hedger.close();
+    }
+}
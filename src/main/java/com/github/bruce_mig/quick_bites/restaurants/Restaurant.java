@@ -8,5 +8,12 @@ public record Restaurant(
         String cuisine,
         double rating,
         String address,
+        double latitude,
+        double longitude,
         List<String> menuItemIds
-) {}
\ No newline at end of file
+) {
+
+    public Restaurant {
+        menuItemIds = menuItemIds == null ? List.of() : List.copyOf(menuItemIds);
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of the restaurant catalog with every read path indexed up front.
+ *
+ * Menus are resolved once per restaurant (available items, in menu order), and restaurants by cuisine,
+ * menu items by category and by price band are grouped when the snapshot is built. Every lookup is then a
+ * single hash lookup that hands out a shared immutable list - no streams, no copies, no allocation.
+ *
+ * A snapshot never changes after construction: a reload builds a new one (see
+ * {@link #withChanges(CatalogDiff, long)}) and swaps it in whole, so a reader holding a snapshot always
+ * sees one consistent catalog.
+ */
+public final class RestaurantCatalog {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<Restaurant> restaurants;
+    private final Map<String, Restaurant> restaurantsById;
+    private final Map<String, MenuItem> menuItemsById;
+    private final Map<String, List<MenuItem>> menusByRestaurant;
+    private final Map<String, List<String>> restaurantIdsByMenuItem;
+    private final Map<String, List<Restaurant>> restaurantsByCuisine;
+    private final Map<String, List<MenuItem>> menuItemsByCategory;
+    private final Map<PriceBand, List<MenuItem>> menuItemsByPriceBand;
+
+    public RestaurantCatalog(long version, Collection<Restaurant> restaurants, Collection<MenuItem> menuItems) {
+        this(version, index(restaurants, Restaurant::id), index(menuItems, MenuItem::id), Map.of());
+    }
+
+    /**
+     * A catalog over entries already indexed by id, as they are while a data file is streamed in.
+     */
+    static RestaurantCatalog ofIndexed(long version, Map<String, Restaurant> restaurantsById,
+                                       Map<String, MenuItem> menuItemsById) {
+        return new RestaurantCatalog(version, restaurantsById, menuItemsById, Map.of());
+    }
+
+    /**
+     * @param restaurantsById taken over, not copied - callers hand in a map nobody else holds
+     * @param menuItemsById taken over, not copied - callers hand in a map nobody else holds
+     * @param menus menus already resolved against these menu items; every other restaurant's menu is resolved here
+     */
+    private RestaurantCatalog(long version, Map<String, Restaurant> restaurantsById, Map<String, MenuItem> menuItemsById,
+                              Map<String, List<MenuItem>> menus) {
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.restaurantsById = Collections.unmodifiableMap(restaurantsById);
+        this.menuItemsById = Collections.unmodifiableMap(menuItemsById);
+        this.restaurants = this.restaurantsById.values().stream()
+                .sorted(Comparator.comparing(Restaurant::id))
+                .toList();
+
+        Map<String, List<MenuItem>> resolved = new HashMap<>();
+        Map<String, List<String>> references = new HashMap<>();
+        for (Restaurant restaurant : this.restaurants) {
+            List<MenuItem> menu = menus.get(restaurant.id());
+            resolved.put(restaurant.id(), menu != null ? menu : resolveMenu(restaurant, this.menuItemsById));
+            for (String menuItemId : restaurant.menuItemIds()) {
+                references.computeIfAbsent(menuItemId, id -> new ArrayList<>()).add(restaurant.id());
+            }
+        }
+        this.menusByRestaurant = Map.copyOf(resolved);
+        Map<String, List<String>> immutableReferences = new HashMap<>();
+        references.forEach((menuItemId, restaurantIds) -> immutableReferences.put(menuItemId, List.copyOf(restaurantIds)));
+        this.restaurantIdsByMenuItem = Map.copyOf(immutableReferences);
+
+        List<MenuItem> onMenus = this.restaurants.stream()
+                .flatMap(restaurant -> menusByRestaurant.get(restaurant.id()).stream())
+                .toList();
+        this.restaurantsByCuisine = group(this.restaurants, Restaurant::cuisine);
+        this.menuItemsByCategory = group(onMenus, MenuItem::category);
+        Map<PriceBand, List<MenuItem>> byPriceBand = new EnumMap<>(PriceBand.class);
+        group(onMenus, item -> PriceBand.of(item.price())).forEach(byPriceBand::put);
+        this.menuItemsByPriceBand = byPriceBand;
+    }
+
+    /**
+     * A new snapshot with {@code diff} applied. Unchanged entries are carried over as they are and only
+     * the menus of {@link #restaurantsAffectedBy(CatalogDiff) affected restaurants} are resolved again; the
+     * cuisine, category and price band groups are regrouped from the resulting menus.
+     */
+    public RestaurantCatalog withChanges(CatalogDiff diff, long newVersion) {
+        Map<String, Restaurant> restaurants = new HashMap<>(restaurantsById);
+        restaurants.keySet().removeAll(diff.removedRestaurantIds());
+        restaurants.putAll(diff.upsertedRestaurants());
+        Map<String, MenuItem> menuItems = new HashMap<>(menuItemsById);
+        menuItems.keySet().removeAll(diff.removedMenuItemIds());
+        menuItems.putAll(diff.upsertedMenuItems());
+
+        Map<String, List<MenuItem>> menus = new HashMap<>(menusByRestaurant);
+        menus.keySet().removeAll(restaurantsAffectedBy(diff));
+        return new RestaurantCatalog(newVersion, restaurants, menuItems, menus);
+    }
+
+    /**
+     * Restaurants whose menu may change with {@code diff}: restaurants added, changed or removed, and
+     * restaurants listing a menu item that is added, changed or removed.
+     */
+    public Set<String> restaurantsAffectedBy(CatalogDiff diff) {
+        Set<String> affected = new HashSet<>(diff.upsertedRestaurants().keySet());
+        affected.addAll(diff.removedRestaurantIds());
+        for (String menuItemId : diff.upsertedMenuItems().keySet()) {
+            affected.addAll(restaurantIdsByMenuItem.getOrDefault(menuItemId, List.of()));
+        }
+        for (String menuItemId : diff.removedMenuItemIds()) {
+            affected.addAll(restaurantIdsByMenuItem.getOrDefault(menuItemId, List.of()));
+        }
+        return affected;
+    }
+
+    public static RestaurantCatalog empty() {
+        return new RestaurantCatalog(0, List.of(), List.of());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * All restaurants, ordered by id.
+     */
+    public List<Restaurant> restaurants() {
+        return restaurants;
+    }
+
+    public Map<String, Restaurant> restaurantsById() {
+        return restaurantsById;
+    }
+
+    public Map<String, MenuItem> menuItemsById() {
+        return menuItemsById;
+    }
+
+    public Restaurant restaurant(String id) {
+        return restaurantsById.get(id);
+    }
+
+    public MenuItem menuItem(String id) {
+        return menuItemsById.get(id);
+    }
+
+    /**
+     * The restaurant's available menu items, in menu order - empty for an unknown restaurant.
+     */
+    public List<MenuItem> menu(String restaurantId) {
+        return menusByRestaurant.getOrDefault(restaurantId, List.of());
+    }
+
+    /**
+     * @param cuisine exactly as in the catalog, e.g. "Italian"
+     */
+    public List<Restaurant> restaurantsByCuisine(String cuisine) {
+        return restaurantsByCuisine.getOrDefault(cuisine, List.of());
+    }
+
+    /**
+     * Available menu items in a category, exactly as in the catalog (e.g. "Burgers").
+     */
+    public List<MenuItem> menuItemsByCategory(String category) {
+        return menuItemsByCategory.getOrDefault(category, List.of());
+    }
+
+    /**
+     * Available menu items in a price band.
+     */
+    public List<MenuItem> menuItemsByPriceBand(PriceBand priceBand) {
+        return menuItemsByPriceBand.getOrDefault(priceBand, List.of());
+    }
+
+    /**
+     * What {@code menuItemIds} - an order's items, a repeated id counting once per occurrence - cost at
+     * {@code restaurantId}, in minor units of {@link Money#DEFAULT_CURRENCY}. Sums the prices as they are
+     * stored, as {@code long}s: nothing is allocated however many items there are.
+     *
+     * @throws IllegalArgumentException if an item is unknown, not on that restaurant's menu, unavailable
+     * or has no price
+     */
+    public long totalMinorUnits(String restaurantId, List<String> menuItemIds) {
+        long total = 0;
+        for (int i = 0, count = menuItemIds.size(); i < count; i++) {
+            String menuItemId = menuItemIds.get(i);
+            MenuItem item = menuItemsById.get(menuItemId);
+            if (item == null || !item.restaurantId().equals(restaurantId)) {
+                throw new IllegalArgumentException("Menu item " + menuItemId + " is not on restaurant " + restaurantId + "'s menu");
+            }
+            Money price = item.price();
+            if (!item.available() || price == null) {
+                throw new IllegalArgumentException("Menu item " + menuItemId + " is not available");
+            }
+            if (!price.currency().equals(Money.DEFAULT_CURRENCY)) {
+                throw new IllegalArgumentException("Menu item " + menuItemId + " is priced in " + price.currency());
+            }
+            total = Math.addExact(total, price.minorUnits());
+        }
+        return total;
+    }
+
+    /**
+     * {@link #totalMinorUnits(String, List)} as {@link Money}.
+     */
+    public Money total(String restaurantId, List<String> menuItemIds) {
+        return Money.of(totalMinorUnits(restaurantId, menuItemIds));
+    }
+
+    public Summary summary() {
+        Map<PriceBand, Integer> priceBands = new EnumMap<>(PriceBand.class);
+        menuItemsByPriceBand.forEach((band, items) -> priceBands.put(band, items.size()));
+        return new Summary(version, loadedAt, restaurants.size(), menuItemsById.size(),
+                restaurantsByCuisine.keySet().stream().sorted().toList(),
+                menuItemsByCategory.keySet().stream().sorted().toList(),
+                priceBands);
+    }
+
+    private static List<MenuItem> resolveMenu(Restaurant restaurant, Map<String, MenuItem> menuItemsById) {
+        List<MenuItem> menu = new ArrayList<>(restaurant.menuItemIds().size());
+        for (String menuItemId : restaurant.menuItemIds()) {
+            MenuItem item = menuItemsById.get(menuItemId);
+            if (item != null && item.available()) {
+                menu.add(item);
+            }
+        }
+        return List.copyOf(menu);
+    }
+
+    private static <T> Map<String, T> index(Collection<T> values, Function<T, String> key) {
+        Map<String, T> index = new HashMap<>();
+        values.forEach(value -> index.put(key.apply(value), value));
+        return index;
+    }
+
+    // Groups keep the order of the input; values without a key are left out
+    private static <K, T> Map<K, List<T>> group(Collection<T> values, Function<T, K> key) {
+        Map<K, List<T>> groups = new LinkedHashMap<>();
+        for (T value : values) {
+            K groupKey = key.apply(value);
+            if (groupKey != null) {
+                groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(value);
+            }
+        }
+        Map<K, List<T>> immutable = new HashMap<>();
+        groups.forEach((groupKey, group) -> immutable.put(groupKey, List.copyOf(group)));
+        return Map.copyOf(immutable);
+    }
+
+    /**
+     * Menu price bands: under $10, $10 to under $15, $15 and up. A price in another currency, like a
+     * missing one, has no band.
+     */
+    public enum PriceBand {
+        BUDGET, STANDARD, PREMIUM;
+
+        private static final Money STANDARD_FROM = Money.parse("10");
+        private static final Money PREMIUM_FROM = Money.parse("15");
+
+        public static PriceBand of(Money price) {
+            if (price == null || !price.currency().equals(Money.DEFAULT_CURRENCY)) {
+                return null;
+            }
+            if (price.compareTo(PREMIUM_FROM) >= 0) {
+                return PREMIUM;
+            }
+            return price.compareTo(STANDARD_FROM) >= 0 ? STANDARD : BUDGET;
+        }
+    }
+
+    public record Summary(
+            long version,
+            Instant loadedAt,
+            int restaurants,
+            int menuItems,
+            List<String> cuisines,
+            List<String> categories,
+            Map<PriceBand, Integer> menuItemsByPriceBand
+    ) {
+    }
+}
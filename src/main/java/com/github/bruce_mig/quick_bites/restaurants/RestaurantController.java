@@ -1,23 +1,38 @@
 package com.github.bruce_mig.quick_bites.restaurants;
 
-import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.resilience.CircuitBreakerOpenException;
+import com.github.bruce_mig.quick_bites.resilience.CircuitBreakerRegistry;
+import com.github.bruce_mig.quick_bites.resilience.ConcurrencyLimiterRegistry;
+import com.github.bruce_mig.quick_bites.resilience.KeyedConcurrencyLimiter;
+import com.github.bruce_mig.quick_bites.resilience.SlidingWindowCircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -25,33 +40,251 @@ public class RestaurantController  {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantController.class);
     private final RestaurantService restaurantService;
+    private final MenuCache menuCache;
+    private final PartnerMenuClient partnerMenuClient;
     private final RestaurantNotificationService restaurantNotificationService;
+    private final RestaurantNotificationBatcher restaurantNotificationBatcher;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final LunchRushLoadGenerator lunchRushLoadGenerator;
+    private final CatalogReloader catalogReloader;
+    private final MenuSearch menuSearch;
+    private final CatalogResponseCache catalogResponseCache;
+    private final JsonMapper jsonMapper;
 
-    public RestaurantController(RestaurantService restaurantService, RestaurantNotificationService restaurantNotificationService) {
+    public RestaurantController(RestaurantService restaurantService,
+                                MenuCache menuCache,
+                                PartnerMenuClient partnerMenuClient,
+                                RestaurantNotificationService restaurantNotificationService,
+                                RestaurantNotificationBatcher restaurantNotificationBatcher,
+                                ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                LunchRushLoadGenerator lunchRushLoadGenerator,
+                                CatalogReloader catalogReloader,
+                                MenuSearch menuSearch,
+                                CatalogResponseCache catalogResponseCache,
+                                JsonMapper jsonMapper) {
         this.restaurantService = restaurantService;
+        this.menuCache = menuCache;
+        this.partnerMenuClient = partnerMenuClient;
         this.restaurantNotificationService = restaurantNotificationService;
+        this.restaurantNotificationBatcher = restaurantNotificationBatcher;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.lunchRushLoadGenerator = lunchRushLoadGenerator;
+        this.catalogReloader = catalogReloader;
+        this.menuSearch = menuSearch;
+        this.catalogResponseCache = catalogResponseCache;
+        this.jsonMapper = jsonMapper;
     }
 
+    /**
+     * All restaurants, or those of one cuisine, in id order. Without {@code limit} or {@code cursor} the
+     * whole list is returned pre-encoded per catalog version, gzipped when accepted, and as a 304 when
+     * {@code If-None-Match} has the current ETag. With them, one page of up to {@code limit} restaurants is
+     * returned with the {@code nextCursor} to pass for the next one.
+     */
     @GetMapping
-    public List<Restaurant> findAllRestaurants() {
-        return restaurantService.findAll();
+    public ResponseEntity<?> findAllRestaurants(@RequestParam(required = false) String cuisine,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RestaurantCatalog catalog = restaurantService.catalog();
+        if (limit == null && cursor == null) {
+            CatalogResponseCache.EncodedResponse restaurants = catalogResponseCache.restaurants(catalog, cuisine);
+            return restaurants.response(acceptEncoding).body(restaurants.body(acceptEncoding));
+        }
+        List<Restaurant> restaurants = cuisine == null ? catalog.restaurants() : catalog.restaurantsByCuisine(cuisine);
+        try {
+            return ResponseEntity.ok(RestaurantPage.of(restaurants, cursor,
+                    Math.clamp(limit == null ? 100 : limit, 1, RestaurantPage.MAX_LIMIT), catalog.version()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor '" + cursor + "'"));
+        }
+    }
+
+    /**
+     * All restaurants, or those of one cuisine, as newline-delimited JSON written straight from the catalog
+     * to the response - one restaurant at a time, so memory stays flat however large the catalog is. The
+     * whole stream comes from the catalog version current when it started.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRestaurants(@RequestParam(required = false) String cuisine) {
+        RestaurantCatalog catalog = restaurantService.catalog();
+        List<Restaurant> restaurants = cuisine == null ? catalog.restaurants() : catalog.restaurantsByCuisine(cuisine);
+        ObjectWriter writer = jsonMapper.writerFor(Restaurant.class)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter lines = writer.writeValues(out)) {
+                lines.writeAll(restaurants);
+            }
+            if (!restaurants.isEmpty()) {
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("X-Catalog-Version", String.valueOf(catalog.version()))
+                .body(body);
+    }
+
+    /**
+     * Available menu items across all restaurants in a category (e.g. "Burgers"), a price band
+     * (budget, standard, premium), or both - straight from the catalog's indexes.
+     */
+    @GetMapping("/menu-items")
+    public ResponseEntity<?> findMenuItems(@RequestParam(required = false) String category,
+                                           @RequestParam(required = false) String priceBand) {
+        RestaurantCatalog catalog = restaurantService.catalog();
+        RestaurantCatalog.PriceBand band = null;
+        if (priceBand != null) {
+            try {
+                band = RestaurantCatalog.PriceBand.valueOf(priceBand.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Unknown price band '" + priceBand + "'",
+                        "priceBands", List.of("budget", "standard", "premium")
+                ));
+            }
+        }
+        if (category == null && band == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Pass a category, a priceBand, or both"));
+        }
+        if (band == null) {
+            return ResponseEntity.ok(catalog.menuItemsByCategory(category));
+        }
+        if (category == null) {
+            return ResponseEntity.ok(catalog.menuItemsByPriceBand(band));
+        }
+        RestaurantCatalog.PriceBand wanted = band;
+        return ResponseEntity.ok(catalog.menuItemsByCategory(category).stream()
+                .filter(item -> RestaurantCatalog.PriceBand.of(item.price()) == wanted)
+                .toList());
+    }
+
+    /**
+     * Free-text search over menu item names and descriptions (every word must match), filtered by cuisine,
+     * category, price range and availability, sorted by name, price or restaurant rating ({@code sort=price,desc}),
+     * one page at a time.
+     */
+    @GetMapping("/menu-items/search")
+    public ResponseEntity<?> searchMenuItems(@RequestParam(required = false) String q,
+                                             @RequestParam(required = false) String cuisine,
+                                             @RequestParam(required = false) String category,
+                                             @RequestParam(required = false) BigDecimal minPrice,
+                                             @RequestParam(required = false) BigDecimal maxPrice,
+                                             @RequestParam(required = false) Boolean available,
+                                             @RequestParam(defaultValue = "name") String sort,
+                                             @RequestParam(defaultValue = "0") int page,
+                                             @RequestParam(defaultValue = "20") int size) {
+        String[] sortParts = sort.split(",", 2);
+        MenuSearchIndex.Sort sortBy;
+        try {
+            sortBy = MenuSearchIndex.Sort.valueOf(sortParts[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Unknown sort '" + sort + "'",
+                    "sorts", List.of("name", "price", "rating", "price,desc")
+            ));
+        }
+        boolean descending = sortParts.length > 1 && sortParts[1].trim().equalsIgnoreCase("desc");
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minPrice is above maxPrice"));
+        }
+
+        MenuSearchIndex.Query query = new MenuSearchIndex.Query(q, cuisine, category, minPrice, maxPrice, available,
+                sortBy, descending, Math.max(0, page), Math.clamp(size, 1, 100));
+        return ResponseEntity.ok(menuSearch.search(query));
+    }
+
+    @GetMapping("/catalog")
+    public RestaurantCatalog.Summary catalogSummary() {
+        return restaurantService.catalog().summary();
+    }
+
+    /**
+     * Re-read the catalog's data files and apply whatever changed - same as the directory watcher does.
+     */
+    @PostMapping("/catalog/reload")
+    public ResponseEntity<?> reloadCatalog() {
+        return reloaded(() -> catalogReloader.reload("api"));
     }
 
+    /**
+     * Replace all restaurants with the body, a {@code restaurants.json} array. Restaurants missing from it
+     * are removed; only changed entries are applied.
+     */
+    @PutMapping("/catalog/restaurants")
+    public ResponseEntity<?> uploadRestaurants(InputStream restaurants) {
+        return reloaded(() -> catalogReloader.uploadRestaurants(restaurants));
+    }
 
+    /**
+     * Replace all menu items with the body, a {@code menu-items.json} array. Menu items missing from it
+     * are removed; only changed entries are applied.
+     */
+    @PutMapping("/catalog/menu-items")
+    public ResponseEntity<?> uploadMenuItems(InputStream menuItems) {
+        return reloaded(() -> catalogReloader.uploadMenuItems(menuItems));
+    }
+
+    @GetMapping("/catalog/responses")
+    public CatalogResponseCache.Stats catalogResponseCacheStats() {
+        return catalogResponseCache.stats();
+    }
+
+    @GetMapping("/catalog/reloads/last")
+    public ResponseEntity<CatalogReloader.ReloadReport> lastCatalogReload() {
+        CatalogReloader.ReloadReport report = catalogReloader.lastReload();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    private ResponseEntity<?> reloaded(Supplier<CatalogReloader.ReloadReport> reload) {
+        try {
+            return ResponseEntity.ok(reload.get());
+        } catch (JacksonException e) {
+            // Nothing was applied - the catalog stays as it was
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid catalog data: " + e.getOriginalMessage()));
+        }
+    }
+
+
+    /**
+     * The restaurant's menu through the menu cache. The body is pre-encoded per catalog version like
+     * {@link #findAllRestaurants}; how the menu cache answered is in the {@code X-Menu-Cache} (HIT, STALE or
+     * MISS) and {@code X-Menu-Cache-Age-Millis} headers, so the body - and its ETag - stay the same.
+     */
     @GetMapping("/{restaurantId}/menu")
-    public ResponseEntity<Map<String, Object>> getRestaurantMenu(@PathVariable String restaurantId) {
+    public ResponseEntity<?> getRestaurantMenu(@PathVariable String restaurantId,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("🍽️  API request: Get menu for restaurant {}", restaurantId);
 
         try {
-            List<MenuItem> menu = restaurantService.getMenuFromPartner(restaurantId);
+            MenuCache.Lookup lookup = menuCache.getMenu(restaurantId);
+            CatalogResponseCache.EncodedResponse menu =
+                    catalogResponseCache.menu(restaurantService.catalog(), restaurantId, lookup.menu());
 
-            return ResponseEntity.ok(Map.of(
-                    "restaurantId", restaurantId,
-                    "menuItems", menu,
-                    "count", menu.size(),
-                    "message", "Menu fetched successfully (possibly after retries)"
-            ));
+            return menu.response(acceptEncoding)
+                    .header("X-Menu-Cache", lookup.status().name())
+                    .header("X-Menu-Cache-Age-Millis", String.valueOf(lookup.ageMillis()))
+                    .body(menu.body(acceptEncoding));
 
+        } catch (RestaurantNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Restaurant not found",
+                    "restaurantId", restaurantId
+            ));
+        } catch (CircuitBreakerOpenException e) {
+            log.warn("🔌 Menu for {} not fetched, partner circuit is open: {}", restaurantId, e.getMessage());
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(Map.of(
+                            "error", "Restaurant partner API is unavailable",
+                            "message", e.getMessage(),
+                            "restaurantId", restaurantId,
+                            "circuit", partnerCircuit().snapshot()
+                    ));
         } catch (Exception e) {
             log.error("❌ Failed to fetch menu after all retries: {}", e.getMessage());
             return ResponseEntity.status(503).body(Map.of(
@@ -62,146 +295,153 @@ public class RestaurantController  {
         }
     }
 
-    @GetMapping("/lunch-rush")
-    public ResponseEntity<Map<String, Object>> lunchRush() {
-        log.info("🍔 LUNCH RUSH STARTED - Simulating 10 concurrent order notifications");
-        log.info("⚠️  Concurrency Limit: 3 (only 3 notifications can process simultaneously)");
-
-        LocalDateTime startTime = LocalDateTime.now();
-
-        // Create 10 orders to simulate lunch rush
-        List<Order> orders = new ArrayList<>();
-        for (int i = 1; i <= 10; i++) {
-            Order order = new Order(
-                    String.format("lunch-%04d", i),
-                    "customer-" + i,
-                    "restaurant-001",
-                    List.of("burger", "fries", "drink"),
-                    new BigDecimal("15.99"),
-                    "payment-" + i,
-                    "confirmed-" + i,
-                    Order.OrderStatus.CONFIRMED
-            );
-            orders.add(order);
-        }
+    @GetMapping("/partner/circuit")
+    public SlidingWindowCircuitBreaker.Snapshot partnerCircuitState() {
+        return partnerCircuit().snapshot();
+    }
 
-        // Use fixed thread pool with 10 threads to submit all orders concurrently
-        ExecutorService executor = Executors.newFixedThreadPool(10);
+    /**
+     * Change how often the simulated partner API fails - 100 takes it down hard and opens the circuit,
+     * 40 is the usual flakiness.
+     */
+    @PostMapping("/partner/simulated-failure-rate")
+    public ResponseEntity<Map<String, Object>> setPartnerFailureRate(@RequestParam int percent) {
+        restaurantService.setSimulatedFailureRate(percent / 100.0);
+        log.info("💥 Simulated partner API failure rate set to {}%", percent);
+        return ResponseEntity.ok(Map.of(
+                "failureRatePercent", Math.clamp(percent, 0, 100),
+                "circuit", partnerCircuit().snapshot()
+        ));
+    }
 
-        log.info("📤 Submitting all 10 orders to thread pool...");
+    @GetMapping("/partner/hedging")
+    public ResponseEntity<Map<String, Object>> partnerHedging() {
+        return ResponseEntity.ok(Map.of(
+                "enabled", partnerMenuClient.isHedgingEnabled(),
+                "stats", partnerMenuClient.hedgingStats()
+        ));
+    }
 
-        // Submit all notification tasks concurrently
-        for (Order order : orders) {
-            executor.submit(() -> {
-                try {
-                    restaurantNotificationService.notifyRestaurant(order);
-                } catch (Exception e) {
-                    log.error("❌ Error notifying restaurant for order {}: {}", order.id(), e.getMessage());
-                }
-            });
-        }
+    /**
+     * Switch hedged menu fetches on or off for the menu cache.
+     */
+    @PostMapping("/partner/hedging")
+    public ResponseEntity<Map<String, Object>> setPartnerHedging(@RequestParam boolean enabled) {
+        partnerMenuClient.setHedgingEnabled(enabled);
+        log.info("🏇 Hedged partner menu fetches {}", enabled ? "enabled" : "disabled");
+        return partnerHedging();
+    }
+
+    @GetMapping("/menu-cache")
+    public MenuCache.Stats menuCacheStats() {
+        return menuCache.stats();
+    }
 
-        // Shutdown executor and wait for all tasks to complete
-        executor.shutdown();
+    /**
+     * Lunch rush load generator: {@code orderCount} restaurant notifications (up to 100k) arriving at
+     * {@code ratePerSecond} (0 sends them all at once), spread over {@code restaurants} restaurants and run on
+     * a platform thread pool, virtual threads or a structured task scope ({@code executor}). Reports throughput
+     * and latency percentiles from each order's scheduled arrival, split into queueing and service time.
+     */
+    @GetMapping("/lunch-rush")
+    public ResponseEntity<Map<String, Object>> lunchRush(@RequestParam(defaultValue = "10") int orderCount,
+                                                         @RequestParam(defaultValue = "0") double ratePerSecond,
+                                                         @RequestParam(defaultValue = "platform") String executor,
+                                                         @RequestParam(defaultValue = "200") int platformThreads,
+                                                         @RequestParam(defaultValue = "1") int restaurants,
+                                                         @RequestParam(defaultValue = "0") int statusUpdatePercent,
+                                                         @RequestParam(defaultValue = "false") boolean batched,
+                                                         @RequestParam(defaultValue = "120") int maxDurationSeconds) {
+        LunchRushLoadGenerator.ExecutorType executorType;
         try {
-            boolean finished = executor.awaitTermination(2, TimeUnit.MINUTES);
-            if (!finished) {
-                log.warn("⚠️  Some notifications did not complete within 2 minutes");
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            log.error("❌ Thread pool interrupted: {}", e.getMessage());
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+            executorType = LunchRushLoadGenerator.ExecutorType.valueOf(executor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Unknown executor '" + executor + "'",
+                    "executors", List.of("platform", "virtual", "structured")
+            ));
         }
+        LunchRushLoadGenerator.Plan plan = new LunchRushLoadGenerator.Plan(
+                Math.clamp(orderCount, 1, LunchRushLoadGenerator.MAX_ORDERS),
+                Math.max(0, ratePerSecond),
+                executorType,
+                Math.clamp(platformThreads, 1, 2_000),
+                Math.max(1, restaurants),
+                Math.clamp(statusUpdatePercent, 0, 100),
+                batched,
+                Duration.ofSeconds(Math.clamp(maxDurationSeconds, 1, 600)));
 
-        LocalDateTime endTime = LocalDateTime.now();
-        long durationSeconds = Duration.between(startTime, endTime).toSeconds();
-
-        log.info("\uD83C\uDF89 LUNCH RUSH COMPLETED - All 10 notifications processed in {} seconds", durationSeconds);
-        log.info("📊 Expected time: ~6-8 seconds (10 orders / 3 concurrent * 2s each)");
+        LunchRushLoadGenerator.Report report = lunchRushLoadGenerator.run(plan);
 
         return ResponseEntity.ok(Map.of(
                 "message", "Lunch rush simulation completed",
-                "totalOrders", 10,
-                "concurrencyLimit", 3,
-                "durationSeconds", durationSeconds,
-                "expectedDuration", "6-8 seconds",
-                "threadPoolType", "Fixed thread pool (10 threads)",
-                "explanation", "With @ConcurrencyLimit(3), only 3 notifications process simultaneously. " +
-                        "The remaining 7 orders queue and wait for permits to become available."
+                "report", report,
+                "batching", batched ? restaurantNotificationBatcher.stats() : "off",
+                "concurrencyLimit", (batched ? batchLimit() : notificationLimit()).snapshot(),
+                "explanation", "With @AdaptiveConcurrencyLimit, each restaurant's limit starts at 3 and grows while " +
+                        "notifications answer in the usual time, then shrinks once that restaurant slows down. " +
+                        "Orders over their restaurant's limit queue for up to 10s (new PENDING and CONFIRMED orders " +
+                        "ahead of status updates) and are shed once the queue is full or the wait runs out - " +
+                        "queueingMicros shows that wait, serviceMicros the restaurant's own answer."
         ));
     }
 
-    @GetMapping("/lunch-rush-virtual")
-    public ResponseEntity<Map<String, Object>> lunchRushVirtual() {
-        log.info("🍔 LUNCH RUSH STARTED (Virtual Threads) - Simulating 10 concurrent order notifications");
-        log.info("⚠️  Concurrency Limit: 3 (only 3 notifications can process simultaneously)");
-
-        LocalDateTime startTime = LocalDateTime.now();
-
-        // Create 10 orders to simulate lunch rush
-        List<Order> orders = new ArrayList<>();
-        for (int i = 1; i <= 10; i++) {
-            Order order = new Order(
-                    String.format("lunch-v-%04d", i),
-                    "customer-" + i,
-                    "restaurant-001",
-                    List.of("burger", "fries", "drink"),
-                    new BigDecimal("15.99"),
-                    "payment-" + i,
-                    "confirmed-" + i,
-                    Order.OrderStatus.CONFIRMED
-            );
-            orders.add(order);
-        }
-
-        // Use virtual threads (Java 21+) - lightweight, created on-demand
-        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-
-        log.info("📤 Submitting all 10 orders to virtual thread executor...");
-
-        // Submit all notification tasks concurrently
-        for (Order order : orders) {
-            executor.submit(() -> {
-                try {
-                    restaurantNotificationService.notifyRestaurant(order);
-                } catch (Exception e) {
-                    log.error("❌ Error notifying restaurant for order {}: {}", order.id(), e.getMessage());
-                }
-            });
-        }
+    @GetMapping("/notifications/limiter")
+    public KeyedConcurrencyLimiter.Snapshot notificationLimiter() {
+        return notificationLimit().snapshot();
+    }
 
-        // Shutdown executor and wait for all tasks to complete
-        executor.shutdown();
-        try {
-            boolean finished = executor.awaitTermination(2, TimeUnit.MINUTES);
-            if (!finished) {
-                log.warn("⚠️  Some notifications did not complete within 2 minutes");
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            log.error("❌ Thread pool interrupted: {}", e.getMessage());
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+    /**
+     * Change how long the simulated restaurant notification systems take to answer - raise it during
+     * a lunch rush to watch the adaptive limits shrink, lower it to watch them grow back. With a
+     * restaurantId only that restaurant slows down, and only its own orders are affected.
+     */
+    @PostMapping("/notifications/simulated-delay")
+    public ResponseEntity<Map<String, Object>> setNotificationDelay(@RequestParam long millis,
+                                                                    @RequestParam(required = false) String restaurantId) {
+        Duration delay = Duration.ofMillis(Math.max(0, millis));
+        if (restaurantId != null) {
+            restaurantNotificationService.setSimulatedDelay(restaurantId, delay);
+        } else {
+            restaurantNotificationService.setSimulatedDelay(delay);
         }
+        log.info("🐢 Simulated notification delay set to {}ms for {}", millis,
+                restaurantId != null ? restaurantId : "all restaurants");
+        return ResponseEntity.ok(Map.of(
+                "simulatedDelayMillis", delay.toMillis(),
+                "restaurantId", restaurantId != null ? restaurantId : "*",
+                "concurrencyLimit", notificationLimit().snapshot()
+        ));
+    }
 
-        LocalDateTime endTime = LocalDateTime.now();
-        long durationSeconds = Duration.between(startTime, endTime).toSeconds();
-
-        log.info("🎉 LUNCH RUSH COMPLETED (Virtual Threads) - All 10 notifications processed in {} seconds", durationSeconds);
-        log.info("📊 Expected time: ~6-8 seconds (10 orders / 3 concurrent * 2s each)");
+    @GetMapping("/notifications/batching")
+    public RestaurantNotificationBatcher.Stats notificationBatching() {
+        return restaurantNotificationBatcher.stats();
+    }
 
+    /**
+     * Make the simulated restaurants reject a share of batched orders, to see per-order failures
+     * inside otherwise successful batches.
+     */
+    @PostMapping("/notifications/simulated-rejections")
+    public ResponseEntity<Map<String, Object>> setNotificationRejections(@RequestParam int percent) {
+        restaurantNotificationService.setSimulatedRejectionRate(percent / 100.0);
+        log.info("🙅 Simulated restaurants now reject {}% of batched orders", percent);
         return ResponseEntity.ok(Map.of(
-                "message", "Lunch rush simulation completed (Virtual Threads)",
-                "totalOrders", 10,
-                "concurrencyLimit", 3,
-                "durationSeconds", durationSeconds,
-                "expectedDuration", "6-8 seconds",
-                "threadPoolType", "Virtual threads (Java 21+)",
-                "explanation", "With @ConcurrencyLimit(3), only 3 notifications process simultaneously. " +
-                        "Virtual threads are lightweight and created on-demand, but the concurrency limit still applies. " +
-                        "Check logs to see VirtualThread names vs platform thread pool names."
+                "rejectionPercent", Math.clamp(percent, 0, 100),
+                "batching", restaurantNotificationBatcher.stats()
         ));
     }
+
+    private SlidingWindowCircuitBreaker partnerCircuit() {
+        return circuitBreakerRegistry.get(RestaurantService.PARTNER_API);
+    }
+
+    private KeyedConcurrencyLimiter notificationLimit() {
+        return concurrencyLimiterRegistry.get(RestaurantNotificationService.LIMITER_NAME);
+    }
+
+    private KeyedConcurrencyLimiter batchLimit() {
+        return concurrencyLimiterRegistry.get(RestaurantNotificationService.BATCH_LIMITER_NAME);
+    }
 }
@@ -0,0 +1,12 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+/**
+ * The restaurant is not in the catalog - an answer, not a partner API failure, so it is neither retried
+ * nor counted against the partner circuit.
+ */
+public class RestaurantNotFoundException extends RuntimeException {
+
+    public RestaurantNotFoundException(String restaurantId) {
+        super("Restaurant not found: " + restaurantId);
+    }
+}
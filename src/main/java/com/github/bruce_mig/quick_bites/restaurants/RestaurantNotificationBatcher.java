@@ -0,0 +1,174 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.order.Order;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces order notifications per restaurant.
+ *
+ * Orders for the same restaurant are collected until either the batch window has passed since the first
+ * of them arrived or the batch is full, then sent as one call - a lunch rush of 100 orders to one
+ * restaurant costs a couple of round trips instead of 100. Every order still gets its own future, which
+ * completes once the restaurant has accepted it, or fails on its own if the restaurant rejected just that
+ * order (or with the batch's exception if the whole call failed).
+ */
+@Component
+public class RestaurantNotificationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantNotificationBatcher.class);
+
+    private final RestaurantNotificationService restaurantNotificationService;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final Map<String, PendingBatch> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notification-batcher").daemon(true).factory());
+    // Batch calls block on the (limited) restaurant endpoint, so they get virtual threads
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder ordersSent = new LongAdder();
+    private final LongAdder ordersRejected = new LongAdder();
+    private final LongAdder batchesFailed = new LongAdder();
+
+    public RestaurantNotificationBatcher(RestaurantNotificationService restaurantNotificationService,
+                                         @Value("${quick-bites.notifications.batch.window:100ms}") Duration window,
+                                         @Value("${quick-bites.notifications.batch.max-size:50}") int maxBatchSize) {
+        this.restaurantNotificationService = restaurantNotificationService;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Queue an order for its restaurant's next batch.
+     */
+    public CompletableFuture<Void> submit(Order order) {
+        PendingNotification notification = new PendingNotification(order, new CompletableFuture<>());
+        PendingBatch[] full = new PendingBatch[1];
+        RejectedExecutionException[] rejected = new RejectedExecutionException[1];
+        pending.compute(order.restaurantId(), (restaurantId, batch) -> {
+            if (batch == null) {
+                batch = new PendingBatch(restaurantId);
+                try {
+                    scheduleWindowFlush(batch);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down - nothing would flush the batch, so keep no batch and fail the order
+                    rejected[0] = e;
+                    return null;
+                }
+            }
+            batch.notifications.add(notification);
+            if (batch.notifications.size() >= maxBatchSize) {
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        // Completed outside compute(), so callbacks on the futures never run while the key is locked
+        if (rejected[0] != null) {
+            notification.result().completeExceptionally(rejected[0]);
+        } else if (full[0] != null) {
+            send(full[0]);
+        }
+        return notification.result();
+    }
+
+    public Stats stats() {
+        long batches = batchesSent.sum();
+        long orders = ordersSent.sum();
+        return new Stats(batches, orders, batches == 0 ? 0 : (double) orders / batches,
+                ordersRejected.sum(), batchesFailed.sum(), window.toMillis(), maxBatchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        windowTimer.shutdownNow();
+        senders.shutdown();
+    }
+
+    private void scheduleWindowFlush(PendingBatch batch) {
+        windowTimer.schedule(() -> {
+            // A batch that filled up has already been removed and sent
+            if (pending.remove(batch.restaurantId, batch)) {
+                send(batch);
+            }
+        }, window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void send(PendingBatch batch) {
+        try {
+            senders.execute(() -> deliver(batch));
+        } catch (RejectedExecutionException e) {
+            batch.notifications.forEach(notification -> notification.result().completeExceptionally(e));
+        }
+    }
+
+    private void deliver(PendingBatch batch) {
+        List<Order> orders = batch.notifications.stream().map(PendingNotification::order).toList();
+        batchesSent.increment();
+        ordersSent.add(orders.size());
+        BatchNotificationResult result;
+        try {
+            result = restaurantNotificationService.notifyRestaurantBatch(batch.restaurantId, orders);
+        } catch (Exception e) {
+            batchesFailed.increment();
+            log.warn("❌ Batch of {} notifications to restaurant {} failed: {}",
+                    orders.size(), batch.restaurantId, e.getMessage());
+            batch.notifications.forEach(notification -> notification.result().completeExceptionally(e));
+            return;
+        }
+        for (PendingNotification notification : batch.notifications) {
+            String reason = result.rejectedOrders().get(notification.order().id());
+            if (reason == null) {
+                notification.result().complete(null);
+            } else {
+                ordersRejected.increment();
+                notification.result().completeExceptionally(new NotificationRejectedException(
+                        "Restaurant " + batch.restaurantId + " rejected order " + notification.order().id() + ": " + reason));
+            }
+        }
+    }
+
+    private record PendingNotification(Order order, CompletableFuture<Void> result) {
+    }
+
+    // Mutated only inside pending.compute(), read only once removed from the map
+    private static final class PendingBatch {
+
+        private final String restaurantId;
+        private final List<PendingNotification> notifications = new ArrayList<>();
+
+        private PendingBatch(String restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+    }
+
+    public record Stats(
+            long batchesSent,
+            long ordersSent,
+            double meanBatchSize,
+            long ordersRejected,
+            long batchesFailed,
+            long windowMillis,
+            int maxBatchSize
+    ) {
+    }
+}
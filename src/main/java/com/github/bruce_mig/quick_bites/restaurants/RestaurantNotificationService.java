@@ -1,49 +1,175 @@
 package com.github.bruce_mig.quick_bites.restaurants;
 
 import com.github.bruce_mig.quick_bites.order.Order;
+import com.github.bruce_mig.quick_bites.resilience.AdaptiveConcurrencyLimit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.resilience.annotation.ConcurrencyLimit;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class RestaurantNotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantNotificationService.class);
 
+    static final String LIMITER_NAME = "restaurant-notifications";
+    static final String BATCH_LIMITER_NAME = "restaurant-notification-batches";
+
+    // Extra time a batched call spends per order on top of the round trip
+    private static final Duration PER_ORDER_BATCH_COST = Duration.ofMillis(5);
+
+    // Each simulated restaurant system handles this many requests before it starts queueing internally
+    private static final int SIMULATED_CAPACITY = 8;
+
+    private volatile Duration simulatedDelay = Duration.ofSeconds(2);
+    private final Map<String, Duration> simulatedDelayOverrides = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inProgress = new ConcurrentHashMap<>();
+    private volatile double simulatedRejectionRate;
+
     /**
-     * Notify restaurant of new order - limited to 3 concurrent notifications.
+     * Notify restaurant of new order - each restaurant gets its own bulkhead whose limit adapts to how
+     * fast that restaurant answers.
      *
      * Without concurrency limit: During rush hour, 50 concurrent calls could overwhelm
      * the restaurant's notification system, causing crashes or dropped notifications.
      *
-     * With @ConcurrencyLimit: Only 3 notifications sent at a time, others queued.
+     * With @AdaptiveConcurrencyLimit keyed on restaurantId: every restaurant starts at 3 notifications at
+     * a time and its limit rises while latency stays flat. Once that restaurant slows down (it has limited
+     * capacity, or its simulated delay is raised) only its own limit is cut back and only its own orders
+     * queue - at most 100 per restaurant, and for at most 10 seconds; beyond that they are shed with a
+     * LoadSheddingException rather than waiting out the backlog. New orders - PENDING ones from the order
+     * pipeline, which notifies while payment is still being confirmed, and CONFIRMED ones - are let through
+     * ahead of status-update notifications. No more than 50 notifications run at once across all restaurants.
      *
-     * Note: No try-catch-finally needed! Spring handles permit management automatically,
+     * Note: No try-catch-finally needed! The interceptor handles permit management automatically,
      * even if exceptions occur during method execution.
+     *
+     * @return how long the restaurant took to answer - the service time, excluding any wait for a permit
      */
-    @ConcurrencyLimit(3)
-    public void notifyRestaurant(Order order) {
-        LocalTime start = LocalTime.now();
-        log.info("📢 [CONCURRENT] Sending notification to restaurant for order {} (Thread: {})",
-                order.id(), Thread.currentThread().getName());
+    @AdaptiveConcurrencyLimit(
+            name = LIMITER_NAME,
+            key = "#order.restaurantId()",
+            initialLimit = 3,
+            minLimit = 1,
+            maxLimit = 20,
+            maxWaiting = 100,
+            maxWaitMillis = 10_000,
+            lanes = 2,
+            lane = "#order.status().name() == 'PENDING' || #order.status().name() == 'CONFIRMED' ? 0 : 1",
+            maxConcurrentTotal = 50
+    )
+    public Duration notifyRestaurant(Order order) {
+        long start = System.nanoTime();
+        log.info("📢 [CONCURRENT] Sending notification to restaurant {} for order {} (Thread: {})",
+                order.restaurantId(), order.id(), Thread.currentThread().getName());
 
-        // Simulate notification taking time (network call, webhook, etc.)
-        simulateDelay(Duration.ofSeconds(2));
+        // Simulate notification taking time (network call, webhook, etc.) - slower when overloaded
+        AtomicInteger restaurantInProgress = inProgress.computeIfAbsent(order.restaurantId(), id -> new AtomicInteger());
+        int concurrent = restaurantInProgress.incrementAndGet();
+        try {
+            double overload = Math.max(1.0, (double) concurrent / SIMULATED_CAPACITY);
+            Duration delay = simulatedDelayOverrides.getOrDefault(order.restaurantId(), simulatedDelay);
+            simulateDelay(Duration.ofMillis((long) (delay.toMillis() * overload)));
+        } finally {
+            restaurantInProgress.decrementAndGet();
+        }
 
-        LocalTime end = LocalTime.now();
+        Duration serviceTime = Duration.ofNanos(System.nanoTime() - start);
         log.info("✅ [CONCURRENT] Notification sent for order {} (took {}ms)",
-                order.id(), Duration.between(start, end).toMillis());
+                order.id(), serviceTime.toMillis());
+        return serviceTime;
+    }
+
+    /**
+     * Send several orders to one restaurant in a single call - one round trip however many orders are
+     * in it. The restaurant answers per order, so some orders may be rejected while the rest are accepted.
+     *
+     * Batches get their own per-restaurant bulkhead: a batch is one call to the restaurant's system.
+     */
+    @AdaptiveConcurrencyLimit(
+            name = BATCH_LIMITER_NAME,
+            key = "#restaurantId",
+            initialLimit = 2,
+            minLimit = 1,
+            maxLimit = 10,
+            maxWaiting = 20,
+            maxWaitMillis = 10_000,
+            maxConcurrentTotal = 50
+    )
+    public BatchNotificationResult notifyRestaurantBatch(String restaurantId, List<Order> orders) {
+        LocalTime start = LocalTime.now();
+        log.info("📦 [BATCH] Sending {} notifications to restaurant {} in one call (Thread: {})",
+                orders.size(), restaurantId, Thread.currentThread().getName());
+
+        AtomicInteger restaurantInProgress = inProgress.computeIfAbsent(restaurantId, id -> new AtomicInteger());
+        int concurrent = restaurantInProgress.incrementAndGet();
+        try {
+            double overload = Math.max(1.0, (double) concurrent / SIMULATED_CAPACITY);
+            Duration delay = simulatedDelayOverrides.getOrDefault(restaurantId, simulatedDelay)
+                    .plus(PER_ORDER_BATCH_COST.multipliedBy(orders.size()));
+            simulateDelay(Duration.ofMillis((long) (delay.toMillis() * overload)));
+        } finally {
+            restaurantInProgress.decrementAndGet();
+        }
+
+        List<String> accepted = new ArrayList<>(orders.size());
+        Map<String, String> rejected = new LinkedHashMap<>();
+        double rejectionRate = simulatedRejectionRate;
+        for (Order order : orders) {
+            if (order.items() == null || order.items().isEmpty()) {
+                rejected.put(order.id(), "Order has no items");
+            } else if (rejectionRate > 0 && ThreadLocalRandom.current().nextDouble() < rejectionRate) {
+                rejected.put(order.id(), "Kitchen cannot take the order right now");
+            } else {
+                accepted.add(order.id());
+            }
+        }
+
+        log.info("✅ [BATCH] Restaurant {} accepted {} of {} orders (took {}ms)", restaurantId,
+                accepted.size(), orders.size(), Duration.between(start, LocalTime.now()).toMillis());
+        return new BatchNotificationResult(restaurantId, accepted, rejected);
+    }
+
+    public Duration getSimulatedDelay() {
+        return simulatedDelay;
+    }
+
+    public void setSimulatedDelay(Duration simulatedDelay) {
+        this.simulatedDelay = simulatedDelay;
+        simulatedDelayOverrides.clear();
+    }
+
+    /**
+     * Slow down (or speed up) a single restaurant's notification system.
+     */
+    public void setSimulatedDelay(String restaurantId, Duration simulatedDelay) {
+        simulatedDelayOverrides.put(restaurantId, simulatedDelay);
+    }
+
+    /**
+     * Share of batched orders the simulated restaurants reject individually (0 to 1).
+     */
+    public void setSimulatedRejectionRate(double simulatedRejectionRate) {
+        this.simulatedRejectionRate = Math.clamp(simulatedRejectionRate, 0.0, 1.0);
     }
 
     private void simulateDelay(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
         try {
             Thread.sleep(duration.toMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of restaurants in id order, with the cursor for the next page.
+ *
+ * The cursor is the last id of the page, opaquely encoded, and the next page starts right after that id.
+ * Pages therefore stay stable across catalog reloads: nothing is skipped or repeated because restaurants were
+ * added or removed before the cursor, which offset paging cannot promise. A page is a view of the catalog's
+ * list, so nothing is copied however large the catalog is.
+ *
+ * @param nextCursor null on the last page
+ */
+record RestaurantPage(List<Restaurant> restaurants, String nextCursor, long catalogVersion) {
+
+    static final int MAX_LIMIT = 1_000;
+
+    /**
+     * @param restaurants ordered by id, as every catalog restaurant list is
+     * @param cursor      from the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is not one this class handed out
+     */
+    static RestaurantPage of(List<Restaurant> restaurants, String cursor, int limit, long catalogVersion) {
+        int from = cursor == null ? 0 : firstAfter(restaurants, decode(cursor));
+        int to = Math.min(restaurants.size(), from + limit);
+        List<Restaurant> page = restaurants.subList(from, to);
+        String next = to < restaurants.size() && !page.isEmpty() ? encode(page.getLast().id()) : null;
+        return new RestaurantPage(page, next, catalogVersion);
+    }
+
+    // Binary search for the first restaurant with an id greater than afterId
+    private static int firstAfter(List<Restaurant> restaurants, String afterId) {
+        int low = 0;
+        int high = restaurants.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (restaurants.get(middle).id().compareTo(afterId) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("after:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith("after:")) {
+            throw new IllegalArgumentException("Not a restaurant cursor: " + cursor);
+        }
+        return decoded.substring("after:".length());
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.bruce_mig.quick_bites.restaurants;
 
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgetPredicate;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgeted;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.resilience.annotation.Retryable;
@@ -8,13 +10,21 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class RestaurantService  {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantService.class);
+
+    static final String PARTNER_API = "restaurant-partner-api";
+
     private final DataLoader dataLoader;
     private final Random random = new Random();
+    private volatile double simulatedFailureRate = 0.4;
+    private volatile Duration simulatedLatency = Duration.ofMillis(200);
+    private final LongAdder partnerCalls = new LongAdder();
 
     public RestaurantService(DataLoader dataLoader) {
         this.dataLoader = dataLoader;
@@ -26,52 +36,109 @@ public class RestaurantService  {
 //     * @Retryable configuration:
 //     * - default: All Exceptions & 3 retries
 //     * - maxRetries: 4 (1 initial + 3 retries)
-//     * - includes: Only retry on RestaurantApiException
+//     * - includes: Only retry on RestaurantApiException - not on RestaurantNotFoundException
 //     * - backoff: Start with 1 second, multiply by 2 (exponential backoff)
+//     *
+//     * @PartnerApiCircuitBreaker sits inside the retry loop and records every attempt. Once the circuit
+//     * opens, attempts fail immediately with CircuitBreakerOpenException, which is not retried, so
+//     * callers get their answer in microseconds.
+//     *
+//     * @RetryBudgeted + RetryBudgetPredicate: retries are paid for from the partner API's shared retry
+//     * budget; once it is spent, failures are returned straight away instead of being retried.
 //     */
+    @PartnerApiCircuitBreaker
+    @RetryBudgeted(PARTNER_API)
     @Retryable(
             maxRetries = 4,
             includes = RestaurantApiException.class,
+            predicate = RetryBudgetPredicate.class,
             delay = 1000, // 1-second delay
             multiplier = 2 // double the delay for each retry attempt
 
     )
     public List<MenuItem> getMenuFromPartner(String restaurantId) {
-        log.info("🍽️  Fetching menu from restaurant partner API for: {}", restaurantId);
+        return fetchFromPartner(restaurantId);
+    }
 
-        // Simulate flaky external API (40% failure rate)
-        if (random.nextDouble() < 0.4) {
-            log.warn("⚠️ Restaurant API failed! Will retry...");
-            throw new RestaurantApiException("Partner restaurant API is temporarily unavailable");
-        }
+    /**
+     * A single call to the partner API without retries, for callers that run their own attempts
+     * (e.g. hedging). Shares the partner circuit breaker with {@link #getMenuFromPartner(String)}.
+     */
+    @PartnerApiCircuitBreaker
+    public List<MenuItem> fetchMenuAttempt(String restaurantId) {
+        return fetchFromPartner(restaurantId);
+    }
+
+    public List<Restaurant> findAll() {
+        return dataLoader.catalog().restaurants();
+    }
+
+    public List<Restaurant> findByCuisine(String cuisine) {
+        return dataLoader.catalog().restaurantsByCuisine(cuisine);
+    }
 
-        // Simulate network delay
-        simulateDelay(Duration.ofMillis(200));
+    public RestaurantCatalog catalog() {
+        return dataLoader.catalog();
+    }
 
-        Restaurant restaurant = dataLoader.getRestaurant(restaurantId);
+    private List<MenuItem> fetchFromPartner(String restaurantId) {
+        // Unknown ids are answered from the catalog, without a partner call that could fail and be retried
+        RestaurantCatalog catalog = dataLoader.catalog();
+        Restaurant restaurant = catalog.restaurant(restaurantId);
         if (restaurant == null) {
-            throw new RestaurantApiException("Restaurant not found: " + restaurantId);
+            throw new RestaurantNotFoundException(restaurantId);
+        }
+
+        log.info("🍽️  Fetching menu from restaurant partner API for: {}", restaurantId);
+        partnerCalls.increment();
+
+        // Simulate network delay - an error response costs a round trip too
+        simulateDelay(restaurantId, simulatedLatency);
+
+        // Simulate flaky external API (40% failure rate by default)
+        if (random.nextDouble() < simulatedFailureRate) {
+            log.warn("⚠️ Restaurant API failed! Will retry...");
+            throw new RestaurantApiException("Partner restaurant API is temporarily unavailable");
         }
 
-        List<MenuItem> menu = restaurant.menuItemIds().stream()
-                .map(dataLoader::getMenuItem)
-                .filter(item -> item != null && item.available())
-                .toList();
+        // Resolved when the catalog was loaded
+        List<MenuItem> menu = catalog.menu(restaurantId);
 
         log.info("✅ Successfully fetched {} menu items from {}", menu.size(), restaurant.name());
         return menu;
     }
 
-    public List<Restaurant> findAll() {
-        return dataLoader.getRestaurants().values().stream().toList();
+    /**
+     * Calls that reached the partner API, counting every attempt.
+     */
+    public long partnerCalls() {
+        return partnerCalls.sum();
     }
 
+    /**
+     * Share of partner API calls that fail (0 to 1) - raise it to 1 to take the partner down hard.
+     */
+    public void setSimulatedFailureRate(double simulatedFailureRate) {
+        this.simulatedFailureRate = Math.clamp(simulatedFailureRate, 0.0, 1.0);
+    }
 
-    private void simulateDelay(Duration duration) {
+    /**
+     * Round trip of every partner API call, successful or not - zero removes it entirely (benchmarks).
+     */
+    public void setSimulatedLatency(Duration simulatedLatency) {
+        this.simulatedLatency = simulatedLatency;
+    }
+
+    private void simulateDelay(String restaurantId, Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
         try {
             Thread.sleep(duration.toMillis());
         } catch (InterruptedException e) {
+            // Cancelled, e.g. a hedged attempt that lost - stop here rather than answer nobody
             Thread.currentThread().interrupt();
+            throw new CancellationException("Partner API call for " + restaurantId + " was cancelled");
         }
     }
 }
@@ -1,11 +1,25 @@
 package com.github.bruce_mig.quick_bites;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
 
 @SpringBootTest
 class ApplicationTests {
 
+	// Never open, lock or replay the real journal in data/orders
+	@TempDir
+	static Path journalDirectory;
+
+	@DynamicPropertySource
+	static void journalProperties(DynamicPropertyRegistry registry) {
+		registry.add("quick-bites.orders.journal.directory", journalDirectory::toString);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,186 @@
+package com.github.bruce_mig.quick_bites.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskScopeTests {
+
+    @Test
+    void joinWaitsForEverySubtask() throws InterruptedException {
+        try (TaskScope scope = new TaskScope("test")) {
+            TaskScope.Subtask<String> slow = scope.fork(() -> {
+                Thread.sleep(50);
+                return "slow";
+            });
+            TaskScope.Subtask<String> fast = scope.fork(() -> "fast");
+            TaskScope.Subtask<String> failing = scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+            scope.join();
+
+            assertThat(slow.get()).isEqualTo("slow");
+            assertThat(fast.get()).isEqualTo("fast");
+            assertThat(failing.state()).isEqualTo(TaskScope.Subtask.State.FAILED);
+            assertThat(failing.exception()).hasMessage("boom");
+            assertThatThrownBy(failing::get).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(fast::exception).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void firstFailureCancelsTheSiblings() throws InterruptedException {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        long start = System.nanoTime();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure("test")) {
+            TaskScope.Subtask<String> sibling = scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                    throw e;
+                }
+                return "never";
+            });
+            TaskScope.Subtask<String> failing = scope.fork(() -> {
+                Thread.sleep(20);
+                throw new IllegalStateException("boom");
+            });
+            scope.join();
+
+            assertThat(scope.firstFailure()).isSameAs(failing);
+            assertThat(scope.isShutdown()).isTrue();
+            assertThat(sibling.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+        }
+        assertThat(siblingInterrupted).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+    }
+
+    @Test
+    void nothingFailedMeansNoFirstFailure() throws InterruptedException {
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure("test")) {
+            scope.fork(() -> "one");
+            scope.fork(() -> "two");
+            scope.join();
+
+            assertThat(scope.firstFailure()).isNull();
+            assertThat(scope.isShutdown()).isFalse();
+        }
+    }
+
+    @Test
+    void subtaskOverrunningItsDeadlineFailsWithATimeout() throws InterruptedException {
+        try (TaskScope scope = new TaskScope("test")) {
+            TaskScope.Subtask<String> late = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "late";
+            }, Duration.ofMillis(50));
+            TaskScope.Subtask<String> sibling = scope.fork(() -> {
+                Thread.sleep(200);
+                return "sibling";
+            });
+            scope.join();
+
+            assertThat(late.state()).isEqualTo(TaskScope.Subtask.State.FAILED);
+            assertThat(late.exception()).isInstanceOf(TimeoutException.class);
+            // A plain scope does not react to the failure
+            assertThat(sibling.get()).isEqualTo("sibling");
+        }
+    }
+
+    @Test
+    void deadlineShutsDownAShutdownOnFailureScope() throws InterruptedException {
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure("test")) {
+            TaskScope.Subtask<String> sibling = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "never";
+            });
+            TaskScope.Subtask<String> late = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "late";
+            }, Duration.ofMillis(50));
+            scope.join();
+
+            assertThat(scope.firstFailure()).isSameAs(late);
+            assertThat(sibling.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+        }
+    }
+
+    @Test
+    void finishingInTimeCancelsTheDeadline() throws InterruptedException {
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure("test")) {
+            // Generous enough to start in time on a busy machine; the wait below outlasts it
+            TaskScope.Subtask<String> quick = scope.fork(() -> "quick", Duration.ofMillis(300));
+            scope.join();
+            Thread.sleep(400);
+
+            assertThat(quick.get()).isEqualTo("quick");
+            assertThat(scope.firstFailure()).isNull();
+        }
+    }
+
+    @Test
+    void joinUntilGivesUpAtTheDeadlineWithoutShuttingDown() throws InterruptedException, TimeoutException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (TaskScope scope = new TaskScope("test")) {
+            TaskScope.Subtask<String> waiting = scope.fork(() -> {
+                release.await();
+                return "done";
+            });
+
+            assertThatThrownBy(() -> scope.joinUntil(Instant.now().plusMillis(50)))
+                    .isInstanceOf(TimeoutException.class);
+            assertThat(scope.isShutdown()).isFalse();
+
+            release.countDown();
+            scope.joinUntil(Instant.now().plusSeconds(5));
+            assertThat(waiting.get()).isEqualTo("done");
+        }
+    }
+
+    @Test
+    void subtasksForkedAfterShutdownNeverStart() throws InterruptedException {
+        AtomicBoolean started = new AtomicBoolean();
+        try (TaskScope scope = new TaskScope("test")) {
+            scope.shutdown();
+            TaskScope.Subtask<Boolean> subtask = scope.fork(() -> {
+                started.set(true);
+                return true;
+            });
+            scope.join();
+
+            assertThat(subtask.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+        }
+        assertThat(started).isFalse();
+    }
+
+    @Test
+    void closeInterruptsAndWaitsForRunningSubtasks() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        TaskScope.Subtask<String> subtask;
+        try (TaskScope scope = new TaskScope("test")) {
+            subtask = scope.fork(() -> {
+                running.countDown();
+                try {
+                    Thread.sleep(10_000);
+                    return "never";
+                } finally {
+                    finished.set(true);
+                }
+            });
+            running.await();
+        }
+
+        assertThat(finished).isTrue();
+        assertThat(subtask.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+    }
+}
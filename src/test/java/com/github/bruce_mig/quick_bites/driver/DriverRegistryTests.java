@@ -0,0 +1,158 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DriverRegistryTests {
+
+    private static final double LATITUDE = 37.7800;
+    private static final double LONGITUDE = -122.4100;
+    // Roughly 1km of latitude
+    private static final double KM = 1 / 111.32;
+
+    private final DriverRegistry registry = new DriverRegistry();
+
+    @Test
+    void locationUpdateMovesTheDriverToItsNewCell() {
+        registry.register(driver("1"), LATITUDE, LONGITUDE);
+        double newLatitude = LATITUDE + 2 * KM;
+        assertThat(DriverRegistry.cellOf(newLatitude, LONGITUDE)).isNotEqualTo(DriverRegistry.cellOf(LATITUDE, LONGITUDE));
+
+        assertThat(registry.updateLocation("1", newLatitude, LONGITUDE, 1_000)).isEqualTo(LocationUpdateResult.APPLIED);
+
+        NearbyDriver atNewPosition = registry.nearestIdle(newLatitude, LONGITUDE, 10).getFirst();
+        assertThat(atNewPosition.latitude()).isCloseTo(newLatitude, within(1e-6));
+        assertThat(atNewPosition.distanceKm()).isCloseTo(0, within(0.01));
+        // Found once, from its new cell only
+        List<NearbyDriver> fromOldPosition = registry.nearestIdle(LATITUDE, LONGITUDE, 10);
+        assertThat(fromOldPosition).hasSize(1);
+        assertThat(fromOldPosition.getFirst().distanceKm()).isCloseTo(2, within(0.05));
+    }
+
+    @Test
+    void olderPingsAreDropped() {
+        registry.register(driver("1"), LATITUDE, LONGITUDE);
+        assertThat(registry.updateLocation("1", LATITUDE + KM, LONGITUDE, 2_000)).isEqualTo(LocationUpdateResult.APPLIED);
+
+        assertThat(registry.updateLocation("1", LATITUDE + 5 * KM, LONGITUDE, 1_000)).isEqualTo(LocationUpdateResult.STALE);
+        assertThat(registry.updateLocation("1", LATITUDE + 5 * KM, LONGITUDE, 2_000)).isEqualTo(LocationUpdateResult.STALE);
+
+        assertThat(registry.nearestIdle(LATITUDE, LONGITUDE, 1).getFirst().distanceKm()).isCloseTo(1, within(0.05));
+    }
+
+    @Test
+    void unknownDriversAndInvalidPositionsAreRejected() {
+        registry.register(driver("1"), LATITUDE, LONGITUDE);
+
+        assertThat(registry.updateLocation("2", LATITUDE, LONGITUDE, 1_000)).isEqualTo(LocationUpdateResult.UNKNOWN_DRIVER);
+        assertThat(registry.updateLocation("1", 91, LONGITUDE, 1_000)).isEqualTo(LocationUpdateResult.INVALID);
+        assertThat(registry.updateLocation("1", LATITUDE, Double.NaN, 1_000)).isEqualTo(LocationUpdateResult.INVALID);
+    }
+
+    @Test
+    void nearestIdleMatchesABruteForceSearch() {
+        Random random = new Random(42);
+        List<double[]> positions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double latitude = LATITUDE + (random.nextDouble() - 0.5) * 0.2;
+            double longitude = LONGITUDE + (random.nextDouble() - 0.5) * 0.2;
+            registry.register(driver(String.valueOf(i)), latitude, longitude);
+            positions.add(new double[] {latitude, longitude});
+        }
+
+        for (int query = 0; query < 20; query++) {
+            double latitude = LATITUDE + (random.nextDouble() - 0.5) * 0.2;
+            double longitude = LONGITUDE + (random.nextDouble() - 0.5) * 0.2;
+            double lonScale = Math.cos(Math.toRadians(latitude));
+            List<String> expected = IntStream.range(0, positions.size()).boxed()
+                    .sorted(Comparator.comparingDouble(i -> DriverRegistry.distanceKm(latitude, longitude, lonScale,
+                            positions.get(i)[0], positions.get(i)[1])))
+                    .limit(5)
+                    .map(String::valueOf)
+                    .toList();
+
+            assertThat(registry.nearestIdle(latitude, longitude, 5))
+                    .extracting(nearby -> nearby.driver().id())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void searchStopsAtTheMaximumRadius() {
+        registry.register(driver("near"), LATITUDE + 3 * KM, LONGITUDE);
+        registry.register(driver("far"), LATITUDE + 14 * KM, LONGITUDE);
+        registry.register(driver("too-far"), LATITUDE + 16 * KM, LONGITUDE);
+
+        assertThat(registry.nearestIdle(LATITUDE, LONGITUDE, 10))
+                .extracting(nearby -> nearby.driver().id())
+                .containsExactly("near", "far");
+    }
+
+    @Test
+    void onlyIdleDriversAreFoundAndClaimed() {
+        registry.register(driver("1"), LATITUDE + KM, LONGITUDE);
+        registry.register(driver("2"), LATITUDE + 2 * KM, LONGITUDE);
+        registry.register(driver("3"), LATITUDE + 3 * KM, LONGITUDE);
+        registry.setOffline("1");
+
+        Optional<NearbyDriver> claimed = registry.claimNearestIdle(LATITUDE, LONGITUDE);
+        assertThat(claimed).map(nearby -> nearby.driver().id()).contains("2");
+        assertThat(registry.nearestIdle(LATITUDE, LONGITUDE, 10))
+                .extracting(nearby -> nearby.driver().id())
+                .containsExactly("3");
+
+        assertThat(registry.release("2")).isTrue();
+        assertThat(registry.release("2")).isFalse();
+        assertThat(registry.claimNearestIdle(LATITUDE, LONGITUDE)).map(nearby -> nearby.driver().id()).contains("2");
+    }
+
+    @Test
+    void concurrentClaimsNeverAssignADriverTwice() throws Exception {
+        int fleet = 200;
+        for (int i = 0; i < fleet; i++) {
+            registry.register(driver(String.valueOf(i)), LATITUDE + (i % 20) * 0.001, LONGITUDE + (i / 20) * 0.001);
+        }
+        int threads = 16;
+        ConcurrentLinkedQueue<String> claimed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> claimers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                claimers.add(executor.submit(() -> {
+                    start.await();
+                    Optional<NearbyDriver> next;
+                    while ((next = registry.claimNearestIdle(LATITUDE, LONGITUDE)).isPresent()) {
+                        claimed.add(next.get().driver().id());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> claimer : claimers) {
+                claimer.get();
+            }
+        }
+
+        assertThat(claimed).hasSize(fleet).doesNotHaveDuplicates();
+        assertThat(registry.countByState().get(DriverState.ASSIGNED)).isEqualTo(fleet);
+        assertThat(registry.countByState().get(DriverState.IDLE)).isZero();
+    }
+
+    private static Driver driver(String id) {
+        return new Driver(id, "Driver " + id, 4.5);
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.bruce_mig.quick_bites.driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HungarianAssignmentTests {
+
+    @Test
+    void squareMatrixPicksTheCheapestPermutation() {
+        double[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+
+        int[] assignment = HungarianAssignment.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0, 2);
+        assertThat(totalCost(cost, assignment)).isEqualTo(5);
+    }
+
+    @Test
+    void moreColumnsThanRowsLeavesColumnsUnused() {
+        double[][] cost = {
+                {9, 1, 9, 9},
+                {9, 9, 9, 2}
+        };
+
+        assertThat(HungarianAssignment.solve(cost)).containsExactly(1, 3);
+    }
+
+    @Test
+    void moreRowsThanColumnsLeavesTheCostliestRowsUnassigned() {
+        double[][] cost = {
+                {5, 9},
+                {1, 8},
+                {7, 2},
+                {6, 6}
+        };
+
+        int[] assignment = HungarianAssignment.solve(cost);
+
+        assertThat(assignment).hasSize(4);
+        assertThat(Arrays.stream(assignment).filter(col -> col >= 0).sorted().toArray()).containsExactly(0, 1);
+        assertThat(assignment[1]).isEqualTo(0);
+        assertThat(assignment[2]).isEqualTo(1);
+        assertThat(assignment[0]).isEqualTo(-1);
+        assertThat(assignment[3]).isEqualTo(-1);
+    }
+
+    @Test
+    void emptyMatricesAssignNothing() {
+        assertThat(HungarianAssignment.solve(new double[0][0])).isEmpty();
+        assertThat(HungarianAssignment.solve(new double[3][0])).containsExactly(-1, -1, -1);
+    }
+
+    @Test
+    void matchesBruteForceOnSmallRandomMatrices() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][cols];
+            for (double[] row : cost) {
+                for (int c = 0; c < cols; c++) {
+                    row[c] = random.nextInt(20) + random.nextDouble();
+                }
+            }
+
+            int[] assignment = HungarianAssignment.solve(cost);
+
+            assertValidAssignment(assignment, rows, cols);
+            assertThat(totalCost(cost, assignment))
+                    .as("round %d, %dx%d", round, rows, cols)
+                    .isCloseTo(bruteForceMinimum(cost, 0, new boolean[cols], Math.min(rows, cols)), within(1e-9));
+        }
+    }
+
+    private static void assertValidAssignment(int[] assignment, int rows, int cols) {
+        assertThat(assignment).hasSize(rows);
+        boolean[] taken = new boolean[cols];
+        int assigned = 0;
+        for (int col : assignment) {
+            if (col >= 0) {
+                assertThat(taken[col]).as("column %d assigned twice", col).isFalse();
+                taken[col] = true;
+                assigned++;
+            }
+        }
+        assertThat(assigned).isEqualTo(Math.min(rows, cols));
+    }
+
+    private static double totalCost(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] >= 0) {
+                total += cost[row][assignment[row]];
+            }
+        }
+        return total;
+    }
+
+    // Cheapest way to assign `remaining` more rows, from `row` on, to distinct unused columns
+    private static double bruteForceMinimum(double[][] cost, int row, boolean[] used, int remaining) {
+        if (remaining == 0) {
+            return 0;
+        }
+        if (cost.length - row < remaining) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = bruteForceMinimum(cost, row + 1, used, remaining); // leave this row unassigned
+        for (int col = 0; col < used.length; col++) {
+            if (!used[col]) {
+                used[col] = true;
+                best = Math.min(best, cost[row][col] + bruteForceMinimum(cost, row + 1, used, remaining - 1));
+                used[col] = false;
+            }
+        }
+        return best;
+    }
+}
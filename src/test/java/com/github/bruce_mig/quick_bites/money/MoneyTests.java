@@ -0,0 +1,113 @@
+package com.github.bruce_mig.quick_bites.money;
+
+import com.github.bruce_mig.quick_bites.restaurants.MenuItem;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void parsesPlainDecimalsExactly() {
+        assertThat(Money.parse("25.99")).isEqualTo(Money.of(2599));
+        assertThat(Money.parse("7")).isEqualTo(Money.of(700));
+        assertThat(Money.parse("12.")).isEqualTo(Money.of(1200));
+        assertThat(Money.parse(".5")).isEqualTo(Money.of(50));
+        assertThat(Money.parse("0.010")).isEqualTo(Money.of(1));
+        assertThat(Money.parse("-0.5")).isEqualTo(Money.of(-50));
+        assertThat(Money.parse("+3.25")).isEqualTo(Money.of(325));
+        assertThat(Money.parse("-0")).isEqualTo(Money.of(0));
+    }
+
+    @Test
+    void rejectsFractionsOfAMinorUnit() {
+        assertThatThrownBy(() -> Money.parse("0.001"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not a whole number");
+        assertThatThrownBy(() -> Money.parse("12.999"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTextThatIsNotAPlainDecimal() {
+        for (String text : new String[] {"", "-", "+", ".", "1.2.3", "--1", "+-1", "1-", "1e3", " 1", "1,5", "abc"}) {
+            assertThatThrownBy(() -> Money.parse(text))
+                    .as(text)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Not a decimal amount");
+        }
+    }
+
+    @Test
+    void parsesTheWholeRangeOfALongAndNothingBeyond() {
+        assertThat(Money.parse("92233720368547758.07")).isEqualTo(Money.of(Long.MAX_VALUE));
+        assertThat(Money.parse("-92233720368547758.08")).isEqualTo(Money.of(Long.MIN_VALUE));
+        for (String text : new String[] {"92233720368547758.08", "-92233720368547758.09", "99999999999999999999"}) {
+            assertThatThrownBy(() -> Money.parse(text))
+                    .as(text)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("does not fit");
+        }
+    }
+
+    @Test
+    void plainStringsParseBack() {
+        for (long minorUnits : new long[] {0, 5, -5, 1299, -100, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Money money = Money.of(minorUnits);
+            assertThat(Money.parse(money.toPlainString())).isEqualTo(money);
+        }
+        assertThat(Money.of(-5).toPlainString()).isEqualTo("-0.05");
+        Money yen = Money.of(1500, Currency.getInstance("JPY"));
+        assertThat(yen.toPlainString()).isEqualTo("1500");
+        assertThat(Money.parse("1500", yen.currency())).isEqualTo(yen);
+    }
+
+    @Test
+    void bigDecimalConversionIsExact() {
+        assertThat(Money.of(new BigDecimal("12.5"))).isEqualTo(Money.of(1250));
+        assertThat(Money.of(1250).toBigDecimal()).isEqualTo(new BigDecimal("12.50"));
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.001")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isAPlainDecimalNumberInJson() {
+        assertThat(jsonMapper.writeValueAsString(Money.of(1250))).isEqualTo("12.50");
+        assertThat(jsonMapper.readValue("12.5", Money.class)).isEqualTo(Money.of(1250));
+        assertThat(jsonMapper.readValue("0.1", Money.class)).isEqualTo(Money.of(10));
+
+        MenuItem item = new MenuItem("item-1", "rest-001", "Soup", "Hot", Money.of(1999), "Starters", true);
+        String json = jsonMapper.writeValueAsString(item);
+        assertThat(json).contains("\"price\":19.99");
+        assertThat(jsonMapper.readValue(json, MenuItem.class)).isEqualTo(item);
+    }
+
+    @Test
+    void rejectsJsonAmountsWithAFractionOfACent() {
+        assertThatThrownBy(() -> jsonMapper.readValue("12.999", Money.class))
+                .isInstanceOf(DatabindException.class)
+                .hasRootCauseInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arithmeticIsOverflowCheckedAndNeverMixesCurrencies() {
+        assertThat(Money.of(250).plus(Money.of(199)).times(3)).isEqualTo(Money.of(1347));
+        assertThat(Money.of(100).minus(Money.of(250)).isNegative()).isTrue();
+        assertThatThrownBy(() -> Money.of(Long.MAX_VALUE).plus(Money.of(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(100).plus(Money.of(100, Currency.getInstance("EUR"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.of(100).compareTo(Money.of(100, Currency.getInstance("EUR"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
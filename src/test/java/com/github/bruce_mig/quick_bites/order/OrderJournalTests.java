@@ -0,0 +1,156 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderJournalTests {
+
+    // A status change for "order-N" takes 33 bytes, so three fit in a segment
+    private static final int SMALL_SEGMENT = 128;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryAppendedEventInOrder() throws Exception {
+        Order order = new Order("order-1", "customer-1", "rest-001", List.of("item-1", "item-2"),
+                Money.parse("25.99"), "payment-1");
+        List<OrderEvent> appended = List.of(
+                new OrderEvent.Created(order),
+                new OrderEvent.StatusChanged("order-1", Order.OrderStatus.CONFIRMED, "confirmation-1"),
+                new OrderEvent.StatusChanged("order-1", Order.OrderStatus.PREPARING, null));
+        try (OrderJournal journal = open(4096, event -> { })) {
+            for (OrderEvent event : appended) {
+                journal.append(event).get();
+            }
+        }
+
+        List<OrderEvent> replayed = new ArrayList<>();
+        try (OrderJournal journal = open(4096, replayed::add)) {
+            assertThat(journal.stats().replayedEvents()).isEqualTo(3);
+        }
+        assertThat(replayed).isEqualTo(appended);
+    }
+
+    @Test
+    void rollsOverToNewSegmentsAndReplaysThemAll() throws Exception {
+        try (OrderJournal journal = open(SMALL_SEGMENT, event -> { })) {
+            appendStatusChanges(journal, 0, 8);
+            assertThat(journal.stats().segments()).isEqualTo(3);
+        }
+
+        assertThat(replayedOrderIds(SMALL_SEGMENT)).containsExactly(
+                "order-0", "order-1", "order-2", "order-3", "order-4", "order-5", "order-6", "order-7");
+    }
+
+    @Test
+    void cutsOffATornRecordAtTheTailAndResumesWritingThere() throws Exception {
+        try (OrderJournal journal = open(4096, event -> { })) {
+            appendStatusChanges(journal, 0, 3);
+        }
+        // The last record's payload never fully reached the disk
+        Path segment = segment(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = recordOffsets(bytes).getLast();
+        int length = ByteBuffer.wrap(bytes).getInt(last);
+        bytes[last + 8 + length - 1] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        assertThat(replayedOrderIds(4096)).containsExactly("order-0", "order-1");
+        assertThat(ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(last)).isZero();
+
+        try (OrderJournal journal = open(4096, event -> { })) {
+            appendStatusChanges(journal, 3, 1);
+        }
+        assertThat(replayedOrderIds(4096)).containsExactly("order-0", "order-1", "order-3");
+    }
+
+    @Test
+    void refusesToOpenWhenARecordBeforeTheTailFailsItsChecksum() throws Exception {
+        try (OrderJournal journal = open(SMALL_SEGMENT, event -> { })) {
+            appendStatusChanges(journal, 0, 8);
+        }
+        Path segment = segment(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int second = recordOffsets(bytes).get(1);
+        bytes[second + 8 + 12] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        assertThatThrownBy(() -> open(SMALL_SEGMENT, event -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("segment 0 is corrupt at " + second)
+                .cause().hasMessage("checksum mismatch");
+    }
+
+    @Test
+    void onlyOneJournalCanHaveTheDirectoryOpen() throws Exception {
+        try (OrderJournal journal = open(4096, event -> { })) {
+            assertThatThrownBy(() -> open(4096, event -> { }))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("is already open");
+        }
+        try (OrderJournal reopened = open(4096, event -> { })) {
+            assertThat(reopened.stats().replayedEvents()).isZero();
+        }
+    }
+
+    @Test
+    void rejectsAppendsOnceClosed() throws Exception {
+        OrderJournal journal = open(4096, event -> { });
+        journal.close();
+
+        assertThatThrownBy(() -> journal.append(statusChange(0)).get())
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private OrderJournal open(int segmentSize, Consumer<OrderEvent> replay) throws IOException {
+        return new OrderJournal(directory, segmentSize, false, replay);
+    }
+
+    private List<String> replayedOrderIds(int segmentSize) throws IOException {
+        List<String> orderIds = new ArrayList<>();
+        try (OrderJournal ignored = open(segmentSize, event -> orderIds.add(event.orderId()))) {
+            return orderIds;
+        }
+    }
+
+    private static void appendStatusChanges(OrderJournal journal, int from, int count) throws Exception {
+        for (int i = from; i < from + count; i++) {
+            journal.append(statusChange(i)).get();
+        }
+    }
+
+    private static OrderEvent statusChange(int order) {
+        return new OrderEvent.StatusChanged("order-" + order, Order.OrderStatus.CONFIRMED, null);
+    }
+
+    private Path segment(int index) {
+        return directory.resolve("orders-%010d.journal".formatted(index));
+    }
+
+    // Where each record of a segment starts, walking the length headers up to the first empty one
+    private static List<Integer> recordOffsets(byte[] segment) {
+        ByteBuffer buffer = ByteBuffer.wrap(segment);
+        List<Integer> offsets = new ArrayList<>();
+        for (int position = 0; position + 8 <= segment.length && buffer.getInt(position) > 0;
+             position += 8 + buffer.getInt(position)) {
+            offsets.add(position);
+        }
+        return offsets;
+    }
+}
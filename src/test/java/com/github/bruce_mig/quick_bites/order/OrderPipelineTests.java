@@ -0,0 +1,265 @@
+package com.github.bruce_mig.quick_bites.order;
+
+import com.github.bruce_mig.quick_bites.driver.Driver;
+import com.github.bruce_mig.quick_bites.driver.DriverAssignmentService;
+import com.github.bruce_mig.quick_bites.driver.DriverRegistry;
+import com.github.bruce_mig.quick_bites.driver.DriverRetryListener;
+import com.github.bruce_mig.quick_bites.driver.PickupLocator;
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgetRegistry;
+import com.github.bruce_mig.quick_bites.resilience.RetryTelemetry;
+import com.github.bruce_mig.quick_bites.restaurants.DataLoader;
+import com.github.bruce_mig.quick_bites.restaurants.RestaurantNotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPipelineTests {
+
+    private static final Driver DRIVER = new Driver("driver-1", "Test Driver", 4.9);
+    private static final Duration GENEROUS = Duration.ofSeconds(5);
+
+    @TempDir
+    Path journalDirectory;
+
+    private OrderService orderService;
+    private DataLoader dataLoader;
+    private final ScriptedPayments payments = new ScriptedPayments();
+    private final ScriptedNotifications notifications = new ScriptedNotifications();
+    private ScriptedDrivers drivers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderService = new OrderService(journalDirectory.toString(), DataSize.ofKilobytes(64), false);
+        dataLoader = new DataLoader(JsonMapper.builder().build(), "", "");
+        dataLoader.run();
+        drivers = new ScriptedDrivers(dataLoader);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        orderService.close();
+    }
+
+    @Test
+    void confirmsTheOrderOnceEveryStageSucceeds() throws InterruptedException {
+        payments.confirm = after(100, "pay-conf-1");
+        notifications.notify = after(150, Duration.ofMillis(150));
+        drivers.assign = after(200, DRIVER);
+
+        OrderPipeline.Result result = pipeline(GENEROUS).process(draft());
+
+        assertThat(result.failedStage()).isNull();
+        assertThat(result.order().status()).isEqualTo(Order.OrderStatus.CONFIRMED);
+        assertThat(result.order().paymentConfirmation()).isEqualTo("pay-conf-1");
+        assertThat(result.order().totalAmount()).isEqualTo(Money.parse("27.98"));
+        assertThat(result.driver()).isEqualTo(DRIVER);
+        assertThat(payments.refunds).isEmpty();
+        assertThat(drivers.released).isEmpty();
+    }
+
+    @Test
+    void timingsShowTheStagesRanTogether() throws InterruptedException {
+        payments.confirm = after(100, "pay-conf-1");
+        notifications.notify = after(150, Duration.ofMillis(150));
+        drivers.assign = after(200, DRIVER);
+
+        OrderPipeline.Result result = pipeline(GENEROUS).process(draft());
+
+        assertThat(result.stages()).extracting(OrderPipeline.StageTiming::stage)
+                .containsExactly("place", "payment", "restaurant-notification", "driver-assignment", "confirm");
+        assertThat(result.stages()).extracting(OrderPipeline.StageTiming::outcome)
+                .containsOnly(OrderPipeline.Outcome.SUCCEEDED);
+        assertThat(timing(result, "payment").millis()).isGreaterThanOrEqualTo(100);
+        assertThat(timing(result, "driver-assignment").millis()).isGreaterThanOrEqualTo(200);
+        // End to end is about the slowest stage, not the sum of all of them
+        assertThat(result.sumOfStagesMillis()).isGreaterThanOrEqualTo(450);
+        assertThat(result.totalMillis()).isLessThan(result.sumOfStagesMillis());
+    }
+
+    @Test
+    void failedStageCancelsItsSiblingsAndTheOrder() throws InterruptedException {
+        payments.confirm = after(10_000, "pay-conf-1");
+        notifications.notify = failAfter(50, "restaurant offline");
+        drivers.assign = after(10_000, DRIVER);
+        long start = System.nanoTime();
+
+        OrderPipeline.Result result = pipeline(GENEROUS).process(draft());
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3_000);
+        assertThat(result.failedStage()).isEqualTo("restaurant-notification");
+        assertThat(result.timedOut()).isFalse();
+        assertThat(result.error()).isEqualTo("restaurant offline");
+        assertThat(result.order().status()).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(timing(result, "payment").outcome()).isEqualTo(OrderPipeline.Outcome.CANCELLED);
+        assertThat(timing(result, "driver-assignment").outcome()).isEqualTo(OrderPipeline.Outcome.CANCELLED);
+        assertThat(result.stages().getLast().stage()).isEqualTo("cancel");
+        assertThat(payments.refunds).isEmpty();
+        assertThat(drivers.released).isEmpty();
+    }
+
+    @Test
+    void stageOverrunningItsDeadlineTimesOutAndCancelsTheRest() throws InterruptedException {
+        payments.confirm = after(10_000, "pay-conf-1");
+        notifications.notify = after(10, Duration.ofMillis(10));
+        drivers.assign = after(10_000, DRIVER);
+        long start = System.nanoTime();
+
+        OrderPipeline.Result result = pipeline(Duration.ofMillis(200)).process(draft());
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3_000);
+        assertThat(result.timedOut()).isTrue();
+        assertThat(result.failedStage()).isIn("payment", "driver-assignment");
+        OrderPipeline.StageTiming failed = timing(result, result.failedStage());
+        assertThat(failed.outcome()).isEqualTo(OrderPipeline.Outcome.TIMED_OUT);
+        assertThat(failed.error()).isEqualTo("No result within 200ms");
+        assertThat(timing(result, "restaurant-notification").outcome()).isEqualTo(OrderPipeline.Outcome.SUCCEEDED);
+        assertThat(result.order().status()).isEqualTo(Order.OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void paymentCapturedBeforeAnotherStageFailsIsRefunded() throws InterruptedException {
+        payments.confirm = after(10, "pay-conf-1");
+        notifications.notify = after(10, Duration.ofMillis(10));
+        drivers.assign = failAfter(100, "no driver nearby");
+
+        OrderPipeline.Result result = pipeline(GENEROUS).process(draft());
+
+        assertThat(result.failedStage()).isEqualTo("driver-assignment");
+        assertThat(timing(result, "payment").outcome()).isEqualTo(OrderPipeline.Outcome.SUCCEEDED);
+        assertThat(payments.refunds).containsExactly("pay-conf-1");
+        assertThat(result.order().status()).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(result.order().paymentConfirmation()).isNull();
+    }
+
+    @Test
+    void driverClaimedAsTheOrderIsCancelledIsReleased() throws InterruptedException {
+        payments.confirm = failAfter(50, "payment declined");
+        notifications.notify = after(10, Duration.ofMillis(10));
+        // Claims its driver only after the cancellation has already reached it
+        drivers.assign = ignoringInterrupts(200, DRIVER);
+
+        OrderPipeline.Result result = pipeline(GENEROUS).process(draft());
+
+        assertThat(result.failedStage()).isEqualTo("payment");
+        assertThat(timing(result, "driver-assignment").outcome()).isEqualTo(OrderPipeline.Outcome.CANCELLED);
+        assertThat(result.driver()).isNull();
+        assertThat(drivers.released).containsExactly(DRIVER);
+        assertThat(result.order().status()).isEqualTo(Order.OrderStatus.CANCELLED);
+    }
+
+    private OrderPipeline pipeline(Duration stageTimeout) {
+        return new OrderPipeline(orderService, dataLoader, payments, notifications, drivers,
+                stageTimeout, stageTimeout, stageTimeout);
+    }
+
+    private static Order draft() {
+        return new Order(null, "customer-1", "rest-001", List.of("item-001", "item-002"), null, "payment-1");
+    }
+
+    private static OrderPipeline.StageTiming timing(OrderPipeline.Result result, String stage) {
+        return result.stages().stream().filter(timing -> timing.stage().equals(stage)).findFirst().orElseThrow();
+    }
+
+    private static <T> Callable<T> after(long millis, T value) {
+        return () -> {
+            Thread.sleep(millis);
+            return value;
+        };
+    }
+
+    private static <T> Callable<T> failAfter(long millis, String message) {
+        return () -> {
+            Thread.sleep(millis);
+            throw new IllegalStateException(message);
+        };
+    }
+
+    private static <T> Callable<T> ignoringInterrupts(long millis, T value) {
+        return () -> {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            for (long remaining = millis; remaining > 0; remaining = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime())) {
+                try {
+                    Thread.sleep(remaining);
+                } catch (InterruptedException ignored) {
+                    // Keeps going, like a call that has already reached the other side
+                }
+            }
+            return value;
+        };
+    }
+
+    private static <T> T run(Callable<T> step) {
+        try {
+            return step.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ScriptedPayments extends PaymentService {
+
+        private volatile Callable<String> confirm;
+        private final List<String> refunds = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String confirmPayment(Order order) {
+            return run(confirm);
+        }
+
+        @Override
+        public void refund(Order order, String paymentConfirmation) {
+            refunds.add(paymentConfirmation);
+        }
+    }
+
+    private static final class ScriptedNotifications extends RestaurantNotificationService {
+
+        private volatile Callable<Duration> notify;
+
+        @Override
+        public Duration notifyRestaurant(Order order) {
+            return run(notify);
+        }
+    }
+
+    private static final class ScriptedDrivers extends DriverAssignmentService {
+
+        private volatile Callable<Driver> assign;
+        private final List<Driver> released = new CopyOnWriteArrayList<>();
+
+        private ScriptedDrivers(DataLoader dataLoader) {
+            super(new DriverRetryListener(), new DriverRegistry(), new PickupLocator(dataLoader), null,
+                    new RetryBudgetRegistry(0.2, 10, new StandardEnvironment()), new RetryTelemetry(), 0, Duration.ZERO);
+        }
+
+        @Override
+        public Driver assignDriverWithin(Order order, Duration timeout) {
+            return run(assign);
+        }
+
+        @Override
+        public boolean releaseDriver(Driver driver) {
+            released.add(driver);
+            return true;
+        }
+    }
+}
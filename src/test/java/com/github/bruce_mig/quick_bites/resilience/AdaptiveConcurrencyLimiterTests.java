@@ -0,0 +1,135 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void fullWaitQueueRejectsStraightAway() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 2, 2, 0, 1);
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(BulkheadFullException.class);
+        assertThat(limiter.snapshot().inFlight()).isEqualTo(2);
+        assertThat(limiter.snapshot().rejected()).isEqualTo(1);
+
+        limiter.release(RTT_NANOS, true);
+        limiter.acquire();
+        assertThat(limiter.snapshot().inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingLongerThanMaxWaitTimesOut() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 10, 1);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire(0, TimeUnit.MILLISECONDS.toNanos(50)))
+                .isInstanceOf(PermitWaitTimeoutException.class);
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        AdaptiveConcurrencyLimiter.Snapshot snapshot = limiter.snapshot();
+        assertThat(snapshot.timedOut()).isEqualTo(1);
+        assertThat(snapshot.queueDepth()).isZero();
+        assertThat(snapshot.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void higherPriorityLaneIsServedFirst() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 10, 2);
+        BlockingQueue<String> acquired = new LinkedBlockingQueue<>();
+        limiter.acquire();
+
+        // The low-priority caller queues first
+        Thread low = Thread.ofVirtual().start(() -> acquireAndRecord(limiter, 1, "low", acquired));
+        awaitQueueDepth(limiter, 1);
+        Thread high = Thread.ofVirtual().start(() -> acquireAndRecord(limiter, 0, "high", acquired));
+        awaitQueueDepth(limiter, 2);
+
+        limiter.release(RTT_NANOS, true);
+        assertThat(acquired.poll(5, TimeUnit.SECONDS)).isEqualTo("high");
+        assertThat(acquired.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+        limiter.release(RTT_NANOS, true);
+        assertThat(acquired.poll(5, TimeUnit.SECONDS)).isEqualTo("low");
+        high.join();
+        low.join();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHoldsAndShrinksWhenItRises() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 100);
+        for (int round = 0; round < 20; round++) {
+            runFullBatch(limiter, RTT_NANOS);
+        }
+        int grown = limiter.snapshot().limit();
+        assertThat(grown).isGreaterThan(4);
+
+        for (int round = 0; round < 5; round++) {
+            runFullBatch(limiter, RTT_NANOS * 10);
+        }
+        assertThat(limiter.snapshot().limit()).isLessThan(grown);
+    }
+
+    @Test
+    void failuresShrinkTheLimitDownToTheMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 3, 20);
+        limiter.acquire();
+        limiter.release(RTT_NANOS, false);
+        assertThat(limiter.snapshot().limit()).isEqualTo(9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(RTT_NANOS, false);
+        }
+        assertThat(limiter.snapshot().limit()).isEqualTo(3);
+        assertThat(limiter.snapshot().failed()).isEqualTo(51);
+    }
+
+    @Test
+    void limitsMustBeOrdered() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter("test", 5, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter("test", 5, 10, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Take every permit the current limit allows, then complete them all with the same latency
+    private static void runFullBatch(AdaptiveConcurrencyLimiter limiter, long rttNanos) throws InterruptedException {
+        int permits = limiter.snapshot().limit();
+        for (int i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < permits; i++) {
+            limiter.release(rttNanos, true);
+        }
+    }
+
+    private static void acquireAndRecord(AdaptiveConcurrencyLimiter limiter, int lane, String name,
+                                         BlockingQueue<String> acquired) {
+        try {
+            limiter.acquire(lane, -1);
+            acquired.add(name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQueueDepth(AdaptiveConcurrencyLimiter limiter, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.snapshot().queueDepth() < depth) {
+            assertThat(System.nanoTime()).as("queue depth %d", depth).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedConcurrencyLimiterTests {
+
+    @Test
+    void idleCompartmentsAreEvictedButBusyOnesAreKept() throws InterruptedException {
+        KeyedConcurrencyLimiter limiter = new KeyedConcurrencyLimiter("test",
+                key -> new AdaptiveConcurrencyLimiter(key, 1, 1, 1), 0, Duration.ofMillis(1));
+        KeyedConcurrencyLimiter.Permit busy = limiter.acquire("busy");
+        limiter.release(limiter.acquire("idle"), true);
+
+        Thread.sleep(10);
+        limiter.release(limiter.acquire("other"), true);
+        assertThat(limiter.snapshot("idle")).isNull();
+        assertThat(limiter.snapshot("busy")).isNotNull();
+
+        limiter.release(busy, true);
+        Thread.sleep(10);
+        limiter.release(limiter.acquire("other"), true);
+        assertThat(limiter.snapshot("busy")).isNull();
+    }
+
+    @Test
+    void evictionNeverLetsTwoLimitersServeOneKey() throws InterruptedException {
+        // Every acquire sweeps, so compartments are evicted and recreated constantly
+        KeyedConcurrencyLimiter limiter = new KeyedConcurrencyLimiter("test",
+                key -> new AdaptiveConcurrencyLimiter(key, 1, 1, 1), 0, Duration.ZERO);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int i = 0; i < 2_000; i++) {
+                        KeyedConcurrencyLimiter.Permit permit = limiter.acquire("restaurant");
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        active.decrementAndGet();
+                        limiter.release(permit, true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(maxActive.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RetryBudgetTests {
+
+    private static final String OPERATION = "test.operation";
+
+    @Test
+    void everyAttemptDepositsTheRatio() {
+        RetryBudget budget = emptyBudget();
+
+        for (int i = 0; i < 5; i++) {
+            budget.recordAttempt(OPERATION);
+        }
+
+        assertThat(budget.snapshot().availableTokens()).isCloseTo(1.0, within(1e-9));
+        assertThat(operation(budget).attempts()).isEqualTo(5);
+    }
+
+    @Test
+    void retryCostsOnePlusItsOwnDeposit() {
+        RetryBudget budget = emptyBudget();
+        for (int i = 0; i < 5; i++) {
+            budget.recordAttempt(OPERATION);
+        }
+        // 1.0 available, 1.2 needed
+        assertThat(budget.tryAcquireRetry(OPERATION)).isFalse();
+
+        budget.recordAttempt(OPERATION);
+        assertThat(budget.tryAcquireRetry(OPERATION)).isTrue();
+        assertThat(budget.snapshot().availableTokens()).isCloseTo(0.0, within(1e-9));
+    }
+
+    @Test
+    void depositsAreCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget("test", 0.5, 3);
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordAttempt(OPERATION);
+        }
+
+        assertThat(budget.snapshot().availableTokens()).isEqualTo(3.0);
+    }
+
+    @Test
+    void retriesAreDeniedOnceTheReserveIsSpent() {
+        RetryBudget budget = new RetryBudget("test", 0.2, 3);
+
+        assertThat(budget.tryAcquireRetry(OPERATION)).isTrue();
+        assertThat(budget.tryAcquireRetry(OPERATION)).isTrue();
+        assertThat(budget.tryAcquireRetry(OPERATION)).isFalse();
+        assertThat(budget.tryAcquireRetry("other.operation")).isFalse();
+
+        RetryBudget.Snapshot snapshot = budget.snapshot();
+        assertThat(snapshot.availableTokens()).isCloseTo(0.6, within(1e-9));
+        assertThat(snapshot.operations()).containsExactly(
+                new RetryBudget.OperationSnapshot("other.operation", 0, 0, 1),
+                new RetryBudget.OperationSnapshot(OPERATION, 0, 2, 1));
+    }
+
+    @Test
+    void finalFailureOfACallOutOfRetriesIsChargedToo() {
+        RetryBudget budget = new RetryBudget("test", 0.0, 10);
+        RetryTemplate retryTemplate = new RetryTemplate(RetryPolicy.builder()
+                .maxRetries(2)
+                .delay(Duration.ZERO)
+                .predicate(exception -> budget.tryAcquireRetry(OPERATION))
+                .build());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(budget.recordingAttempts(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        }))).isInstanceOf(RetryException.class);
+
+        // Three attempts, and a retry paid for after each of them - the last one was never used
+        assertThat(calls).hasValue(3);
+        assertThat(operation(budget).attempts()).isEqualTo(3);
+        assertThat(operation(budget).retriesGranted()).isEqualTo(3);
+        assertThat(budget.snapshot().availableTokens()).isCloseTo(7.0, within(1e-9));
+    }
+
+    @Test
+    void spentBudgetEndsTheRetryLoopEarly() {
+        RetryBudget budget = new RetryBudget("test", 0.0, 1);
+        RetryTemplate retryTemplate = new RetryTemplate(RetryPolicy.builder()
+                .maxRetries(5)
+                .delay(Duration.ZERO)
+                .predicate(exception -> budget.tryAcquireRetry(OPERATION))
+                .build());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(budget.recordingAttempts(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        }))).isInstanceOf(RetryException.class);
+
+        assertThat(calls).hasValue(2);
+        assertThat(operation(budget).retriesGranted()).isEqualTo(1);
+        assertThat(operation(budget).retriesDenied()).isEqualTo(1);
+    }
+
+    // Ratio 0.2 with a reserve of exactly one retry, already spent
+    private static RetryBudget emptyBudget() {
+        RetryBudget budget = new RetryBudget("test", 0.2, 1.2);
+        assertThat(budget.tryAcquireRetry("reserve")).isTrue();
+        return budget;
+    }
+
+    private static RetryBudget.OperationSnapshot operation(RetryBudget budget) {
+        return budget.snapshot().operations().stream()
+                .filter(operation -> operation.operation().equals(OPERATION))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.bruce_mig.quick_bites.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowCircuitBreakerTests {
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        SlidingWindowCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(breaker.acquirePermission());
+        }
+
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+        breaker.onFailure(breaker.acquirePermission());
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void opensAtTheFailureRateThresholdAndRejectsCalls() {
+        SlidingWindowCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        breaker.onSuccess(breaker.acquirePermission());
+        breaker.onSuccess(breaker.acquirePermission());
+        breaker.onFailure(breaker.acquirePermission());
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+
+        // 2 failures in 4 calls is the 50% threshold
+        breaker.onFailure(breaker.acquirePermission());
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(breaker::acquirePermission)
+                .isInstanceOfSatisfying(CircuitBreakerOpenException.class,
+                        e -> assertThat(e.getRetryAfter()).isPositive());
+        SlidingWindowCircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertThat(snapshot.rejectedCalls()).isEqualTo(1);
+        assertThat(snapshot.timesOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        SlidingWindowCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        breaker.onFailure(breaker.acquirePermission());
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess(breaker.acquirePermission());
+        }
+        assertThat(breaker.snapshot().windowFailures()).isZero();
+        assertThat(breaker.snapshot().windowCalls()).isEqualTo(10);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.acquirePermission());
+        }
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+        breaker.onFailure(breaker.acquirePermission());
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheProbesThrough() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = openBreaker(Duration.ofMillis(20));
+        Thread.sleep(30);
+
+        long first = breaker.acquirePermission();
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.HALF_OPEN);
+        long second = breaker.acquirePermission();
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+
+        breaker.onSuccess(first);
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(second);
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+        assertThat(breaker.snapshot().windowCalls()).isZero();
+    }
+
+    @Test
+    void failedProbesOpenTheCircuitAgain() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = openBreaker(Duration.ofMillis(20));
+        Thread.sleep(30);
+
+        breaker.onSuccess(breaker.acquirePermission());
+        breaker.onFailure(breaker.acquirePermission());
+
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.OPEN);
+        assertThat(breaker.snapshot().timesOpened()).isEqualTo(2);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    void callsFromAnEarlierStateAreIgnored() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = breaker(Duration.ofMillis(20));
+        long slowCall = breaker.acquirePermission();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.acquirePermission());
+        }
+        Thread.sleep(30);
+        long firstProbe = breaker.acquirePermission();
+
+        // Completing the pre-open call must neither count as a probe nor free a probe slot
+        breaker.onSuccess(slowCall);
+        long secondProbe = breaker.acquirePermission();
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+
+        breaker.onSuccess(firstProbe);
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(secondProbe);
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void cancelledCallsAreNotRecordedAndHandTheirProbeBack() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = breaker(Duration.ofMillis(20));
+        breaker.onCancelled(breaker.acquirePermission());
+        assertThat(breaker.snapshot().windowCalls()).isZero();
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.acquirePermission());
+        }
+        Thread.sleep(30);
+        breaker.onCancelled(breaker.acquirePermission());
+        long firstProbe = breaker.acquirePermission();
+        long secondProbe = breaker.acquirePermission();
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+
+        breaker.onSuccess(firstProbe);
+        breaker.onSuccess(secondProbe);
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.CLOSED);
+    }
+
+    // Window of 10, judged from 4 calls, opens at 50% failures, 2 probes
+    private static SlidingWindowCircuitBreaker breaker(Duration openDuration) {
+        return new SlidingWindowCircuitBreaker("test", 10, 4, 50, openDuration, 2);
+    }
+
+    private static SlidingWindowCircuitBreaker openBreaker(Duration openDuration) {
+        SlidingWindowCircuitBreaker breaker = breaker(openDuration);
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.acquirePermission());
+        }
+        assertThat(breaker.snapshot().state()).isEqualTo(SlidingWindowCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogDiffTests {
+
+    private final RestaurantCatalog catalog = new RestaurantCatalog(1,
+            List.of(restaurant("rest-001", 4.5, "item-a", "item-b"),
+                    restaurant("rest-002", 4.0, "item-c"),
+                    restaurant("rest-003", 3.5)),
+            List.of(item("item-a", "rest-001", 1_000),
+                    item("item-b", "rest-001", 500),
+                    item("item-c", "rest-002", 1_200),
+                    // Not on any restaurant's list
+                    item("item-x", "rest-003", 800)));
+
+    @Test
+    void laterDiffWinsWhenMerged() {
+        CatalogDiff first = CatalogDiff.menuItems(Map.of("item-a", item("item-a", "rest-001", 1_100)), Set.of("item-b"));
+        CatalogDiff second = CatalogDiff.menuItems(Map.of("item-a", item("item-a", "rest-001", 1_300)), Set.of("item-c"))
+                .and(CatalogDiff.restaurants(Map.of(), Set.of("rest-003")));
+
+        CatalogDiff merged = first.and(second);
+
+        assertThat(merged.upsertedMenuItems().get("item-a").price()).isEqualTo(Money.of(1_300));
+        assertThat(merged.removedMenuItemIds()).containsExactlyInAnyOrder("item-b", "item-c");
+        assertThat(merged.removedRestaurantIds()).containsExactly("rest-003");
+        assertThat(merged.isEmpty()).isFalse();
+        assertThat(CatalogDiff.restaurants(Map.of(), Set.of()).and(CatalogDiff.menuItems(Map.of(), Set.of())).isEmpty())
+                .isTrue();
+    }
+
+    @Test
+    void appliesAddedRemovedAndChangedEntries() {
+        CatalogDiff diff = CatalogDiff.restaurants(
+                        Map.of("rest-001", restaurant("rest-001", 4.5, "item-a", "item-b", "item-d"),
+                                "rest-004", restaurant("rest-004", 5.0, "item-e")),
+                        Set.of("rest-002"))
+                .and(CatalogDiff.menuItems(
+                        Map.of("item-a", item("item-a", "rest-001", 1_100),
+                                "item-d", item("item-d", "rest-001", 300),
+                                "item-e", item("item-e", "rest-004", 2_000)),
+                        Set.of("item-c")));
+
+        RestaurantCatalog updated = catalog.withChanges(diff, 2);
+
+        assertThat(updated.version()).isEqualTo(2);
+        assertThat(updated.restaurantsById()).containsOnlyKeys("rest-001", "rest-003", "rest-004");
+        assertThat(updated.menuItemsById()).containsOnlyKeys("item-a", "item-b", "item-d", "item-e", "item-x");
+        assertThat(updated.menu("rest-001")).extracting(MenuItem::id).containsExactly("item-a", "item-b", "item-d");
+        assertThat(updated.menuItem("item-a").price()).isEqualTo(Money.of(1_100));
+        assertThat(updated.menu("rest-002")).isEmpty();
+        assertThat(updated.menu("rest-004")).extracting(MenuItem::id).containsExactly("item-e");
+        // Untouched menus carry over as they are
+        assertThat(updated.menu("rest-003")).isSameAs(catalog.menu("rest-003"));
+        // The previous catalog is left as it was
+        assertThat(catalog.version()).isEqualTo(1);
+        assertThat(catalog.menu("rest-002")).extracting(MenuItem::id).containsExactly("item-c");
+        assertThat(catalog.menuItem("item-a").price()).isEqualTo(Money.of(1_000));
+    }
+
+    @Test
+    void affectedRestaurantsAreThoseChangedOrListingAChangedItem() {
+        assertThat(catalog.restaurantsAffectedBy(
+                CatalogDiff.menuItems(Map.of("item-a", item("item-a", "rest-001", 1_100)), Set.of("item-c"))))
+                .containsExactlyInAnyOrder("rest-001", "rest-002");
+        assertThat(catalog.restaurantsAffectedBy(
+                CatalogDiff.restaurants(Map.of("rest-003", restaurant("rest-003", 3.6)), Set.of("rest-002"))))
+                .containsExactlyInAnyOrder("rest-002", "rest-003");
+        // An item no restaurant lists affects nobody
+        assertThat(catalog.restaurantsAffectedBy(
+                CatalogDiff.menuItems(Map.of("item-x", item("item-x", "rest-003", 900)), Set.of()))).isEmpty();
+    }
+
+    @Test
+    void uploadOnlyInvalidatesMenusThatChanged() throws Exception {
+        DataLoader dataLoader = new DataLoader(JsonMapper.builder().build(), "", "");
+        dataLoader.run();
+        RecordingMenuCache menuCache = new RecordingMenuCache();
+        CatalogReloader reloader = new CatalogReloader(dataLoader, menuCache, false);
+        RestaurantCatalog previous = dataLoader.catalog();
+
+        List<Restaurant> restaurants = new ArrayList<>(previous.restaurantsById().values());
+        // A new rating leaves the menu as it was, a removed restaurant loses it, a new one without items has none
+        restaurants.replaceAll(restaurant -> restaurant.id().equals("rest-002") ? withRating(restaurant, 1.0) : restaurant);
+        restaurants.removeIf(restaurant -> restaurant.id().equals("rest-005"));
+        restaurants.add(restaurant("rest-new", 4.0));
+
+        CatalogReloader.ReloadReport report = reloader.uploadRestaurants(json(restaurants));
+
+        assertThat(report.restaurantsUpserted()).isEqualTo(2);
+        assertThat(report.restaurantsRemoved()).isEqualTo(1);
+        assertThat(report.version()).isGreaterThan(report.previousVersion());
+        assertThat(report.invalidatedMenus()).containsExactly("rest-005");
+        assertThat(menuCache.invalidated).containsExactly("rest-005");
+        assertThat(dataLoader.catalog().restaurant("rest-002").rating()).isEqualTo(1.0);
+
+        List<MenuItem> menuItems = new ArrayList<>(dataLoader.catalog().menuItemsById().values());
+        menuItems.replaceAll(item -> item.id().equals("item-001") ? withPrice(item, Money.of(1)) : item);
+
+        report = reloader.uploadMenuItems(json(menuItems));
+
+        assertThat(report.menuItemsUpserted()).isEqualTo(1);
+        assertThat(report.invalidatedMenus()).containsExactly("rest-001");
+        assertThat(dataLoader.catalog().menu("rest-001")).extracting(MenuItem::price).contains(Money.of(1));
+
+        // The same data again changes nothing
+        report = reloader.uploadMenuItems(json(menuItems));
+
+        assertThat(report.menuItemsUpserted()).isZero();
+        assertThat(report.version()).isEqualTo(report.previousVersion());
+        assertThat(menuCache.invalidated).containsExactly("rest-005", "rest-001");
+    }
+
+    private static Restaurant restaurant(String id, double rating, String... menuItemIds) {
+        return new Restaurant(id, "Restaurant " + id, "Thai", rating, "1 Test St", 37.78, -122.41, List.of(menuItemIds));
+    }
+
+    private static Restaurant withRating(Restaurant restaurant, double rating) {
+        return new Restaurant(restaurant.id(), restaurant.name(), restaurant.cuisine(), rating, restaurant.address(),
+                restaurant.latitude(), restaurant.longitude(), restaurant.menuItemIds());
+    }
+
+    private static MenuItem item(String id, String restaurantId, long cents) {
+        return new MenuItem(id, restaurantId, "Item " + id, "", Money.of(cents), "Mains", true);
+    }
+
+    private static MenuItem withPrice(MenuItem item, Money price) {
+        return new MenuItem(item.id(), item.restaurantId(), item.name(), item.description(), price, item.category(),
+                item.available());
+    }
+
+    private static InputStream json(List<?> entries) {
+        return new ByteArrayInputStream(JsonMapper.builder().build().writeValueAsBytes(entries));
+    }
+
+    private static final class RecordingMenuCache extends MenuCache {
+
+        private final List<String> invalidated = new CopyOnWriteArrayList<>();
+
+        private RecordingMenuCache() {
+            super(null, Duration.ofMinutes(1), Duration.ofMinutes(10), 10);
+        }
+
+        @Override
+        public void invalidate(String restaurantId) {
+            invalidated.add(restaurantId);
+            super.invalidate(restaurantId);
+        }
+    }
+}
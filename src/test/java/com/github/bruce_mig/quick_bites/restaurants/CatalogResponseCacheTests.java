@@ -0,0 +1,164 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CatalogResponseCacheTests {
+
+    private static final List<Restaurant> RESTAURANTS = List.of(
+            new Restaurant("rest-001", "First", "Thai", 4.5, "1 Test St", 37.78, -122.41, List.of("item-1")),
+            new Restaurant("rest-002", "Second", "Pizza", 4.0, "2 Test St", 37.79, -122.42, List.of()));
+    private static final List<MenuItem> MENU_ITEMS = List.of(
+            new MenuItem("item-1", "rest-001", "Pad thai", "Noodles", Money.of(1_250), "Mains", true));
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CatalogResponseCache cache = new CatalogResponseCache(jsonMapper);
+
+    @Test
+    void encodesOncePerCatalogVersion() {
+        RestaurantCatalog catalog = catalog(1, RESTAURANTS);
+
+        CatalogResponseCache.EncodedResponse first = cache.restaurants(catalog, null);
+        CatalogResponseCache.EncodedResponse second = cache.restaurants(catalog, null);
+
+        assertThat(second).isSameAs(first);
+        assertThat(jsonMapper.readTree(first.json()).size()).isEqualTo(2);
+        assertThat(cache.stats()).isEqualTo(new CatalogResponseCache.Stats(1, 1, 1, 1));
+
+        CatalogResponseCache.EncodedResponse afterReload = cache.restaurants(catalog(2, RESTAURANTS), null);
+
+        assertThat(afterReload).isNotSameAs(first);
+        assertThat(cache.stats().catalogVersion()).isEqualTo(2);
+        assertThat(cache.stats().encodings()).isEqualTo(2);
+    }
+
+    @Test
+    void etagFollowsTheContentNotTheVersion() {
+        CatalogResponseCache.EncodedResponse before = cache.restaurants(catalog(1, RESTAURANTS), null);
+        CatalogResponseCache.EncodedResponse unchanged = cache.restaurants(catalog(2, RESTAURANTS), null);
+        List<Restaurant> renamed = new ArrayList<>(RESTAURANTS);
+        renamed.set(1, new Restaurant("rest-002", "Renamed", "Pizza", 4.0, "2 Test St", 37.79, -122.42, List.of()));
+        CatalogResponseCache.EncodedResponse changed = cache.restaurants(catalog(3, renamed), null);
+
+        assertThat(before.etag()).startsWith("\"").endsWith("\"");
+        assertThat(before.gzipEtag()).isNotEqualTo(before.etag());
+        assertThat(unchanged.etag()).isEqualTo(before.etag());
+        assertThat(changed.etag()).isNotEqualTo(before.etag());
+        // Each cuisine is a response of its own
+        assertThat(cache.restaurants(catalog(3, renamed), "Thai").etag()).isNotEqualTo(changed.etag());
+    }
+
+    @Test
+    void menuIsReencodedOnceItsListIsReplaced() {
+        RestaurantCatalog catalog = catalog(1, RESTAURANTS);
+        List<MenuItem> menu = catalog.menu("rest-001");
+
+        CatalogResponseCache.EncodedResponse first = cache.menu(catalog, "rest-001", menu);
+
+        assertThat(cache.menu(catalog, "rest-001", menu)).isSameAs(first);
+        CatalogResponseCache.EncodedResponse refetched = cache.menu(catalog, "rest-001", new ArrayList<>(menu));
+        assertThat(refetched).isNotSameAs(first);
+        assertThat(refetched.etag()).isEqualTo(first.etag());
+        assertThat(jsonMapper.readTree(first.json()).get("count").asInt()).isEqualTo(1);
+        assertThat(jsonMapper.readTree(first.json()).get("restaurantId").asString()).isEqualTo("rest-001");
+    }
+
+    @Test
+    void emptyResultsAreNotKept() {
+        RestaurantCatalog catalog = catalog(1, RESTAURANTS);
+
+        cache.restaurants(catalog, "Unknown");
+        cache.restaurants(catalog, "Unknown");
+
+        assertThat(cache.stats().responses()).isZero();
+        assertThat(cache.stats().encodings()).isEqualTo(2);
+    }
+
+    @Test
+    void servesGzipOnlyWhenAccepted() throws IOException {
+        CatalogResponseCache.EncodedResponse response = cache.restaurants(catalog(1, RESTAURANTS), null);
+        assertThat(gunzip(response.gzip())).isEqualTo(response.json());
+
+        for (String acceptEncoding : new String[] {"gzip", "GZIP", "deflate, gzip;q=0.5", "br, *", "gzip;q=1.0"}) {
+            ResponseEntity<byte[]> entity = response.response(acceptEncoding).body(response.body(acceptEncoding));
+            assertThat(entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).as(acceptEncoding).isEqualTo("gzip");
+            assertThat(entity.getHeaders().getETag()).as(acceptEncoding).isEqualTo(response.gzipEtag());
+            assertThat(entity.getBody()).as(acceptEncoding).isEqualTo(response.gzip());
+        }
+        for (String acceptEncoding : new String[] {null, "", "br", "deflate", "gzip;q=0", "gzip; q=0.000", "*;q=0"}) {
+            ResponseEntity<byte[]> entity = response.response(acceptEncoding).body(response.body(acceptEncoding));
+            assertThat(entity.getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).as(acceptEncoding).isFalse();
+            assertThat(entity.getHeaders().getETag()).as(acceptEncoding).isEqualTo(response.etag());
+            assertThat(entity.getBody()).as(acceptEncoding).isEqualTo(response.json());
+        }
+        assertThat(response.response("gzip").build().getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsA304WithoutABody() throws Exception {
+        CatalogResponseCache.EncodedResponse response = cache.restaurants(catalog(1, RESTAURANTS), null);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new EncodedController(response)).build();
+
+        mockMvc.perform(get("/encoded").header(HttpHeaders.IF_NONE_MATCH, response.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, response.etag()))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/encoded")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, response.gzipEtag()))
+                .andExpect(status().isNotModified());
+        // The gzipped ETag does not match the plain body, nor an outdated one the current
+        mockMvc.perform(get("/encoded").header(HttpHeaders.IF_NONE_MATCH, response.gzipEtag()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(response.json()));
+        mockMvc.perform(get("/encoded").header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, response.etag()));
+    }
+
+    private static RestaurantCatalog catalog(long version, List<Restaurant> restaurants) {
+        return new RestaurantCatalog(version, restaurants, MENU_ITEMS);
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    // Serves one encoded response the way RestaurantController does
+    @RestController
+    private static final class EncodedController {
+
+        private final CatalogResponseCache.EncodedResponse response;
+
+        private EncodedController(CatalogResponseCache.EncodedResponse response) {
+            this.response = response;
+        }
+
+        @GetMapping("/encoded")
+        ResponseEntity<byte[]> encoded(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+            return response.response(acceptEncoding).body(response.body(acceptEncoding));
+        }
+    }
+}
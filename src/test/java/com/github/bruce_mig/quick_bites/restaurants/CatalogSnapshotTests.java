@@ -0,0 +1,141 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotTests {
+
+    // Header: magic, format version, then the string table's size and its first string's length
+    private static final int STRING_COUNT_OFFSET = 8;
+    private static final int FIRST_STRING_LENGTH_OFFSET = 12;
+
+    private final RestaurantCatalog catalog = new RestaurantCatalog(3,
+            List.of(new Restaurant("rest-001", "Café Zoë", "Thai", 4.5, "1 Test St", 37.78, -122.41,
+                            List.of("soup", "euro", "yen", "free")),
+                    new Restaurant("rest-002", "Second", "Thai", 3.9, null, 37.79, -122.42, List.of("off"))),
+            List.of(new MenuItem("soup", "rest-001", "Tom yum 🌶", "Hot and sour", Money.of(650), "Soups", true),
+                    new MenuItem("euro", "rest-001", "Croissant", null, Money.of(400, Currency.getInstance("EUR")), null, true),
+                    new MenuItem("yen", "rest-001", "Onigiri", "Rice", Money.of(300, Currency.getInstance("JPY")), "Snacks", true),
+                    new MenuItem("free", "rest-001", "Water", "Tap", null, "Drinks", true),
+                    new MenuItem("off", "rest-002", "Curry", "Green", Money.of(1_250), "Mains", false)));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackExactlyWhatWasWritten() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(catalog, file);
+
+        RestaurantCatalog read = CatalogSnapshot.read(file, 7);
+
+        assertThat(read.version()).isEqualTo(7);
+        assertThat(read.restaurantsById()).isEqualTo(catalog.restaurantsById());
+        assertThat(read.menuItemsById()).isEqualTo(catalog.menuItemsById());
+        assertThat(read.menuItem("euro").price().currency().getCurrencyCode()).isEqualTo("EUR");
+        assertThat(read.menu("rest-001")).extracting(MenuItem::id).containsExactly("soup", "euro", "yen", "free");
+        // Repeated strings are shared once loaded
+        assertThat(read.menuItem("soup").restaurantId()).isSameAs(read.menuItem("euro").restaurantId());
+    }
+
+    @Test
+    void rewritingReplacesTheOldSnapshot() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(catalog, file);
+        CatalogSnapshot.write(RestaurantCatalog.empty(), file);
+
+        RestaurantCatalog read = CatalogSnapshot.read(file, 1);
+
+        assertThat(read.restaurantsById()).isEmpty();
+        assertThat(read.menuItemsById()).isEmpty();
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void rejectsATruncatedSnapshot() throws IOException {
+        Path file = written();
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length : new int[] {0, 6, bytes.length / 2, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThatThrownBy(() -> CatalogSnapshot.read(file, 1)).as("%d bytes", length)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining(file.toString());
+        }
+    }
+
+    @Test
+    void rejectsAnotherFileOrFormatVersion() throws IOException {
+        Path file = written();
+        byte[] bytes = Files.readAllBytes(file);
+
+        bytes[0] ^= 0x5A;
+        Files.write(file, bytes);
+        assertThatThrownBy(() -> CatalogSnapshot.read(file, 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is not a catalog snapshot");
+
+        bytes[0] ^= 0x5A;
+        ByteBuffer.wrap(bytes).putInt(4, 1);
+        Files.write(file, bytes);
+        assertThatThrownBy(() -> CatalogSnapshot.read(file, 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is not a catalog snapshot in format");
+    }
+
+    @Test
+    void rejectsCorruptedSizesBeforeAllocatingForThem() throws IOException {
+        Path file = written();
+        byte[] original = Files.readAllBytes(file);
+
+        for (int offset : new int[] {STRING_COUNT_OFFSET, FIRST_STRING_LENGTH_OFFSET}) {
+            for (int size : new int[] {Integer.MAX_VALUE, -1}) {
+                byte[] bytes = original.clone();
+                ByteBuffer.wrap(bytes).putInt(offset, size);
+                Files.write(file, bytes);
+
+                assertThatThrownBy(() -> CatalogSnapshot.read(file, 1)).as("%d at %d", size, offset)
+                        .isInstanceOf(IOException.class)
+                        .hasMessageContaining("is not a valid catalog snapshot");
+            }
+        }
+    }
+
+    @Test
+    void rejectsReferencesOutsideTheStringTable() throws IOException {
+        Path file = written();
+        byte[] bytes = Files.readAllBytes(file);
+        // The first restaurant's id reference follows the string table and the restaurant count
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = FIRST_STRING_LENGTH_OFFSET;
+        for (int i = buffer.getInt(STRING_COUNT_OFFSET); i > 0; i--) {
+            position += 4 + buffer.getInt(position);
+        }
+        buffer.putInt(position + 4, 1_000);
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CatalogSnapshot.read(file, 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is not a valid catalog snapshot");
+    }
+
+    private Path written() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(catalog, file);
+        return file;
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.resilience.RetryBudgetRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuCacheTests {
+
+    private static final String RESTAURANT = "rest-001";
+
+    private final ScriptedPartner partner = new ScriptedPartner();
+
+    @Test
+    void missFetchesOnceThenHitsServeTheCachedMenu() {
+        MenuCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+
+        MenuCache.Lookup first = cache.getMenu(RESTAURANT);
+        MenuCache.Lookup second = cache.getMenu(RESTAURANT);
+
+        assertThat(first.status()).isEqualTo(MenuCache.CacheStatus.MISS);
+        assertThat(second.status()).isEqualTo(MenuCache.CacheStatus.HIT);
+        assertThat(version(second)).isEqualTo("v1");
+        assertThat(partner.calls).hasValue(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredMenuIsServedStaleWhileOneBackgroundRefreshRuns() throws InterruptedException {
+        MenuCache cache = cache(Duration.ofMillis(50), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+        cache.getMenu(RESTAURANT);
+        Thread.sleep(80);
+
+        partner.version = "v2";
+        partner.gate = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            MenuCache.Lookup stale = cache.getMenu(RESTAURANT);
+            assertThat(stale.status()).isEqualTo(MenuCache.CacheStatus.STALE);
+            assertThat(version(stale)).isEqualTo("v1");
+            assertThat(stale.ageMillis()).isGreaterThanOrEqualTo(50);
+        }
+        partner.gate.countDown();
+
+        awaitTrue(() -> cache.getMenu(RESTAURANT).status() == MenuCache.CacheStatus.HIT);
+        assertThat(version(cache.getMenu(RESTAURANT))).isEqualTo("v2");
+        assertThat(cache.stats().refreshes()).isEqualTo(1);
+        assertThat(partner.calls).hasValue(2);
+    }
+
+    @Test
+    void failedBackgroundRefreshKeepsTheStaleMenu() throws InterruptedException {
+        MenuCache cache = cache(Duration.ofMillis(50), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+        cache.getMenu(RESTAURANT);
+        Thread.sleep(80);
+
+        partner.failure = new RestaurantApiException("partner down");
+        cache.getMenu(RESTAURANT);
+        awaitTrue(() -> cache.stats().refreshFailures() == 1);
+
+        MenuCache.Lookup lookup = cache.getMenu(RESTAURANT);
+        assertThat(lookup.status()).isEqualTo(MenuCache.CacheStatus.STALE);
+        assertThat(version(lookup)).isEqualTo("v1");
+    }
+
+    @Test
+    void menuPastMaxStaleIsFetchedFirstAndServedStaleOnlyIfThatFails() throws InterruptedException {
+        MenuCache cache = cache(Duration.ofMillis(10), Duration.ofMillis(50), 10);
+        partner.version = "v1";
+        cache.getMenu(RESTAURANT);
+        Thread.sleep(80);
+
+        partner.failure = new RestaurantApiException("partner down");
+        MenuCache.Lookup fallback = cache.getMenu(RESTAURANT);
+        assertThat(fallback.status()).isEqualTo(MenuCache.CacheStatus.STALE);
+        assertThat(version(fallback)).isEqualTo("v1");
+
+        partner.failure = null;
+        partner.version = "v2";
+        MenuCache.Lookup refreshed = cache.getMenu(RESTAURANT);
+        assertThat(refreshed.status()).isEqualTo(MenuCache.CacheStatus.MISS);
+        assertThat(version(refreshed)).isEqualTo("v2");
+    }
+
+    @Test
+    void concurrentMissesShareOneFetch() throws Exception {
+        MenuCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+        partner.gate = new CountDownLatch(1);
+
+        List<CompletableFuture<MenuCache.Lookup>> lookups = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> cache.getMenu(RESTAURANT)));
+        }
+        awaitTrue(() -> cache.stats().deduplicatedFetches() == 7);
+        partner.gate.countDown();
+
+        for (CompletableFuture<MenuCache.Lookup> lookup : lookups) {
+            assertThat(version(lookup.get(5, TimeUnit.SECONDS))).isEqualTo("v1");
+        }
+        assertThat(partner.calls).hasValue(1);
+        assertThat(cache.stats().partnerFetches()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidationDuringAFetchIsNotUndoneByIt() throws Exception {
+        MenuCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+        partner.gate = new CountDownLatch(1);
+        CompletableFuture<MenuCache.Lookup> inFlight = CompletableFuture.supplyAsync(() -> cache.getMenu(RESTAURANT));
+        awaitTrue(() -> partner.calls.get() == 1);
+
+        // The catalog changed while the old menu was on its way
+        cache.invalidate(RESTAURANT);
+        partner.version = "v2";
+        partner.gate.countDown();
+        assertThat(version(inFlight.get(5, TimeUnit.SECONDS))).isEqualTo("v1");
+
+        MenuCache.Lookup after = cache.getMenu(RESTAURANT);
+        assertThat(after.status()).isEqualTo(MenuCache.CacheStatus.MISS);
+        assertThat(version(after)).isEqualTo("v2");
+    }
+
+    @Test
+    void callersAfterAnInvalidationDoNotJoinTheOlderFetch() throws Exception {
+        MenuCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(10), 10);
+        partner.version = "v1";
+        partner.gate = new CountDownLatch(1);
+        CompletableFuture<MenuCache.Lookup> older = CompletableFuture.supplyAsync(() -> cache.getMenu(RESTAURANT));
+        awaitTrue(() -> partner.calls.get() == 1);
+
+        cache.invalidateAll();
+        partner.version = "v2";
+        CompletableFuture<MenuCache.Lookup> newer = CompletableFuture.supplyAsync(() -> cache.getMenu(RESTAURANT));
+        awaitTrue(() -> partner.calls.get() == 2);
+        partner.gate.countDown();
+
+        assertThat(version(older.get(5, TimeUnit.SECONDS))).isEqualTo("v1");
+        assertThat(version(newer.get(5, TimeUnit.SECONDS))).isEqualTo("v2");
+        assertThat(version(cache.getMenu(RESTAURANT))).isEqualTo("v2");
+        assertThat(cache.stats().deduplicatedFetches()).isZero();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyReadMenuWhenFull() throws InterruptedException {
+        MenuCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(10), 2);
+        partner.version = "v1";
+        cache.getMenu("rest-001");
+        Thread.sleep(5);
+        cache.getMenu("rest-002");
+        Thread.sleep(5);
+        cache.getMenu("rest-001");
+        Thread.sleep(5);
+        cache.getMenu("rest-003");
+
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.getMenu("rest-001").status()).isEqualTo(MenuCache.CacheStatus.HIT);
+        assertThat(cache.getMenu("rest-002").status()).isEqualTo(MenuCache.CacheStatus.MISS);
+    }
+
+    private MenuCache cache(Duration ttl, Duration maxStale, int maxSize) {
+        return new MenuCache(partner, ttl, maxStale, maxSize);
+    }
+
+    private static String version(MenuCache.Lookup lookup) {
+        return lookup.menu().getFirst().name();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met within 5s").isNegative();
+            Thread.sleep(5);
+        }
+    }
+
+    // Answers with a one-item menu named after the current version, after an optional gate, or fails
+    private static final class ScriptedPartner extends PartnerMenuClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile String version;
+        private volatile RuntimeException failure;
+        private volatile CountDownLatch gate;
+
+        private ScriptedPartner() {
+            super(null, new RetryBudgetRegistry(0.2, 10, new StandardEnvironment()), false, 95,
+                    Duration.ofMillis(300), Duration.ofMillis(50), 0.5);
+        }
+
+        @Override
+        public List<MenuItem> getMenu(String restaurantId) {
+            calls.incrementAndGet();
+            String answer = version;
+            CountDownLatch waitFor = gate;
+            if (waitFor != null) {
+                try {
+                    waitFor.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RestaurantApiException("interrupted");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return List.of(new MenuItem("item-1", restaurantId, answer, "", Money.of(100), "Mains", true));
+        }
+    }
+}
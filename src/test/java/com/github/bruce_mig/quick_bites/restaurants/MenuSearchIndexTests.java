@@ -0,0 +1,107 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSearchIndexTests {
+
+    // item-00 to item-39 priced 0.50 apart from 0.50, every tenth one "spicy", two "rare", plus one unpriced item
+    private final MenuSearchIndex index = MenuSearchIndex.build(catalog());
+
+    @Test
+    void priceRangeIsInclusiveAndRoundedInwardsToWholeCents() {
+        assertThat(ids(search(null, "1.00", "2.00"))).containsExactly("item-01", "item-02", "item-03");
+        assertThat(ids(search(null, "0.995", "2.004"))).containsExactly("item-01", "item-02", "item-03");
+        assertThat(search(null, null, null).total()).isEqualTo(41);
+        // The unpriced item only drops out once prices are filtered
+        assertThat(search(null, "0", null).total()).isEqualTo(40);
+    }
+
+    @Test
+    void rangesWithoutAWholeCentMatchNothing() {
+        for (String text : new String[] {null, "spicy", "rare"}) {
+            assertThat(search(text, "4.991", "4.999").total()).as(text).isZero();
+            assertThat(search(text, null, "-1").total()).as(text).isZero();
+            assertThat(search(text, "3", "2").items()).as(text).isEmpty();
+        }
+    }
+
+    @Test
+    void boundsBeyondALongAreClamped() {
+        assertThat(search(null, null, "1e30").total()).isEqualTo(40);
+        assertThat(search(null, "-1e30", null).total()).isEqualTo(40);
+        assertThat(search(null, "1e30", null).total()).isZero();
+        assertThat(search("rare", "1e30", "1e31").total()).isZero();
+    }
+
+    @Test
+    void manyMatchesArePagedInSortOrder() {
+        List<String> seen = new ArrayList<>();
+        for (int page = 0; page < 6; page++) {
+            MenuSearchIndex.Result result = index.search(query(null, "0", null, MenuSearchIndex.Sort.PRICE, true, page, 7));
+            assertThat(result.total()).isEqualTo(40);
+            assertThat(result.items()).hasSize(page < 5 ? 7 : 5);
+            seen.addAll(ids(result));
+        }
+        assertThat(seen).hasSize(40).doesNotHaveDuplicates();
+        assertThat(seen.getFirst()).isEqualTo("item-39");
+        assertThat(seen.getLast()).isEqualTo("item-00");
+
+        MenuSearchIndex.Result pastTheEnd = index.search(query(null, null, null, MenuSearchIndex.Sort.NAME, false, 9, 7));
+        assertThat(pastTheEnd.total()).isEqualTo(41);
+        assertThat(pastTheEnd.items()).isEmpty();
+    }
+
+    @Test
+    void fewMatchesArePagedInSortOrderToo() {
+        MenuSearchIndex.Result first = index.search(query("rare", null, null, MenuSearchIndex.Sort.PRICE, true, 0, 1));
+        MenuSearchIndex.Result second = index.search(query("rare", null, null, MenuSearchIndex.Sort.PRICE, true, 1, 1));
+        MenuSearchIndex.Result third = index.search(query("rare", null, null, MenuSearchIndex.Sort.PRICE, true, 2, 1));
+
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(ids(first)).containsExactly("item-25");
+        assertThat(ids(second)).containsExactly("item-05");
+        assertThat(third.items()).isEmpty();
+    }
+
+    @Test
+    void allWordsMustMatch() {
+        assertThat(ids(search("spicy", null, null))).containsExactly("item-00", "item-10", "item-20", "item-30");
+        assertThat(ids(search("spicy rare", null, null))).isEmpty();
+        assertThat(ids(search("Rare DISH", null, null))).containsExactly("item-05", "item-25");
+    }
+
+    private MenuSearchIndex.Result search(String text, String minPrice, String maxPrice) {
+        return index.search(query(text, minPrice, maxPrice, MenuSearchIndex.Sort.PRICE, false, 0, 100));
+    }
+
+    private static MenuSearchIndex.Query query(String text, String minPrice, String maxPrice,
+                                               MenuSearchIndex.Sort sort, boolean descending, int page, int size) {
+        return new MenuSearchIndex.Query(text, null, null,
+                minPrice == null ? null : new BigDecimal(minPrice), maxPrice == null ? null : new BigDecimal(maxPrice),
+                null, sort, descending, page, size);
+    }
+
+    private static List<String> ids(MenuSearchIndex.Result result) {
+        return result.items().stream().map(MenuItem::id).toList();
+    }
+
+    private static RestaurantCatalog catalog() {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String description = (i % 10 == 0 ? "spicy " : "") + (i == 5 || i == 25 ? "rare" : "plain");
+            items.add(new MenuItem("item-%02d".formatted(i), "rest-001", "Dish " + i, description,
+                    Money.of(50L * (i + 1)), "Mains", true));
+        }
+        items.add(new MenuItem("item-unpriced", "rest-001", "Dish unpriced", "plain", null, "Mains", true));
+        Restaurant restaurant = new Restaurant("rest-001", "Test", "Thai", 4.5, "1 Test St", 37.78, -122.41,
+                items.stream().map(MenuItem::id).toList());
+        return new RestaurantCatalog(1, List.of(restaurant), items);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantCatalogTests {
+
+    private final RestaurantCatalog catalog = new RestaurantCatalog(1,
+            List.of(restaurant("rest-001", "soup", "bread", "off", "free", "euro", "huge"),
+                    restaurant("rest-002", "cake")),
+            List.of(item("soup", "rest-001", Money.of(650), true),
+                    item("bread", "rest-001", Money.of(199), true),
+                    item("off", "rest-001", Money.of(500), false),
+                    item("free", "rest-001", null, true),
+                    item("euro", "rest-001", Money.of(400, Currency.getInstance("EUR")), true),
+                    item("huge", "rest-001", Money.of(Long.MAX_VALUE), true),
+                    item("cake", "rest-002", Money.of(350), true)));
+
+    @Test
+    void totalsEveryOccurrenceOfAnItem() {
+        assertThat(catalog.totalMinorUnits("rest-001", List.of("soup", "bread", "bread"))).isEqualTo(1048);
+        assertThat(catalog.total("rest-001", List.of("soup"))).isEqualTo(Money.of(650));
+        assertThat(catalog.totalMinorUnits("rest-001", List.of())).isZero();
+    }
+
+    @Test
+    void rejectsItemsTheRestaurantDoesNotOffer() {
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("soup", "missing")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing is not on restaurant rest-001's menu");
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("cake")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cake is not on restaurant rest-001's menu");
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("off")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("off is not available");
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("free")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("free is not available");
+    }
+
+    @Test
+    void rejectsPricesInAnotherCurrencyAndTotalsThatOverflow() {
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("soup", "euro")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("priced in EUR");
+        assertThat(catalog.menuItemsByPriceBand(RestaurantCatalog.PriceBand.BUDGET))
+                .extracting(MenuItem::id).containsExactlyInAnyOrder("soup", "bread", "cake");
+        assertThatThrownBy(() -> catalog.totalMinorUnits("rest-001", List.of("huge", "bread")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static Restaurant restaurant(String id, String... menuItemIds) {
+        return new Restaurant(id, id, "Test", 4.5, "1 Test St", 37.78, -122.41, List.of(menuItemIds));
+    }
+
+    private static MenuItem item(String id, String restaurantId, Money price, boolean available) {
+        return new MenuItem(id, restaurantId, id, id, price, "Mains", available);
+    }
+}
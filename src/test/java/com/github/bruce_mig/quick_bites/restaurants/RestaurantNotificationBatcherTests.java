@@ -0,0 +1,130 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import com.github.bruce_mig.quick_bites.money.Money;
+import com.github.bruce_mig.quick_bites.order.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantNotificationBatcherTests {
+
+    private final RecordingNotificationService service = new RecordingNotificationService();
+    private RestaurantNotificationBatcher batcher;
+
+    @AfterEach
+    void stopBatcher() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+        batcher = new RestaurantNotificationBatcher(service, Duration.ofMinutes(1), 3);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batcher.submit(order("order-" + i, "rest-001")));
+        }
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(service.batches).containsExactly(List.of("order-0", "order-1", "order-2"));
+        assertThat(batcher.stats().batchesSent()).isEqualTo(1);
+    }
+
+    @Test
+    void windowFlushesEachRestaurantsPartialBatch() throws Exception {
+        batcher = new RestaurantNotificationBatcher(service, Duration.ofMillis(50), 50);
+        CompletableFuture<Void> first = batcher.submit(order("order-1", "rest-001"));
+        CompletableFuture<Void> second = batcher.submit(order("order-2", "rest-001"));
+        CompletableFuture<Void> other = batcher.submit(order("order-3", "rest-002"));
+
+        CompletableFuture.allOf(first, second, other).get(5, TimeUnit.SECONDS);
+        assertThat(service.batches).containsExactlyInAnyOrder(List.of("order-1", "order-2"), List.of("order-3"));
+        assertThat(batcher.stats().meanBatchSize()).isEqualTo(1.5);
+    }
+
+    @Test
+    void rejectedOrdersFailOnTheirOwn() throws Exception {
+        service.rejectedOrderId = "order-2";
+        batcher = new RestaurantNotificationBatcher(service, Duration.ofMinutes(1), 2);
+        CompletableFuture<Void> accepted = batcher.submit(order("order-1", "rest-001"));
+        CompletableFuture<Void> rejected = batcher.submit(order("order-2", "rest-001"));
+
+        accepted.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(NotificationRejectedException.class)
+                .hasMessageContaining("rejected order order-2");
+        assertThat(batcher.stats().ordersRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchCallFailsEveryOrderInIt() {
+        service.failure = new IllegalStateException("restaurant down");
+        batcher = new RestaurantNotificationBatcher(service, Duration.ofMinutes(1), 2);
+        CompletableFuture<Void> first = batcher.submit(order("order-1", "rest-001"));
+        CompletableFuture<Void> second = batcher.submit(order("order-2", "rest-001"));
+
+        for (CompletableFuture<Void> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().hasMessage("restaurant down");
+        }
+        assertThat(batcher.stats().batchesFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void ordersSubmittedAfterShutdownFailInsteadOfHanging() {
+        batcher = new RestaurantNotificationBatcher(service, Duration.ofMillis(50), 50);
+        batcher.stop();
+
+        CompletableFuture<Void> result = batcher.submit(order("order-1", "rest-001"));
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(RejectedExecutionException.class);
+        // No batch was left behind for the next order to join and wait on forever
+        assertThatThrownBy(() -> batcher.submit(order("order-2", "rest-001")).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(RejectedExecutionException.class);
+        assertThat(service.batches).isEmpty();
+    }
+
+    private static Order order(String id, String restaurantId) {
+        return new Order(id, "customer-1", restaurantId, List.of("item-1"), Money.of(1000), "payment-1");
+    }
+
+    // Answers at once, recording each batch, rejecting one chosen order or failing the whole call
+    private static final class RecordingNotificationService extends RestaurantNotificationService {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile String rejectedOrderId;
+        private volatile RuntimeException failure;
+
+        @Override
+        public BatchNotificationResult notifyRestaurantBatch(String restaurantId, List<Order> orders) {
+            if (failure != null) {
+                throw failure;
+            }
+            List<String> orderIds = orders.stream().map(Order::id).toList();
+            batches.add(orderIds);
+            List<String> accepted = orderIds.stream().filter(id -> !id.equals(rejectedOrderId)).toList();
+            Map<String, String> rejected = orderIds.contains(rejectedOrderId)
+                    ? Map.of(rejectedOrderId, "Kitchen closed")
+                    : Map.of();
+            return new BatchNotificationResult(restaurantId, accepted, rejected);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.bruce_mig.quick_bites.restaurants;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantPageTests {
+
+    private final List<Restaurant> restaurants = IntStream.rangeClosed(1, 10)
+            .mapToObj(i -> restaurant("rest-%03d".formatted(i)))
+            .toList();
+
+    @Test
+    void pagesThroughEveryRestaurantOnceInOrder() {
+        for (int limit : new int[] {1, 3, 5, 10, 11}) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                RestaurantPage page = RestaurantPage.of(restaurants, cursor, limit, 1);
+                assertThat(page.restaurants()).as("limit %d", limit).hasSizeLessThanOrEqualTo(limit).isNotEmpty();
+                page.restaurants().forEach(restaurant -> seen.add(restaurant.id()));
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).as("limit %d", limit).containsExactlyElementsOf(ids(restaurants));
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        RestaurantPage last = RestaurantPage.of(restaurants, RestaurantPage.of(restaurants, null, 5, 1).nextCursor(), 5, 1);
+
+        assertThat(ids(last.restaurants())).containsExactly("rest-006", "rest-007", "rest-008", "rest-009", "rest-010");
+        assertThat(last.nextCursor()).isNull();
+        assertThat(RestaurantPage.of(List.of(), null, 5, 1).nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorIsOpaqueAndCarriesTheLastId() {
+        RestaurantPage first = RestaurantPage.of(restaurants, null, 3, 7);
+
+        assertThat(first.catalogVersion()).isEqualTo(7);
+        assertThat(first.nextCursor()).doesNotContain("rest-003").matches("[A-Za-z0-9_-]+");
+        assertThat(new String(Base64.getUrlDecoder().decode(first.nextCursor()), StandardCharsets.UTF_8))
+                .isEqualTo("after:rest-003");
+    }
+
+    @Test
+    void cursorStaysValidAcrossCatalogChanges() {
+        String cursor = RestaurantPage.of(restaurants, null, 4, 1).nextCursor();
+        List<Restaurant> reloaded = new ArrayList<>(restaurants);
+        // Restaurants removed before the cursor and added around it, including the one it points at
+        reloaded.removeIf(restaurant -> List.of("rest-001", "rest-004").contains(restaurant.id()));
+        reloaded.add(0, restaurant("rest-000"));
+        reloaded.add(3, restaurant("rest-003a"));
+
+        RestaurantPage next = RestaurantPage.of(reloaded, cursor, 3, 2);
+
+        assertThat(ids(next.restaurants())).containsExactly("rest-005", "rest-006", "rest-007");
+        assertThat(RestaurantPage.of(reloaded, next.nextCursor(), 10, 2).restaurants())
+                .extracting(Restaurant::id).containsExactly("rest-008", "rest-009", "rest-010");
+    }
+
+    @Test
+    void cursorPastTheEndGivesAnEmptyLastPage() {
+        String cursor = RestaurantPage.of(restaurants, null, 9, 1).nextCursor();
+
+        RestaurantPage page = RestaurantPage.of(restaurants.subList(0, 5), cursor, 5, 2);
+
+        assertThat(page.restaurants()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotHandOut() {
+        String unprefixed = Base64.getUrlEncoder().withoutPadding().encodeToString("rest-003".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[] {"rest-003", "!!!", "a", unprefixed, ""}) {
+            assertThatThrownBy(() -> RestaurantPage.of(restaurants, cursor, 5, 1)).as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static Restaurant restaurant(String id) {
+        return new Restaurant(id, "Restaurant " + id, "Thai", 4.0, "1 Test St", 37.78, -122.41, List.of());
+    }
+
+    private static List<String> ids(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::id).toList();
+    }
+}